@@ -0,0 +1,98 @@
+package ru.modgy.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Объем данных небольшого зоо-отеля за два года: 120 номеров, 3000 владельцев, 5000 питомцев
+ * и около 12000 бронирований. Общий для всех бенчмарков.
+ */
+final class BenchmarkData {
+    static final int CATEGORIES = 6;
+    static final int ROOMS = 120;
+    static final int OWNERS = 3000;
+    static final int PETS = 5000;
+    static final LocalDate START_DATE = LocalDate.of(2023, 1, 1);
+    static final LocalDate END_DATE = START_DATE.plusYears(2);
+    static final long REQUESTER_ID = 1L;
+
+    private BenchmarkData() {
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("DELETE FROM pets_in_bookings");
+        jdbcTemplate.execute("DELETE FROM bookings");
+        jdbcTemplate.execute("DELETE FROM pets");
+        jdbcTemplate.execute("DELETE FROM owners");
+        jdbcTemplate.execute("DELETE FROM rooms");
+        jdbcTemplate.execute("DELETE FROM categories");
+
+        Random data = new Random(7);
+        Timestamp registrationDate = Timestamp.valueOf(LocalDateTime.of(2022, 12, 1, 10, 0));
+
+        List<Object[]> categories = new ArrayList<>();
+        for (long id = 1; id <= CATEGORIES; id++) {
+            categories.add(new Object[]{id, "Category " + id, "Описание категории " + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id_categories, name_categories, description_categories) " +
+                "VALUES (?, ?, ?)", categories);
+
+        List<Object[]> rooms = new ArrayList<>();
+        for (long id = 1; id <= ROOMS; id++) {
+            rooms.add(new Object[]{id, "R" + id, 5.0 + id % 10, id % CATEGORIES + 1, true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rooms (id_rooms, number_rooms, area_rooms, category_id_rooms, " +
+                "visible_rooms) VALUES (?, ?, ?, ?, ?)", rooms);
+
+        List<Object[]> owners = new ArrayList<>();
+        for (long id = 1; id <= OWNERS; id++) {
+            String phone = String.format("8900%07d", id);
+            owners.add(new Object[]{id, "Фамилия" + id, "Имя" + id % 300, phone, "7" + phone.substring(1),
+                    registrationDate});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO owners (id_owners, last_name_owners, first_name_owners, " +
+                "main_phone_owners, main_phone_digits_owners, registration_date_owners) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", owners);
+
+        List<Object[]> pets = new ArrayList<>();
+        for (long id = 1; id <= PETS; id++) {
+            pets.add(new Object[]{id, (id - 1) % OWNERS + 1, id % 3 == 0 ? "CAT" : "DOG", "Кличка" + id,
+                    "Порода" + id % 40, Date.valueOf(LocalDate.of(2015, 1, 1).plusDays(id % 3000)),
+                    id % 2 == 0 ? "MALE" : "FEMALE", registrationDate});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pets (id_pets, owner_id_pets, type_pets, name_pets, breed_pets, " +
+                "birth_date_pets, sex_pets, registration_date_pets) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", pets);
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> petsInBookings = new ArrayList<>();
+        long bookingId = 0;
+        for (long roomId = 1; roomId <= ROOMS; roomId++) {
+            LocalDate checkInDate = START_DATE.plusDays(data.nextInt(4));
+            while (checkInDate.isBefore(END_DATE)) {
+                LocalDate checkOutDate = checkInDate.plusDays(1 + data.nextInt(10));
+                bookingId++;
+                String status = data.nextInt(20) == 0 ? "STATUS_CANCELLED" : "STATUS_CONFIRMED";
+                bookings.add(new Object[]{bookingId, "TYPE_BOOKING", Date.valueOf(checkInDate),
+                        Date.valueOf(checkOutDate), status, 1500.0, 1500.0 * 7, 0.0, true, roomId});
+                long petId = data.nextInt(PETS) + 1;
+                petsInBookings.add(new Object[]{bookingId, petId});
+                if (data.nextInt(4) == 0) {
+                    petsInBookings.add(new Object[]{bookingId, petId % PETS + 1});
+                }
+                checkInDate = checkOutDate.plusDays(data.nextInt(4));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id_bookings, type_bookings, check_in_date_bookings, " +
+                "check_out_date_bookings, status_bookings, price_bookings, amount_bookings, " +
+                "prepayment_amount_bookings, made_prepayment_bookings, room_id_bookings) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO pets_in_bookings (id_bookings, id_pets) VALUES (?, ?)", petsInBookings);
+    }
+}
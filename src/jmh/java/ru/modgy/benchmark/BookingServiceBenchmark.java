@@ -0,0 +1,103 @@
+package ru.modgy.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.modgy.PetHotelApplication;
+import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.service.BookingService;
+import ru.modgy.booking.service.RoomOccupancyIndexLoader;
+import ru.modgy.exception.ConflictException;
+import ru.modgy.room.dto.RoomDto;
+import ru.modgy.room.service.RoomService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static ru.modgy.benchmark.BenchmarkData.*;
+
+/**
+ * Сервисный слой на встроенной H2 (профиль test), заполненной данными {@link BenchmarkData}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private RoomService roomService;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetHotelApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run();
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class));
+        context.getBean(RoomOccupancyIndexLoader.class).loadIndex();
+        bookingService = context.getBean(BookingService.class);
+        roomService = context.getBean(RoomService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> findAllBookingsInDates() {
+        LocalDate startDate = randomDate();
+        return bookingService.findAllBookingsInDates(REQUESTER_ID, startDate, startDate.plusDays(7), false);
+    }
+
+    @Benchmark
+    public List<BookingDto> findAllBookingsInDatesExpanded() {
+        LocalDate startDate = randomDate();
+        return bookingService.findAllBookingsInDates(REQUESTER_ID, startDate, startDate.plusDays(7), true);
+    }
+
+    @Benchmark
+    public List<BookingDto> findBlockingBookingsForRoomInDates() {
+        LocalDate checkInDate = randomDate();
+        return bookingService.findBlockingBookingsForRoomInDates(
+                REQUESTER_ID, randomRoomId(), checkInDate, checkInDate.plusDays(5), false);
+    }
+
+    @Benchmark
+    public boolean checkRoomAvailableInDates() {
+        LocalDate checkInDate = randomDate();
+        try {
+            bookingService.checkRoomAvailableInDates(REQUESTER_ID, randomRoomId(), checkInDate, checkInDate.plusDays(5));
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public List<RoomDto> getAvailableRoomsByCategoryInDates() {
+        LocalDate checkInDate = randomDate();
+        return roomService.getAvailableRoomsByCategoryInDates(
+                REQUESTER_ID, (long) random.nextInt(CATEGORIES) + 1, checkInDate, checkInDate.plusDays(5));
+    }
+
+    private LocalDate randomDate() {
+        return START_DATE.plusDays(random.nextInt(700));
+    }
+
+    private long randomRoomId() {
+        return random.nextInt(ROOMS) + 1;
+    }
+}
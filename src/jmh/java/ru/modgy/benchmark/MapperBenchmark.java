@@ -0,0 +1,126 @@
+package ru.modgy.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.mapper.BookingMapper;
+import ru.modgy.booking.dto.mapper.BookingMapperImpl;
+import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.StatusBooking;
+import ru.modgy.booking.model.TypesBooking;
+import ru.modgy.owner.model.Owner;
+import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.mapper.PetMapper;
+import ru.modgy.pet.mapper.PetMapperImpl;
+import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.Sex;
+import ru.modgy.pet.model.TypeOfPet;
+import ru.modgy.room.category.dto.mapper.CategoryMapperImpl;
+import ru.modgy.room.category.model.Category;
+import ru.modgy.room.dto.mapper.RoomMapperImpl;
+import ru.modgy.room.model.Room;
+import ru.modgy.utility.PhoneFormatMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг сущностей в DTO без обращения к БД: MapStruct-мапперы поднимаются в минимальном контексте Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private BookingMapper bookingMapper;
+    private PetMapper petMapper;
+    private Booking booking;
+    private Pet pet;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                BookingMapperImpl.class, PetMapperImpl.class, RoomMapperImpl.class, CategoryMapperImpl.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        petMapper = context.getBean(PetMapper.class);
+
+        Owner owner = Owner.builder()
+                .id(1L)
+                .lastName("Иванов")
+                .firstName("Иван")
+                .mainPhone("89001234567")
+                .registrationDate(LocalDateTime.of(2023, 1, 1, 10, 0))
+                .build();
+        pet = Pet.builder()
+                .id(1L)
+                .owner(owner)
+                .type(TypeOfPet.DOG)
+                .name("Шарик")
+                .breed("Спаниель")
+                .birthDate(LocalDate.of(2021, 5, 17))
+                .sex(Sex.MALE)
+                .registrationDate(LocalDateTime.of(2023, 1, 1, 10, 0))
+                .build();
+        Room room = Room.builder()
+                .id(1L)
+                .number("1F")
+                .area(10.0)
+                .category(new Category(1L, null, "Room", "Стандартный номер"))
+                .isVisible(true)
+                .build();
+        booking = Booking.builder()
+                .id(1L)
+                .type(TypesBooking.TYPE_BOOKING)
+                .checkInDate(LocalDate.of(2024, 9, 2))
+                .checkOutDate(LocalDate.of(2024, 9, 9))
+                .status(StatusBooking.STATUS_CONFIRMED)
+                .price(1500.0)
+                .amount(10500.0)
+                .prepaymentAmount(3000.0)
+                .isPrepaid(true)
+                .room(room)
+                .pets(List.of(pet, pet))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return bookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public Long calculateBookingDays() {
+        return bookingMapper.calculateBookingDays(booking.getCheckInDate(), booking.getCheckOutDate());
+    }
+
+    @Benchmark
+    public PetDto toPetDto() {
+        return petMapper.toPetDto(pet);
+    }
+
+    @Benchmark
+    public String calculateAge() {
+        return petMapper.calculateAge(pet.getBirthDate());
+    }
+
+    @Benchmark
+    public String formatPhoneNumber(PhoneState state) {
+        return PhoneFormatMapper.formatPhoneNumber(state.phoneNumber);
+    }
+
+    @State(Scope.Benchmark)
+    public static class PhoneState {
+        @Param({"+7 (900) 123-45-67", "89001234567"})
+        private String phoneNumber;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.modgy.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.modgy.PetHotelApplication;
+import ru.modgy.booking.service.RoomOccupancyIndexLoader;
+import ru.modgy.utility.UtilityService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static ru.modgy.benchmark.BenchmarkData.*;
+
+/**
+ * Нагрузочный тест HTTP-слоя: 200 одновременных клиентов выполняют GET /bookings/inDates
+ * против приложения с пулом Tomcat из 50 платформенных потоков (threads=platform)
+ * или с обработкой запросов на виртуальных потоках (threads=virtual, нужна Java 21+).
+ * В обоих режимах пул соединений Hikari - 20. Режим SampleTime выводит перцентили задержки, в том числе p0.99.
+ * Запуск: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RequestConcurrencyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(200)
+@Fork(1)
+public class RequestConcurrencyBenchmark {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PetHotelApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=50",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "modgy.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run();
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class));
+        context.getBean(RoomOccupancyIndexLoader.class).loadIndex();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findAllBookingsInDates() throws IOException, InterruptedException {
+        LocalDate startDate = START_DATE.plusDays(ThreadLocalRandom.current().nextInt(700));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/inDates?startDate="
+                        + startDate.format(DATE_FORMATTER) + "&endDate=" + startDate.plusDays(7).format(DATE_FORMATTER)))
+                .header(UtilityService.REQUESTER_ID_HEADER, String.valueOf(REQUESTER_ID))
+                .GET()
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.modgy.analytics.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import ru.modgy.analytics.dto.CategoryStatsDto;
+import ru.modgy.analytics.dto.RoomStatsDto;
+import ru.modgy.analytics.service.AnalyticsService;
+import ru.modgy.utility.UtilityService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin
+@Slf4j
+@RestController
+@RequestMapping(path = "/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+    private final UtilityService utilityService;
+
+    @GetMapping("/categories")
+    public List<CategoryStatsDto> getCategoryStats(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+                                                   @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
+                                                   @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate,
+                                                   @RequestParam(value = "categoryId", required = false) Long categoryId) {
+        log.info("AnalyticsController: GET/getCategoryStats, requesterId={}, categoryId={}", requesterId, categoryId);
+        utilityService.checkBossAdminFinancialAccess(requesterId);
+        return analyticsService.getCategoryStats(requesterId, startDate, endDate, categoryId);
+    }
+
+    @GetMapping("/rooms/{roomId}")
+    public RoomStatsDto getRoomStats(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+                                     @PathVariable("roomId") Long roomId,
+                                     @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
+                                     @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate) {
+        log.info("AnalyticsController: GET/getRoomStats, requesterId={}, roomId={}", requesterId, roomId);
+        utilityService.checkBossAdminFinancialAccess(requesterId);
+        return analyticsService.getRoomStats(requesterId, roomId, startDate, endDate);
+    }
+}
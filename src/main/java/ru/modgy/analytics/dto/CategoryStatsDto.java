@@ -0,0 +1,19 @@
+package ru.modgy.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryStatsDto {
+    private Long categoryId;
+    private String categoryName;
+    private Integer rooms;
+    private List<PeriodStatsDto> months;
+}
@@ -0,0 +1,26 @@
+package ru.modgy.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PeriodStatsDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long roomDays;
+    private Long occupiedRoomDays;
+    private Long closedRoomDays;
+    private Double loadFactor;
+    private Long checkIns;
+    private Double averageStayDays;
+    private Double averagePrice;
+    private Double revenue;
+    private Double prepayment;
+}
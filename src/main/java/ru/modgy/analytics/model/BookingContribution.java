@@ -0,0 +1,12 @@
+package ru.modgy.analytics.model;
+
+import ru.modgy.booking.model.TypesBooking;
+
+import java.time.LocalDate;
+
+/**
+ * Данные неотмененного бронирования, из которых складываются дневные агрегаты аналитики
+ */
+public record BookingContribution(Long bookingId, Long roomId, TypesBooking type, LocalDate checkInDate,
+                                  LocalDate checkOutDate, Double price, Double amount, Double prepaymentAmount) {
+}
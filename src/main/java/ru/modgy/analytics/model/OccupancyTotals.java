@@ -0,0 +1,16 @@
+package ru.modgy.analytics.model;
+
+/**
+ * Сумма дневных агрегатов номера или категории за период
+ *
+ * @param occupiedRoomDays - количество занятых бронированиями номеро-дней (ночей, однодневное бронирование - один день)
+ * @param closedRoomDays   - количество номеро-дней, закрытых бронированиями типа закрытие
+ * @param checkIns         - количество заездов в период
+ * @param stayDays         - суммарная длительность пребывания (daysOfBooking) заехавших в период
+ * @param revenue          - стоимость бронирований (amount), распределенная поровну по занятым дням
+ * @param prepayment       - предоплата (prepaymentAmount), распределенная поровну по занятым дням
+ * @param priceSum         - сумма цен за сутки (price) по занятым номеро-дням
+ */
+public record OccupancyTotals(long occupiedRoomDays, long closedRoomDays, long checkIns, long stayDays,
+                              double revenue, double prepayment, double priceSum) {
+}
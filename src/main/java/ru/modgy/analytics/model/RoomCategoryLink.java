@@ -0,0 +1,4 @@
+package ru.modgy.analytics.model;
+
+public record RoomCategoryLink(Long roomId, Long categoryId) {
+}
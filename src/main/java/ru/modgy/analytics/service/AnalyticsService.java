@@ -0,0 +1,32 @@
+package ru.modgy.analytics.service;
+
+import ru.modgy.analytics.dto.CategoryStatsDto;
+import ru.modgy.analytics.dto.RoomStatsDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+    /**
+     * Загрузка номеров, средняя длительность пребывания и выручка по категориям номеров помесячно
+     *
+     * @param userId     - id пользователя, направляющего запрос
+     * @param startDate  - дата начала периода
+     * @param endDate    - дата окончания периода
+     * @param categoryId - id категории, null - все категории
+     * @return показатели категорий, для каждой - по месяцам периода (первый и последний месяц неполные,
+     * если период начинается или заканчивается не на границе месяца)
+     */
+    List<CategoryStatsDto> getCategoryStats(Long userId, LocalDate startDate, LocalDate endDate, Long categoryId);
+
+    /**
+     * Загрузка, средняя длительность пребывания и выручка номера помесячно
+     *
+     * @param userId    - id пользователя, направляющего запрос
+     * @param roomId    - id номера
+     * @param startDate - дата начала периода
+     * @param endDate   - дата окончания периода
+     * @return показатели номера по месяцам периода
+     */
+    RoomStatsDto getRoomStats(Long userId, Long roomId, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,118 @@
+package ru.modgy.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.analytics.dto.CategoryStatsDto;
+import ru.modgy.analytics.dto.PeriodStatsDto;
+import ru.modgy.analytics.dto.RoomStatsDto;
+import ru.modgy.analytics.model.OccupancyTotals;
+import ru.modgy.room.category.model.Category;
+import ru.modgy.room.category.repository.CategoryRepository;
+import ru.modgy.room.model.Room;
+import ru.modgy.utility.EntityService;
+import ru.modgy.utility.UtilityService;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+    private final BookingStatsIndex bookingStatsIndex;
+    private final CategoryRepository categoryRepository;
+    private final EntityService entityService;
+    private final UtilityService utilityService;
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<CategoryStatsDto> getCategoryStats(Long userId, LocalDate startDate, LocalDate endDate,
+                                                   Long categoryId) {
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        List<Category> categories = categoryId == null
+                ? categoryRepository.findAllOrderByNameAsc().orElse(Collections.emptyList())
+                : List.of(entityService.getCategoryIfExists(categoryId));
+
+        List<CategoryStatsDto> result = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            int rooms = bookingStatsIndex.countRoomsInCategory(category.getId());
+            result.add(CategoryStatsDto.builder()
+                    .categoryId(category.getId())
+                    .categoryName(category.getName())
+                    .rooms(rooms)
+                    .months(getMonthlyStats(startDate, endDate, rooms, (from, to) ->
+                            bookingStatsIndex.summarizeCategory(category.getId(), from, to)))
+                    .build());
+        }
+        log.info("AnalyticsService: getCategoryStats, startDate={}, endDate={}, num of categories={}",
+                startDate, endDate, result.size());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public RoomStatsDto getRoomStats(Long userId, Long roomId, LocalDate startDate, LocalDate endDate) {
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        Room room = entityService.getRoomIfExists(roomId);
+        RoomStatsDto result = RoomStatsDto.builder()
+                .roomId(room.getId())
+                .roomNumber(room.getNumber())
+                .categoryId(room.getCategory() == null ? null : room.getCategory().getId())
+                .months(getMonthlyStats(startDate, endDate, 1, (from, to) ->
+                        bookingStatsIndex.summarizeRoom(roomId, from, to)))
+                .build();
+        log.info("AnalyticsService: getRoomStats, roomId={}, startDate={}, endDate={}", roomId, startDate, endDate);
+        return result;
+    }
+
+    private List<PeriodStatsDto> getMonthlyStats(LocalDate startDate, LocalDate endDate, int rooms,
+                                                 BiFunction<LocalDate, LocalDate, OccupancyTotals> summarize) {
+        List<PeriodStatsDto> months = new ArrayList<>();
+        LocalDate from = startDate;
+        while (!from.isAfter(endDate)) {
+            LocalDate endOfMonth = from.with(TemporalAdjusters.lastDayOfMonth());
+            LocalDate to = endOfMonth.isBefore(endDate) ? endOfMonth : endDate;
+            months.add(toPeriodStatsDto(from, to, rooms, summarize.apply(from, to)));
+            from = to.plusDays(1);
+        }
+        return months;
+    }
+
+    /*
+     * Загрузка считается от номеро-дней, не закрытых бронированиями типа закрытие;
+     * количество номеров берется текущее. Занятые номеро-дни считаются по ночам (день выезда не занят),
+     * поэтому бронирования встык не дают загрузку выше 1.
+     */
+    private PeriodStatsDto toPeriodStatsDto(LocalDate from, LocalDate to, int rooms, OccupancyTotals totals) {
+        long roomDays = rooms * (ChronoUnit.DAYS.between(from, to) + 1);
+        long availableRoomDays = roomDays - totals.closedRoomDays();
+        return PeriodStatsDto.builder()
+                .startDate(from)
+                .endDate(to)
+                .roomDays(roomDays)
+                .occupiedRoomDays(totals.occupiedRoomDays())
+                .closedRoomDays(totals.closedRoomDays())
+                .loadFactor(availableRoomDays > 0
+                        ? round((double) totals.occupiedRoomDays() / availableRoomDays, 4) : 0.0)
+                .checkIns(totals.checkIns())
+                .averageStayDays(totals.checkIns() > 0
+                        ? round((double) totals.stayDays() / totals.checkIns(), 2) : 0.0)
+                .averagePrice(totals.occupiedRoomDays() > 0
+                        ? round(totals.priceSum() / totals.occupiedRoomDays(), 2) : 0.0)
+                .revenue(round(totals.revenue(), 2))
+                .prepayment(round(totals.prepayment(), 2))
+                .build();
+    }
+
+    private static double round(double value, int scale) {
+        double factor = Math.pow(10, scale);
+        return Math.round(value * factor) / factor;
+    }
+}
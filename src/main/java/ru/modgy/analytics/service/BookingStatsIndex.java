@@ -0,0 +1,227 @@
+package ru.modgy.analytics.service;
+
+import org.springframework.stereotype.Component;
+import ru.modgy.analytics.model.BookingContribution;
+import ru.modgy.analytics.model.OccupancyTotals;
+import ru.modgy.analytics.model.RoomCategoryLink;
+import ru.modgy.booking.model.TypesBooking;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Дневные агрегаты бронирований в памяти: для каждого номера и каждой категории по дням хранятся
+ * занятые и закрытые номеро-дни, заезды, длительность пребывания и выручка.
+ * Агрегаты меняются инкрементально при сохранении и удалении бронирования (вычитается прежний вклад
+ * бронирования и добавляется новый), поэтому запрос за период суммирует по одной записи на день
+ * и не перечитывает бронирования.
+ * Номер занят по ночам: от дня заезда до дня перед выездом, день выезда свободен для следующего заезда
+ * (бронирования одного номера могут идти встык, как в RoomOccupancyIndex). Однодневное бронирование занимает один день.
+ * Длительность пребывания (stayDays) считается как daysOfBooking - с днем заезда и днем выезда.
+ */
+@Component
+public class BookingStatsIndex {
+    private final Map<Long, BookingContribution> bookings = new HashMap<>();
+    private final Map<Long, Long> categoryByRoom = new HashMap<>();
+    private final Map<Long, DailySeries> rooms = new HashMap<>();
+    private final Map<Long, DailySeries> categories = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void load(Collection<RoomCategoryLink> roomCategories, Collection<BookingContribution> contributions) {
+        lock.writeLock().lock();
+        try {
+            bookings.clear();
+            categoryByRoom.clear();
+            rooms.clear();
+            categories.clear();
+            roomCategories.forEach(link -> move(link.roomId(), link.categoryId()));
+            contributions.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BookingContribution put(BookingContribution contribution) {
+        lock.writeLock().lock();
+        try {
+            BookingContribution previous = delete(contribution.bookingId());
+            add(contribution);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BookingContribution remove(Long bookingId) {
+        lock.writeLock().lock();
+        try {
+            return delete(bookingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Перенос номера в другую категорию: агрегаты номера вычитаются из прежней категории и добавляются в новую
+     *
+     * @param roomId     - id номера
+     * @param categoryId - id новой категории, null - номер удален или не относится ни к одной категории
+     * @return id прежней категории номера
+     */
+    public Long moveRoom(Long roomId, Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            return move(roomId, categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int countRoomsInCategory(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return (int) categoryByRoom.values().stream().filter(categoryId::equals).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OccupancyTotals summarizeRoom(Long roomId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return summarize(rooms.get(roomId), startDate, endDate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OccupancyTotals summarizeCategory(Long categoryId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            return summarize(categories.get(categoryId), startDate, endDate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(BookingContribution contribution) {
+        bookings.put(contribution.bookingId(), contribution);
+        apply(contribution, 1);
+    }
+
+    private BookingContribution delete(Long bookingId) {
+        BookingContribution previous = bookings.remove(bookingId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        return previous;
+    }
+
+    private Long move(Long roomId, Long categoryId) {
+        Long previous = categoryByRoom.get(roomId);
+        if (Objects.equals(previous, categoryId)) {
+            return previous;
+        }
+        DailySeries roomSeries = rooms.get(roomId);
+        if (roomSeries != null) {
+            if (previous != null) {
+                categories.get(previous).add(roomSeries, -1);
+            }
+            if (categoryId != null) {
+                categories.computeIfAbsent(categoryId, id -> new DailySeries()).add(roomSeries, 1);
+            }
+        }
+        if (categoryId == null) {
+            categoryByRoom.remove(roomId);
+        } else {
+            categoryByRoom.put(roomId, categoryId);
+        }
+        return previous;
+    }
+
+    private void apply(BookingContribution contribution, int sign) {
+        rooms.computeIfAbsent(contribution.roomId(), id -> new DailySeries()).apply(contribution, sign);
+        Long categoryId = categoryByRoom.get(contribution.roomId());
+        if (categoryId != null) {
+            categories.computeIfAbsent(categoryId, id -> new DailySeries()).apply(contribution, sign);
+        }
+    }
+
+    private static OccupancyTotals summarize(DailySeries series, LocalDate startDate, LocalDate endDate) {
+        DayStats totals = new DayStats();
+        if (series != null) {
+            for (long day = startDate.toEpochDay(); day <= endDate.toEpochDay(); day++) {
+                DayStats stats = series.days.get(day);
+                if (stats != null) {
+                    totals.add(stats, 1);
+                }
+            }
+        }
+        return new OccupancyTotals(totals.occupiedRoomDays, totals.closedRoomDays, totals.checkIns,
+                totals.stayDays, totals.revenue, totals.prepayment, totals.priceSum);
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? 0.0 : value;
+    }
+
+    private static class DailySeries {
+        private final Map<Long, DayStats> days = new HashMap<>();
+
+        void apply(BookingContribution contribution, int sign) {
+            long firstDay = contribution.checkInDate().toEpochDay();
+            long checkOutDay = contribution.checkOutDate().toEpochDay();
+            long lastDay = checkOutDay > firstDay ? checkOutDay - 1 : firstDay;
+            long occupiedDays = lastDay - firstDay + 1;
+            long stayDays = checkOutDay - firstDay + 1;
+            boolean closing = contribution.type() == TypesBooking.TYPE_CLOSING;
+            double dailyRevenue = valueOf(contribution.amount()) / occupiedDays;
+            double dailyPrepayment = valueOf(contribution.prepaymentAmount()) / occupiedDays;
+            double price = valueOf(contribution.price());
+            for (long day = firstDay; day <= lastDay; day++) {
+                DayStats stats = days.computeIfAbsent(day, d -> new DayStats());
+                if (closing) {
+                    stats.closedRoomDays += sign;
+                    continue;
+                }
+                stats.occupiedRoomDays += sign;
+                stats.revenue += sign * dailyRevenue;
+                stats.prepayment += sign * dailyPrepayment;
+                stats.priceSum += sign * price;
+                if (day == firstDay) {
+                    stats.checkIns += sign;
+                    stats.stayDays += sign * stayDays;
+                }
+            }
+        }
+
+        void add(DailySeries other, int sign) {
+            other.days.forEach((day, stats) -> days.computeIfAbsent(day, d -> new DayStats()).add(stats, sign));
+        }
+    }
+
+    private static class DayStats {
+        private long occupiedRoomDays;
+        private long closedRoomDays;
+        private long checkIns;
+        private long stayDays;
+        private double revenue;
+        private double prepayment;
+        private double priceSum;
+
+        void add(DayStats other, int sign) {
+            occupiedRoomDays += sign * other.occupiedRoomDays;
+            closedRoomDays += sign * other.closedRoomDays;
+            checkIns += sign * other.checkIns;
+            stayDays += sign * other.stayDays;
+            revenue += sign * other.revenue;
+            prepayment += sign * other.prepayment;
+            priceSum += sign * other.priceSum;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.modgy.analytics.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.analytics.model.BookingContribution;
+import ru.modgy.booking.repository.BookingRepository;
+import ru.modgy.room.repository.RoomRepository;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStatsIndexLoader {
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final BookingStatsIndex bookingStatsIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        List<BookingContribution> contributions = bookingRepository.findAllActiveBookingContributions();
+        bookingStatsIndex.load(roomRepository.findAllRoomCategoryLinks(), contributions);
+        log.info("BookingStatsIndexLoader: loadIndex, num of bookings={}", contributions.size());
+    }
+}
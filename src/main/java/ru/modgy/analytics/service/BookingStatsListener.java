@@ -0,0 +1,56 @@
+package ru.modgy.analytics.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import ru.modgy.analytics.model.BookingContribution;
+import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.StatusBooking;
+import ru.modgy.utility.index.IndexChangeLog;
+
+/**
+ * Обновляет дневные агрегаты BookingStatsIndex при добавлении, изменении, отмене и удалении бронирований.
+ * При откате транзакции вклад бронирования возвращается к прежнему.
+ */
+@Component
+public class BookingStatsListener {
+    private final BookingStatsIndex bookingStatsIndex;
+    private final IndexChangeLog<Long, BookingContribution> changeLog;
+
+    public BookingStatsListener(BookingStatsIndex bookingStatsIndex) {
+        this.bookingStatsIndex = bookingStatsIndex;
+        this.changeLog = IndexChangeLog.undoOnRollback((bookingId, previous) -> {
+            if (previous == null) {
+                bookingStatsIndex.remove(bookingId);
+            } else {
+                bookingStatsIndex.put(previous);
+            }
+        });
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onBookingSaved(Booking booking) {
+        BookingContribution previous;
+        if (booking.getRoom() == null || booking.getStatus() == StatusBooking.STATUS_CANCELLED) {
+            previous = bookingStatsIndex.remove(booking.getId());
+        } else {
+            previous = bookingStatsIndex.put(new BookingContribution(
+                    booking.getId(),
+                    booking.getRoom().getId(),
+                    booking.getType(),
+                    booking.getCheckInDate(),
+                    booking.getCheckOutDate(),
+                    booking.getPrice(),
+                    booking.getAmount(),
+                    booking.getPrepaymentAmount()));
+        }
+        changeLog.record(booking.getId(), previous);
+    }
+
+    @PostRemove
+    public void onBookingRemoved(Booking booking) {
+        changeLog.record(booking.getId(), bookingStatsIndex.remove(booking.getId()));
+    }
+}
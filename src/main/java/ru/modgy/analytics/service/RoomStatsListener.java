@@ -0,0 +1,35 @@
+package ru.modgy.analytics.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import ru.modgy.room.model.Room;
+import ru.modgy.utility.index.IndexChangeLog;
+
+/**
+ * Поддерживает в BookingStatsIndex принадлежность номеров категориям: при смене категории номера
+ * его агрегаты переносятся в новую категорию. При откате транзакции номер возвращается в прежнюю категорию.
+ */
+@Component
+public class RoomStatsListener {
+    private final BookingStatsIndex bookingStatsIndex;
+    private final IndexChangeLog<Long, Long> changeLog;
+
+    public RoomStatsListener(BookingStatsIndex bookingStatsIndex) {
+        this.bookingStatsIndex = bookingStatsIndex;
+        this.changeLog = IndexChangeLog.undoOnRollback(bookingStatsIndex::moveRoom);
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onRoomSaved(Room room) {
+        Long categoryId = room.getCategory() == null ? null : room.getCategory().getId();
+        changeLog.record(room.getId(), bookingStatsIndex.moveRoom(room.getId(), categoryId));
+    }
+
+    @PostRemove
+    public void onRoomRemoved(Room room) {
+        changeLog.record(room.getId(), bookingStatsIndex.moveRoom(room.getId(), null));
+    }
+}
@@ -1,28 +1,57 @@
 package ru.modgy.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.BulkBookingResultDto;
 import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.OccupancyCalendarDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
+import ru.modgy.booking.service.BookingChangeFeed;
 import ru.modgy.booking.service.BookingService;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.utility.UtilityService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @CrossOrigin
 @Slf4j
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
+@Validated
 public class BookingController {
+    static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String CSV_FORMULA_PREFIXES = "=+-@\t\r\n";
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final String CSV_HEADER = "id,type,checkInDate,checkOutDate,status,roomId,roomNumber," +
+            "price,amount,prepaymentAmount,isPrepaid,petIds,comment";
     private final BookingService bookingService;
     private final UtilityService utilityService;
+    private final ObjectMapper objectMapper;
+    private final BookingChangeFeed bookingChangeFeed;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -34,12 +63,75 @@ public class BookingController {
         return bookingService.addBooking(requesterId, newBookingDto);
     }
 
+    @PostMapping("/bulk")
+    public List<BulkBookingResultDto> addBookings(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+                                                  @RequestBody @NotEmpty @Size(max = MAX_BULK_SIZE)
+                                                  List<NewBookingDto> newBookingDtos) {
+        log.info("BookingController: POST/addBookings, requesterId={}, rows={}", requesterId, newBookingDtos.size());
+        utilityService.checkBossAdminAccess(requesterId);
+        return bookingService.addBookings(requesterId, newBookingDtos);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsInDates(
+            @RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+            @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate) {
+        log.info("BookingController: GET/exportBookingsInDates, requesterId={}, startDate={}, endDate={}",
+                requesterId, startDate, endDate);
+        utilityService.checkBossAdminAccess(requesterId);
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        StreamingResponseBody body = outputStream -> writeBookingsInDates(requesterId, startDate, endDate,
+                outputStream, booking -> {
+                    outputStream.write(objectMapper.writeValueAsBytes(booking));
+                    outputStream.write('\n');
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(path = "/export", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsInDatesAsCsv(
+            @RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+            @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate) {
+        log.info("BookingController: GET/exportBookingsInDatesAsCsv, requesterId={}, startDate={}, endDate={}",
+                requesterId, startDate, endDate);
+        utilityService.checkBossAdminAccess(requesterId);
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        StreamingResponseBody body = outputStream -> {
+            outputStream.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+            writeBookingsInDates(requesterId, startDate, endDate, outputStream,
+                    booking -> outputStream.write((toCsvLine(booking) + "\n").getBytes(StandardCharsets.UTF_8)));
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.valueOf(TEXT_CSV_VALUE), StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    /*
+     * Клиент сначала подписывается, затем загружает данные: изменения, сделанные во время загрузки, не теряются.
+     * Событие resync означает, что часть изменений пропущена и данные нужно перечитать.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToBookingChanges(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId) {
+        log.info("BookingController: GET/subscribeToBookingChanges, requesterId={}", requesterId);
+        utilityService.checkBossAdminAccess(requesterId);
+        return bookingChangeFeed.subscribe();
+    }
+
     @GetMapping("/{id}")
     public BookingDto getBookingById(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
-                                     @PathVariable("id") Long bookingId) {
+                                     @PathVariable("id") Long bookingId,
+                                     WebRequest webRequest) {
         utilityService.checkBossAdminAccess(requesterId);
         log.info("BookingController: GET/getBookingById, requesterId={}, bookingId={}", requesterId, bookingId);
         utilityService.checkBossAdminAccess(requesterId);
+        String eTag = bookingService.getBookingETag(requesterId, bookingId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         return bookingService.getBookingById(requesterId, bookingId);
     }
 
@@ -68,10 +160,12 @@ public class BookingController {
     public List<BookingDto> findCrossingBookingsForRoomInDates(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
                                                        @PathVariable("roomId") Long roomId,
                                                        @RequestParam("checkInDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkInDate,
-                                                       @RequestParam("checkOutDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkOutDate) {
+                                                       @RequestParam("checkOutDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkOutDate,
+                                                       @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
         log.info("BookingController: GET/findBookingsForRoomInDates, requesterId={}, roomId={}", requesterId, roomId);
         utilityService.checkBossAdminAccess(requesterId);
-        return bookingService.findCrossingBookingsForRoomInDates(requesterId, roomId, checkInDate, checkOutDate);
+        return bookingService.findCrossingBookingsForRoomInDates(requesterId, roomId, checkInDate, checkOutDate,
+                UtilityService.EXPAND_DETAILS.equals(expand));
     }
 
     @GetMapping("/rooms/{roomId}/checkRoomAvailable")
@@ -99,34 +193,140 @@ public class BookingController {
     public List<BookingDto> findBlockingBookingsForRoomInDates(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
                                                                @PathVariable("roomId") Long roomId,
                                                                @RequestParam("checkInDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkInDate,
-                                                               @RequestParam("checkOutDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkOutDate) {
+                                                               @RequestParam("checkOutDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkOutDate,
+                                                               @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
         log.info("BookingController: GET/findBlockingBookingsForRoomInDates, requesterId={}, roomId={}", requesterId, roomId);
         utilityService.checkBossAdminAccess(requesterId);
-        return bookingService.findBlockingBookingsForRoomInDates(requesterId, roomId, checkInDate, checkOutDate);
+        return bookingService.findBlockingBookingsForRoomInDates(requesterId, roomId, checkInDate, checkOutDate,
+                UtilityService.EXPAND_DETAILS.equals(expand));
     }
 
     @GetMapping("/inDates")
     public List<BookingDto> findAllBookingsInDates(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
                                                    @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
-                                                   @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate) {
+                                                   @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate,
+                                                   @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
         log.info("BookingController: GET/findAllBookingsInDates, requesterId={}", requesterId);
         utilityService.checkBossAdminAccess(requesterId);
-        return bookingService.findAllBookingsInDates(requesterId, startDate, endDate);
+        return bookingService.findAllBookingsInDates(requesterId, startDate, endDate,
+                UtilityService.EXPAND_DETAILS.equals(expand));
+    }
+
+    @GetMapping(path = "/inDates", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookingsInDates(
+            @RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+            @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate,
+            @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
+        log.info("BookingController: GET/streamAllBookingsInDates, requesterId={}", requesterId);
+        utilityService.checkBossAdminAccess(requesterId);
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        StreamingResponseBody body = outputStream -> bookingService.streamAllBookingsInDates(requesterId,
+                startDate, endDate, UtilityService.EXPAND_DETAILS.equals(expand), EXPORT_CHUNK_SIZE, chunk -> {
+                    try {
+                        for (BookingDto booking : chunk) {
+                            outputStream.write(objectMapper.writeValueAsBytes(booking));
+                            outputStream.write('\n');
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/allByPet/pets/{petId}")
     public List<BookingDto> findAllBookingsByPet(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
-                                                 @PathVariable("petId") Long petId) {
+                                                 @PathVariable("petId") Long petId,
+                                                 @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
         log.info("BookingController: GET/findAllBookingsByPet, requesterId={}, petId={}", requesterId, petId);
         utilityService.checkBossAdminAccess(requesterId);
-        return bookingService.findAllBookingsByPet(requesterId, petId);
+        return bookingService.findAllBookingsByPet(requesterId, petId,
+                UtilityService.EXPAND_DETAILS.equals(expand));
     }
 
     @GetMapping("/allByOwner/owners/{ownerId}")
     public List<BookingDto> findAllBookingsByOwner(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
-                                                 @PathVariable("ownerId") Long ownerId) {
+                                                 @PathVariable("ownerId") Long ownerId,
+                                                   @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
         log.info("BookingController: GET/findAllBookingsByOwner, requesterId={}, ownerId={}", requesterId, ownerId);
         utilityService.checkBossAdminAccess(requesterId);
-        return bookingService.findAllBookingsByOwner(requesterId, ownerId);
+        return bookingService.findAllBookingsByOwner(requesterId, ownerId,
+                UtilityService.EXPAND_DETAILS.equals(expand));
+    }
+
+    @GetMapping("/calendar")
+    public OccupancyCalendarDto getOccupancyCalendar(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+                                                     @RequestParam("startDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate startDate,
+                                                     @RequestParam("endDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate endDate,
+                                                     @RequestParam(value = "categoryId", required = false) Long categoryId) {
+        log.info("BookingController: GET/getOccupancyCalendar, requesterId={}, categoryId={}", requesterId, categoryId);
+        utilityService.checkBossAdminAccess(requesterId);
+        return bookingService.getOccupancyCalendar(requesterId, startDate, endDate, categoryId);
+    }
+
+    private void writeBookingsInDates(Long requesterId, LocalDate startDate, LocalDate endDate,
+                                      OutputStream outputStream, BookingWriter writer) throws IOException {
+        Long afterId = null;
+        List<BookingDto> chunk;
+        do {
+            chunk = bookingService.findAllBookingsInDatesAfter(requesterId, startDate, endDate, afterId,
+                    EXPORT_CHUNK_SIZE);
+            for (BookingDto booking : chunk) {
+                writer.write(booking);
+            }
+            outputStream.flush();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+    }
+
+    private static String toCsvLine(BookingDto booking) {
+        String petIds = booking.getPets() == null ? "" : booking.getPets().stream()
+                .map(PetSummaryDto::getId)
+                .map(String::valueOf)
+                .collect(Collectors.joining(" "));
+        return String.join(",",
+                toCsvValue(booking.getId()),
+                toCsvValue(booking.getType()),
+                toCsvValue(booking.getCheckInDate() == null ? null : CSV_DATE_FORMAT.format(booking.getCheckInDate())),
+                toCsvValue(booking.getCheckOutDate() == null ? null : CSV_DATE_FORMAT.format(booking.getCheckOutDate())),
+                toCsvValue(booking.getStatus()),
+                toCsvValue(booking.getRoom() == null ? null : booking.getRoom().getId()),
+                toCsvValue(booking.getRoom() == null ? null : booking.getRoom().getNumber()),
+                toCsvValue(booking.getPrice()),
+                toCsvValue(booking.getAmount()),
+                toCsvValue(booking.getPrepaymentAmount()),
+                toCsvValue(booking.getIsPrepaid()),
+                toCsvValue(petIds),
+                toCsvValue(booking.getComment()));
+    }
+
+    /*
+     * Текст, начинающийся с =, +, -, @, табуляции или перевода строки, табличный редактор выполнил бы как формулу,
+     * поэтому перед ним ставится апостроф. Числа не меняются: отрицательная сумма остается числом.
+     * Значения с запятой, кавычками или переводом строки заключаются в кавычки (RFC 4180).
+     */
+    private static String toCsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && CSV_FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @FunctionalInterface
+    private interface BookingWriter {
+        void write(BookingDto booking) throws IOException;
     }
 }
@@ -0,0 +1,21 @@
+package ru.modgy.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.modgy.booking.model.BookingChangeType;
+
+import java.time.LocalDate;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingChangeDto {
+    private Long bookingId;
+    private Long roomId;
+    private BookingChangeType type;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+}
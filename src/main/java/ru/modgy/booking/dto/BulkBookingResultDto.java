@@ -0,0 +1,22 @@
+package ru.modgy.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkBookingResultDto {
+    private Integer index;
+    private Status status;
+    private Long bookingId;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+}
@@ -1,7 +1,11 @@
 package ru.modgy.booking.dto.mapper;
 
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.modgy.booking.dto.BookingDto;
 import ru.modgy.booking.dto.NewBookingDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
@@ -23,6 +27,13 @@ public interface BookingMapper {
                     "booking.getCheckOutDate()))")
     BookingDto toBookingDto(Booking booking);
 
+    @Named("toBookingDtoWithoutPets")
+    @Mapping(target = "daysOfBooking",
+            expression = "java(calculateBookingDays(booking.getCheckInDate(), " +
+                    "booking.getCheckOutDate()))")
+    @Mapping(target = "pets", ignore = true)
+    BookingDto toBookingDtoWithoutPets(Booking booking);
+
     default Long calculateBookingDays(LocalDate checkInDate, LocalDate checkOutDate) {
         LocalDateTime start = checkInDate.atTime(LocalTime.MIN);
         LocalDateTime end = checkOutDate.atTime(LocalTime.MAX);
@@ -30,6 +41,7 @@ public interface BookingMapper {
     }
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "room", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "pets", ignore = true)
@@ -40,10 +52,12 @@ public interface BookingMapper {
     Booking toBooking(NewBookingDto newBookingDto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "type", ignore = true)
     @Mapping(target = "room", ignore = true)
     @Mapping(target = "pets", ignore = true)
-    Booking toBooking(UpdateBookingDto updateBookingDto);
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void updateBooking(UpdateBookingDto updateBookingDto, @MappingTarget Booking booking);
 
     List<BookingDto> toBookingDto(List<Booking> bookings);
 }
@@ -2,6 +2,9 @@ package ru.modgy.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.modgy.analytics.service.BookingStatsListener;
+import ru.modgy.booking.service.RoomOccupancyListener;
 import ru.modgy.pet.model.Pet;
 import ru.modgy.room.model.Room;
 
@@ -14,14 +17,24 @@ import java.util.List;
 @Setter
 @ToString
 @Entity
-@Table(name = "bookings")
+@DynamicUpdate
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_room_dates",
+                columnList = "room_id_bookings, check_in_date_bookings, check_out_date_bookings"),
+        @Index(name = "idx_bookings_dates", columnList = "check_in_date_bookings, check_out_date_bookings")
+})
+@EntityListeners({RoomOccupancyListener.class, BookingStatsListener.class})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id_bookings")
     private Long id;
+    @Version
+    @Column(name = "version_bookings", nullable = false)
+    private Long version;
     @Column(name = "type_bookings")
     @Enumerated(EnumType.STRING)
     private TypesBooking type;
@@ -61,7 +74,9 @@ public class Booking {
     @JoinTable(
             name = "pets_in_bookings",
             joinColumns = @JoinColumn(name = "id_bookings"),
-            inverseJoinColumns = @JoinColumn(name = "id_pets")
+            inverseJoinColumns = @JoinColumn(name = "id_pets"),
+            indexes = @Index(name = "idx_pets_in_bookings_pet", columnList = "id_pets")
     )
+    @ToString.Exclude
     private List<Pet> pets;
 }
@@ -0,0 +1,10 @@
+package ru.modgy.booking.model;
+
+import java.time.LocalDate;
+
+public record BookingCalendarEntry(Long roomId,
+                                   TypesBooking type,
+                                   StatusBooking status,
+                                   LocalDate checkInDate,
+                                   LocalDate checkOutDate) {
+}
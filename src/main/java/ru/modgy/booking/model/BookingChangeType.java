@@ -0,0 +1,8 @@
+package ru.modgy.booking.model;
+
+public enum BookingChangeType {
+    CREATED,
+    UPDATED,
+    CANCELLED,
+    DELETED
+}
@@ -0,0 +1,11 @@
+package ru.modgy.booking.model;
+
+import java.time.LocalDate;
+
+/**
+ * Событие изменения бронирования, публикуется сервисом бронирований и доставляется подписчикам после фиксации
+ * транзакции. Для удаленного бронирования известен только id.
+ */
+public record BookingChangedEvent(Long bookingId, Long roomId, BookingChangeType type,
+                                  LocalDate checkInDate, LocalDate checkOutDate) {
+}
@@ -0,0 +1,6 @@
+package ru.modgy.booking.model;
+
+import java.time.LocalDate;
+
+public record BookingInterval(Long bookingId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+}
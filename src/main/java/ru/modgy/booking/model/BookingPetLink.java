@@ -0,0 +1,4 @@
+package ru.modgy.booking.model;
+
+public record BookingPetLink(Long bookingId, Long petId) {
+}
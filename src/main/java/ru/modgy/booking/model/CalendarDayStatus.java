@@ -0,0 +1,12 @@
+package ru.modgy.booking.model;
+
+/*
+ * Порядок значений задает приоритет: если на один день номера приходится несколько бронирований,
+ * в календаре показывается статус с большим порядковым номером.
+ */
+public enum CalendarDayStatus {
+    FREE,
+    INITIAL,
+    BOOKED,
+    CLOSING
+}
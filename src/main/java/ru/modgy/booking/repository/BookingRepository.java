@@ -1,55 +1,122 @@
 package ru.modgy.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.modgy.analytics.model.BookingContribution;
 import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.BookingCalendarEntry;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.BookingPetLink;
+import ru.modgy.utility.etag.VersionStamp;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     Integer deleteBookingById(Long id);
 
     @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId " +
            "AND b.status <> 'STATUS_CANCELLED' " +
-           "AND ((b.checkInDate < :checkInDate AND b.checkOutDate > :checkInDate) OR " +
-           "(b.checkInDate >= :checkInDate AND b.checkInDate < :checkOutDate) OR " +
-           "(b.checkInDate = :checkInDate AND b.checkInDate = :checkOutDate) OR " +
-           "(b.checkOutDate = :checkInDate AND b.checkOutDate = :checkOutDate) OR " +
-           "(b.checkInDate = :checkOutDate AND b.checkOutDate = :checkOutDate) OR " +
-           "(b.checkInDate = :checkInDate AND b.checkOutDate = :checkInDate))")
+           "AND b.checkInDate <= :checkOutDate AND b.checkOutDate >= :checkInDate " +
+           "AND ((b.checkInDate < :checkOutDate AND b.checkOutDate > :checkInDate) OR " +
+           "b.checkInDate = b.checkOutDate OR :checkInDate = :checkOutDate)")
     Optional<List<Booking>> findBookingsForRoomInDates(@Param("roomId") Long roomId,
                                                        @Param("checkInDate") LocalDate checkInDate,
                                                        @Param("checkOutDate") LocalDate checkOutDate);
 
-    @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId " +
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.room r LEFT JOIN FETCH r.category " +
+           "WHERE b.room.id = :roomId " +
            "AND b.status <> 'STATUS_CANCELLED' " +
-           "AND b.checkInDate = :checkOutDate OR " +
-           "b.checkOutDate = :checkInDate")
+           "AND (b.checkInDate = :checkOutDate OR b.checkOutDate = :checkInDate)")
     Optional<List<Booking>> findCrossingBookingsForRoomInDates(@Param("roomId") Long roomId,
                                                                @Param("checkInDate") LocalDate checkInDate,
                                                                @Param("checkOutDate") LocalDate checkOutDate);
 
     @Query("SELECT b FROM Booking b WHERE b.room.id = :roomId " +
            "AND b.status <> 'STATUS_CANCELLED' " +
-           "AND b.type = 'TYPE_BOOKING'" +
+           "AND b.type = 'TYPE_BOOKING' " +
            "AND b.checkOutDate >= :today")
     Optional<List<Booking>> findFutureBookingsForRoom(@Param("roomId") Long roomId,
                                                       @Param("today") LocalDate today);
 
-    @Query("SELECT b FROM Booking b WHERE "+
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.room r LEFT JOIN FETCH r.category WHERE " +
             "b.status <> 'STATUS_CANCELLED' " +
-            "AND ((b.checkInDate <= :startDate AND b.checkOutDate >= :startDate) OR " +
-            "(b.checkInDate <= :endDate AND b.checkOutDate >= :endDate) OR " +
-            "(b.checkInDate >= :startDate AND b.checkOutDate <= :endDate))")
+            "AND b.checkInDate <= :endDate AND b.checkOutDate >= :startDate")
     Optional<List<Booking>> findAllBookingsInDates(@Param("startDate") LocalDate startDate,
                                                    @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT b FROM Booking b JOIN b.pets p WHERE p.id = :petId")
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.room r LEFT JOIN FETCH r.category WHERE " +
+            "b.status <> 'STATUS_CANCELLED' " +
+            "AND b.checkInDate <= :endDate AND b.checkOutDate >= :startDate")
+    Stream<Booking> streamAllBookingsInDates(@Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b FROM Booking b JOIN b.pets p LEFT JOIN FETCH b.room r LEFT JOIN FETCH r.category " +
+           "WHERE p.id = :petId")
     Optional<List<Booking>> findAllBookingsByPet(@Param("petId") Long petId);
 
-    @Query("SELECT b FROM Booking b JOIN b.pets p WHERE p.owner.id = :ownerId")
+    @Query("SELECT b FROM Booking b JOIN b.pets p LEFT JOIN FETCH b.room r LEFT JOIN FETCH r.category " +
+           "WHERE p.owner.id = :ownerId")
     Optional<List<Booking>> findAllBookingsByOwner(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new ru.modgy.booking.model.BookingInterval(b.id, b.room.id, b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b WHERE b.room IS NOT NULL " +
+           "AND b.status <> 'STATUS_CANCELLED'")
+    List<BookingInterval> findAllActiveBookingIntervals();
+
+    @Query("SELECT new ru.modgy.analytics.model.BookingContribution(b.id, b.room.id, b.type, b.checkInDate, " +
+           "b.checkOutDate, b.price, b.amount, b.prepaymentAmount) " +
+           "FROM Booking b WHERE b.room IS NOT NULL " +
+           "AND b.status <> 'STATUS_CANCELLED'")
+    List<BookingContribution> findAllActiveBookingContributions();
+
+    @Query("SELECT new ru.modgy.booking.model.BookingInterval(b.id, b.room.id, b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b WHERE b.room.id IN :roomIds " +
+           "AND b.status <> 'STATUS_CANCELLED' " +
+           "AND b.checkInDate <= :endDate AND b.checkOutDate >= :startDate")
+    List<BookingInterval> findActiveBookingIntervalsForRoomsInDates(@Param("roomIds") Collection<Long> roomIds,
+                                                                    @Param("startDate") LocalDate startDate,
+                                                                    @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.room r LEFT JOIN FETCH r.category WHERE " +
+           "b.checkInDate <= :endDate AND b.checkOutDate >= :startDate " +
+           "AND b.id > :afterId " +
+           "ORDER BY b.id")
+    List<Booking> findAllBookingsInDatesAfterId(@Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT new ru.modgy.booking.model.BookingPetLink(b.id, p.id) " +
+           "FROM Booking b JOIN b.pets p WHERE b.id IN :bookingIds")
+    List<BookingPetLink> findPetLinksByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT new ru.modgy.utility.etag.VersionStamp(COUNT(b), SUM(b.id), " +
+           "SUM(b.version + COALESCE(r.version, 0) + COALESCE(c.version, 0))) " +
+           "FROM Booking b LEFT JOIN b.room r LEFT JOIN r.category c WHERE b.id = :bookingId")
+    VersionStamp getBookingVersionStamp(@Param("bookingId") Long bookingId);
+
+    @Query("SELECT new ru.modgy.utility.etag.VersionStamp(COUNT(p), SUM(p.id), SUM(p.version + o.version)) " +
+           "FROM Booking b JOIN b.pets p JOIN p.owner o WHERE b.id = :bookingId")
+    VersionStamp getPetsVersionStamp(@Param("bookingId") Long bookingId);
+
+    @Query("SELECT new ru.modgy.booking.model.BookingCalendarEntry(b.room.id, b.type, b.status, " +
+           "b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b WHERE b.room IS NOT NULL " +
+           "AND b.status <> 'STATUS_CANCELLED' " +
+           "AND b.checkInDate <= :endDate AND b.checkOutDate >= :startDate " +
+           "AND (:categoryId IS NULL OR b.room.category.id = :categoryId)")
+    List<BookingCalendarEntry> findCalendarEntriesInDates(@Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate,
+                                                          @Param("categoryId") Long categoryId);
 }
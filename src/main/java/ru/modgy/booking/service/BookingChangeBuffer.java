@@ -0,0 +1,76 @@
+package ru.modgy.booking.service;
+
+import ru.modgy.booking.dto.BookingChangeDto;
+import ru.modgy.booking.model.BookingChangeType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограниченный буфер неотправленных изменений бронирований одного подписчика.
+ * Изменения одного бронирования, накопившиеся до отправки, схлопываются в одно с последним состоянием,
+ * поэтому серия правок бронирования уходит клиенту одним событием.
+ * При переполнении накопленные изменения отбрасываются, и клиент получает одно событие resync:
+ * ему нужно перечитать данные целиком.
+ */
+class BookingChangeBuffer {
+    private final int capacity;
+    private final Map<Long, BookingChangeDto> changes = new LinkedHashMap<>();
+    private boolean overflowed;
+
+    BookingChangeBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(BookingChangeDto change) {
+        if (overflowed) {
+            return;
+        }
+        BookingChangeDto previous = changes.remove(change.getBookingId());
+        changes.put(change.getBookingId(), coalesce(previous, change));
+        if (changes.size() > capacity) {
+            changes.clear();
+            overflowed = true;
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return changes.isEmpty() && !overflowed;
+    }
+
+    /**
+     * Забрать накопленные изменения в порядке последнего изменения бронирований, буфер становится пустым
+     */
+    synchronized Batch drain() {
+        Batch batch = new Batch(overflowed, new ArrayList<>(changes.values()));
+        changes.clear();
+        overflowed = false;
+        return batch;
+    }
+
+    /*
+     * Бронирование, созданное и измененное до отправки, для клиента остается новым.
+     */
+    private static BookingChangeDto coalesce(BookingChangeDto previous, BookingChangeDto change) {
+        if (previous != null && previous.getType() == BookingChangeType.CREATED
+                && change.getType() == BookingChangeType.UPDATED) {
+            return BookingChangeDto.builder()
+                    .bookingId(change.getBookingId())
+                    .roomId(change.getRoomId())
+                    .type(BookingChangeType.CREATED)
+                    .checkInDate(change.getCheckInDate())
+                    .checkOutDate(change.getCheckOutDate())
+                    .build();
+        }
+        return change;
+    }
+
+    /**
+     * @param resync  - true - изменения были отброшены из-за переполнения, клиенту нужно перечитать данные
+     * @param changes - изменения для отправки
+     */
+    record Batch(boolean resync, List<BookingChangeDto> changes) {
+    }
+}
@@ -0,0 +1,234 @@
+package ru.modgy.booking.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.modgy.booking.dto.BookingChangeDto;
+import ru.modgy.booking.model.BookingChangedEvent;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Рассылка изменений бронирований подписчикам (SSE) вместо периодического опроса эндпоинтов бронирований.
+ * Изменения попадают в буфер каждого подписчика после фиксации транзакции и отправляются раз в flushInterval,
+ * за это время серия изменений одного бронирования схлопывается в одно событие.
+ * Подписчику отправляется не больше одной порции одновременно: пока медленный клиент принимает порцию,
+ * новые изменения копятся в его ограниченном буфере, при переполнении клиент получает событие resync.
+ * Планировщик (flush, heartbeat, поиск зависших отправок) работает в отдельном потоке и сам в сокет не пишет.
+ * Запись выполняется в отдельном ограниченном пуле потоков, а в режиме виртуальных потоков - в виртуальных потоках.
+ * Подписчик, отправка которому длится дольше sendTimeout, отключается: поток отправки прерывается,
+ * соединение закрывается, и клиент переподключается и перечитывает данные.
+ */
+@Slf4j
+@Component
+public class BookingChangeFeed {
+    public static final String CHANGE_EVENT = "booking-change";
+    public static final String RESYNC_EVENT = "resync";
+    public static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService sendExecutor;
+    private final boolean ownsSendExecutor;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+
+    @Autowired
+    public BookingChangeFeed(@Value("${modgy.bookings.feed.buffer-size}") int bufferSize,
+                             @Value("${modgy.bookings.feed.flush-interval-ms}") long flushIntervalMs,
+                             @Value("${modgy.bookings.feed.timeout-ms}") long timeoutMs,
+                             @Value("${modgy.bookings.feed.send-timeout-ms}") long sendTimeoutMs,
+                             @Value("${modgy.bookings.feed.heartbeat-interval-ms}") long heartbeatIntervalMs,
+                             @Value("${modgy.bookings.feed.threads}") int threads,
+                             @Qualifier("virtualThreadExecutor") ObjectProvider<ExecutorService> virtualThreadExecutor) {
+        this(bufferSize, flushIntervalMs, timeoutMs, sendTimeoutMs, heartbeatIntervalMs,
+                virtualThreadExecutor.getIfAvailable(), threads);
+    }
+
+    /**
+     * @param sendExecutor - исполнитель отправок, null - создать собственный пул из threads потоков
+     */
+    BookingChangeFeed(int bufferSize, long flushIntervalMs, long timeoutMs, long sendTimeoutMs,
+                      long heartbeatIntervalMs, ExecutorService sendExecutor, int threads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.ownsSendExecutor = sendExecutor == null;
+        this.sendExecutor = ownsSendExecutor
+                ? Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("booking-feed-send-"))
+                : sendExecutor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("booking-feed-scheduler-"));
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new BookingChangeBuffer(bufferSize));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.info("BookingChangeFeed: subscribe, num of subscribers={}", subscribers.size());
+        return subscriber.emitter;
+    }
+
+    public int getNumOfSubscribers() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.buffer.offer(BookingChangeDto.builder()
+                    .bookingId(event.bookingId())
+                    .roomId(event.roomId())
+                    .type(event.type())
+                    .checkInDate(event.checkInDate())
+                    .checkOutDate(event.checkOutDate())
+                    .build());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (ownsSendExecutor) {
+            sendExecutor.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    void flush() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, sendTimeoutNanos)) {
+                drop(subscriber);
+            } else if (!subscriber.buffer.isEmpty()) {
+                submitSend(subscriber, false);
+            }
+        }
+    }
+
+    /*
+     * Комментарий SSE не виден клиенту как событие, но не дает прокси закрыть соединение без трафика.
+     * Подписчику, которому сейчас идет отправка, heartbeat не нужен.
+     */
+    void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            submitSend(subscriber, true);
+        }
+    }
+
+    private void submitSend(Subscriber subscriber, boolean heartbeat) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> send(subscriber, heartbeat));
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    /*
+     * Подписчик удаляется сразу, а соединение закрывает поток отправки, когда запись прервется:
+     * закрытие из планировщика ждало бы ту же блокировку SseEmitter, что и зависшая запись.
+     */
+    private void drop(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        log.warn("BookingChangeFeed: subscriber dropped, send is in flight longer than {} ms",
+                TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+        subscriber.dropped = true;
+        Thread sendingThread = subscriber.sendingThread;
+        if (sendingThread != null) {
+            sendingThread.interrupt();
+        }
+    }
+
+    private void send(Subscriber subscriber, boolean heartbeat) {
+        subscriber.sendingThread = Thread.currentThread();
+        subscriber.sendStartedAt = System.nanoTime();
+        try {
+            if (subscriber.dropped) {
+                return;
+            }
+            BookingChangeBuffer.Batch batch = subscriber.buffer.drain();
+            if (batch.resync()) {
+                subscriber.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+            }
+            for (BookingChangeDto change : batch.changes()) {
+                subscriber.emitter.send(SseEmitter.event().name(CHANGE_EVENT).data(change, MediaType.APPLICATION_JSON));
+            }
+            if (heartbeat && !batch.resync() && batch.changes().isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // клиент отключился или соединение уже закрыто, контейнер завершит запрос сам
+            log.info("BookingChangeFeed: subscriber disconnected, {}", e.getMessage());
+            subscribers.remove(subscriber);
+        } finally {
+            subscriber.sendingThread = null;
+            subscriber.sendStartedAt = 0;
+            subscriber.sending.set(false);
+            if (subscriber.dropped) {
+                completeQuietly(subscriber.emitter);
+            }
+        }
+    }
+
+    private static void completeQuietly(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.info("BookingChangeFeed: emitter already closed, {}", e.getMessage());
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BookingChangeBuffer buffer;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile Thread sendingThread;
+        private volatile long sendStartedAt;
+        private volatile boolean dropped;
+
+        private Subscriber(SseEmitter emitter, BookingChangeBuffer buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        /*
+         * Время считается с начала выполнения отправки: ожидание свободного потока в пуле зависанием не считается.
+         */
+        boolean isStalled(long now, long sendTimeoutNanos) {
+            long startedAt = sendStartedAt;
+            return sendingThread != null && startedAt != 0 && now - startedAt > sendTimeoutNanos;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package ru.modgy.booking.service;
 
 import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.BulkBookingResultDto;
 import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.OccupancyCalendarDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     /**
@@ -17,6 +20,16 @@ public interface BookingService {
      */
     BookingDto addBooking(Long userId, NewBookingDto newBookingDto);
 
+    /**
+     * Пакетное добавление бронирований (перенос данных, импорт). Номера, питомцы и пересечения
+     * проверяются для всего пакета несколькими запросами, строки с ошибками пропускаются.
+     *
+     * @param userId         - id пользователя, направляющего запрос
+     * @param newBookingDtos - данные добавляемых бронирований
+     * @return результат по каждой строке пакета в исходном порядке: id добавленного бронирования или причина отказа
+     */
+    List<BulkBookingResultDto> addBookings(Long userId, List<NewBookingDto> newBookingDtos);
+
     /**
      * Получение по id информации о бронировании
      *
@@ -26,6 +39,16 @@ public interface BookingService {
      */
     BookingDto getBookingById(Long userId, Long bookingId);
 
+    /**
+     * ETag данных бронирования по версиям бронирования, номера, категории, питомцев и их владельцев.
+     * Вычисляется без загрузки сущностей, чтобы на повторный запрос без изменений ответить 304.
+     *
+     * @param userId    - id пользователя, направляющего запрос
+     * @param bookingId - id запрашиваемого бронирования
+     * @return ETag бронирования, null - бронирование не найдено
+     */
+    String getBookingETag(Long userId, Long bookingId);
+
     /**
      * Обновление информации о бронировании
      *
@@ -53,9 +76,10 @@ public interface BookingService {
      * @param roomId       - id номера, бронирования которого проверяются
      * @param checkInDate  - дата заезда, по которой ведется поиск пересечений
      * @param checkOutDate - дата выезда, по которой ведется поиск пересечений
+     * @param expandPetDetails - true - полные карточки питомцев, false - краткие данные питомцев
      * @return список пересекающихся бронирований
      */
-    List<BookingDto> findCrossingBookingsForRoomInDates(Long userId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate);
+    List<BookingDto> findCrossingBookingsForRoomInDates(Long userId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate, boolean expandPetDetails);
 
     /**
      * Проверка доступности номера для создания нового бронирования в выбранные даты
@@ -89,9 +113,10 @@ public interface BookingService {
      * @param roomId       - id номера, бронирования которого проверяются
      * @param checkInDate  - дата заезда, с которой начинается временной интервал для проверки наличия блокирующих бронирований
      * @param checkOutDate - дата выезда, на которой заканчивается временной интервал для проверки наличия блокирующих бронирований
+     * @param expandPetDetails - true - полные карточки питомцев, false - краткие данные питомцев
      * @return список блокирующих бронирований
      */
-    List<BookingDto> findBlockingBookingsForRoomInDates(Long userId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate);
+    List<BookingDto> findBlockingBookingsForRoomInDates(Long userId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate, boolean expandPetDetails);
 
     /**
      * Поиск всех имеющихся бронирований в заданные даты, кроме отмененных.
@@ -99,25 +124,69 @@ public interface BookingService {
      * @param userId    - id пользователя, направляющего запрос
      * @param startDate - дата начала периода, за который отбираются бронирования
      * @param endDate   - дата окончания периода, за который отбираются бронирования
+     * @param expandPetDetails - true - полные карточки питомцев, false - краткие данные питомцев
      * @return список бронирований в указанные даты с любым статусом, кроме "отменено"
      */
-    List<BookingDto> findAllBookingsInDates(Long userId, LocalDate startDate, LocalDate endDate);
+    List<BookingDto> findAllBookingsInDates(Long userId, LocalDate startDate, LocalDate endDate, boolean expandPetDetails);
+
+    /**
+     * Потоковая выборка всех бронирований в заданные даты, кроме отмененных.
+     * Бронирования читаются из базы курсором и передаются обработчику порциями, после каждой порции
+     * контекст персистентности очищается, поэтому в памяти находится не больше одной порции.
+     * Соединение с базой занято до конца выборки.
+     *
+     * @param userId           - id пользователя, направляющего запрос
+     * @param startDate        - дата начала периода, за который отбираются бронирования
+     * @param endDate          - дата окончания периода, за который отбираются бронирования
+     * @param expandPetDetails - true - полные карточки питомцев, false - краткие данные питомцев
+     * @param chunkSize        - размер порции
+     * @param chunkConsumer    - обработчик очередной порции бронирований
+     */
+    void streamAllBookingsInDates(Long userId, LocalDate startDate, LocalDate endDate, boolean expandPetDetails,
+                                  int chunkSize, Consumer<List<BookingDto>> chunkConsumer);
+
+    /**
+     * Порция бронирований в заданные даты с любым статусом для выгрузки, упорядоченная по id.
+     *
+     * @param userId    - id пользователя, направляющего запрос
+     * @param startDate - дата начала периода, за который отбираются бронирования
+     * @param endDate   - дата окончания периода, за который отбираются бронирования
+     * @param afterId   - id последнего бронирования предыдущей порции, для первой порции - null
+     * @param size      - размер порции
+     * @return бронирования с краткими данными питомцев; порция меньше size - последняя
+     */
+    List<BookingDto> findAllBookingsInDatesAfter(Long userId, LocalDate startDate, LocalDate endDate, Long afterId,
+                                                 int size);
 
     /**
      * Поиск всех имеющихся бронирований на пребывание конкретного питомца.
      *
      * @param userId    - id пользователя, направляющего запрос
      * @param petId - id питомца, чьи бронирования отбираются
+     * @param expandPetDetails - true - полные карточки питомцев, false - краткие данные питомцев
      * @return список всех имеющихся бронирований на пребывание конкретного питомца
      */
-    List<BookingDto> findAllBookingsByPet(Long userId, Long petId);
+    List<BookingDto> findAllBookingsByPet(Long userId, Long petId, boolean expandPetDetails);
 
     /**
      * Поиск всех имеющихся бронирований на пребывание всех питомцев конкретного клиента.
      *
      * @param userId    - id пользователя, направляющего запрос
      * @param ownerId - id клиента, чьи бронирования отбираются
+     * @param expandPetDetails - true - полные карточки питомцев, false - краткие данные питомцев
      * @return список всех имеющихся бронирований на пребывание всех питомцев конкретного клиента
      */
-    List<BookingDto> findAllBookingsByOwner(Long userId, Long ownerId);
+    List<BookingDto> findAllBookingsByOwner(Long userId, Long ownerId, boolean expandPetDetails);
+
+    /**
+     * Получение календаря занятости видимых номеров по дням за выбранный период.
+     * Период не длиннее 366 дней, иначе ConflictException.
+     *
+     * @param userId     - id пользователя, направляющего запрос
+     * @param startDate  - первый день периода
+     * @param endDate    - последний день периода
+     * @param categoryId - id категории номеров, если null - все категории
+     * @return для каждого номера список статусов по дням периода (свободен / первичное / бронь / закрытие)
+     */
+    OccupancyCalendarDto getOccupancyCalendar(Long userId, LocalDate startDate, LocalDate endDate, Long categoryId);
 }
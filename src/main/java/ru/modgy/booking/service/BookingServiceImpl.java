@@ -1,41 +1,78 @@
 package ru.modgy.booking.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.BulkBookingResultDto;
 import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.OccupancyCalendarDto;
+import ru.modgy.booking.dto.RoomOccupancyDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
 import ru.modgy.booking.dto.mapper.BookingMapper;
 import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.BookingCalendarEntry;
+import ru.modgy.booking.model.BookingChangeType;
+import ru.modgy.booking.model.BookingChangedEvent;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.BookingPetLink;
+import ru.modgy.booking.model.CalendarDayStatus;
 import ru.modgy.booking.model.ReasonOfStopBooking;
 import ru.modgy.booking.model.StatusBooking;
 import ru.modgy.booking.model.TypesBooking;
 import ru.modgy.booking.repository.BookingRepository;
+import ru.modgy.exception.BadRequestException;
 import ru.modgy.exception.ConflictException;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.owner.dto.mapper.OwnerMapper;
 import ru.modgy.owner.model.Owner;
 import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.dto.PetSummaryDto;
+import ru.modgy.pet.mapper.PetMapper;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.PetSummary;
 import ru.modgy.room.model.Room;
 import ru.modgy.utility.EntityService;
 import ru.modgy.utility.UtilityService;
+import ru.modgy.utility.etag.VersionStamp;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    /*
+     * Календарь строится массивом статусов на каждый день для каждого видимого номера,
+     * поэтому период ограничен, чтобы память и размер ответа не росли без предела.
+     */
+    static final int MAX_CALENDAR_DAYS = 366;
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final OwnerMapper ownerMapper;
+    private final PetMapper petMapper;
     private final EntityService entityService;
     private final UtilityService utilityService;
+    private final RoomOccupancyIndex roomOccupancyIndex;
+    private final RoomBookingLocks roomBookingLocks;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional
     @Override
@@ -49,132 +86,150 @@ public class BookingServiceImpl implements BookingService {
 
         Booking newBooking = bookingMapper.toBooking(newBookingDto);
 
-        Room room = entityService.getRoomIfExists(newBookingDto.getRoomId());
+        roomBookingLocks.lockUntilTransactionEnds(newBookingDto.getRoomId());
+        Room room = entityService.getRoomForUpdateIfExists(newBookingDto.getRoomId());
         newBooking.setRoom(room);
         checkRoom(room, "add");
+        checkRoomAvailabilityInDatabase(
+                newBookingDto.getRoomId(),
+                newBookingDto.getCheckInDate(),
+                newBookingDto.getCheckOutDate());
 
-        if (newBooking.getStatus() == null) {
-            if (newBooking.getIsPrepaid() || newBooking.getType().equals(TypesBooking.TYPE_CLOSING)) {
-                newBooking.setStatus(StatusBooking.STATUS_CONFIRMED);
-            } else {
-                newBooking.setStatus(StatusBooking.STATUS_INITIAL);
-            }
-        }
+        setInitialStatus(newBooking);
 
         List<Pet> pets = entityService.getListOfPetsByIds(newBookingDto.getPetIds());
         checkPetsInBooking(pets, newBookingDto.getPetIds());
         newBooking.setPets(pets);
 
         Booking addedBooking = bookingRepository.save(newBooking);
+        publishChange(addedBooking, BookingChangeType.CREATED);
 
         BookingDto bookingDto = bookingMapper.toBookingDto(addedBooking);
-        List<PetDto> petDtoList = addPetsDtoListForOwner(pets, bookingDto);
+        List<PetSummaryDto> petDtoList = addPetsDtoListForOwner(pets, bookingDto);
 
         bookingDto.setPets(petDtoList);
         log.info("BookingService: addBooking, userId={}, bookingDto={}", userId, addedBooking);
         return bookingDto;
     }
 
-    @Transactional(readOnly = true)
-    @Override
-    public BookingDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = entityService.getBookingIfExists(bookingId);
-        BookingDto bookingDto = addOwnerShortDtoInPetDto(booking);
-        log.info("BookingService: getBookingById, userId={}, bookingId={}", userId, bookingId);
-        return bookingDto;
-    }
-
     @Transactional
     @Override
-    public BookingDto updateBooking(Long userId, Long bookingId, UpdateBookingDto updateBookingDto) {
-        Booking oldBooking = entityService.getBookingIfExists(bookingId);
-        Booking newBooking = bookingMapper.toBooking(updateBookingDto);
-        newBooking.setId(oldBooking.getId());
-        newBooking.setType(oldBooking.getType());
-
-        if (Objects.isNull(newBooking.getCheckInDate())) {
-            newBooking.setCheckInDate(oldBooking.getCheckInDate());
-        }
-
-        if (Objects.isNull(newBooking.getCheckOutDate())) {
-            newBooking.setCheckOutDate(oldBooking.getCheckOutDate());
-        }
-
-        if (Objects.isNull(newBooking.getCheckInTime())) {
-            newBooking.setCheckInTime(oldBooking.getCheckInTime());
-        }
-
-        if (Objects.isNull(newBooking.getCheckOutTime())) {
-            newBooking.setCheckOutTime(oldBooking.getCheckOutTime());
-        }
-
-        if (Objects.isNull(newBooking.getStatus())) {
-            newBooking.setStatus(oldBooking.getStatus());
-        }
-
-        if (Objects.isNull(newBooking.getReasonOfStop())) {
-            newBooking.setReasonOfStop(oldBooking.getReasonOfStop());
-        }
-
-        if (Objects.isNull(newBooking.getReasonOfCancel())) {
-            newBooking.setReasonOfCancel(oldBooking.getReasonOfCancel());
+    public List<BulkBookingResultDto> addBookings(Long userId, List<NewBookingDto> newBookingDtos) {
+        BulkBookingResultDto[] results = new BulkBookingResultDto[newBookingDtos.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < newBookingDtos.size(); i++) {
+            try {
+                checkNewBookingInBulk(newBookingDtos.get(i));
+                candidates.add(i);
+            } catch (BadRequestException | ConflictException e) {
+                results[i] = rejectedBulkBooking(i, e.getMessage());
+            }
         }
 
-        if (Objects.isNull(newBooking.getPrice())) {
-            newBooking.setPrice(oldBooking.getPrice());
+        Set<Long> roomIds = new TreeSet<>();
+        Set<Long> petIds = new HashSet<>();
+        LocalDate startDate = LocalDate.MAX;
+        LocalDate endDate = LocalDate.MIN;
+        for (Integer i : candidates) {
+            NewBookingDto newBookingDto = newBookingDtos.get(i);
+            roomIds.add(newBookingDto.getRoomId());
+            petIds.addAll(getPetIdsOrEmpty(newBookingDto));
+            startDate = min(startDate, newBookingDto.getCheckInDate());
+            endDate = max(endDate, newBookingDto.getCheckOutDate());
         }
 
-        if (Objects.isNull(newBooking.getAmount())) {
-            newBooking.setAmount(oldBooking.getAmount());
+        List<Booking> newBookings = new ArrayList<>();
+        List<Integer> newBookingIndexes = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            roomBookingLocks.lockAllUntilTransactionEnds(roomIds);
+            Map<Long, Room> roomById = entityService.getListOfRoomsForUpdateByIds(roomIds).stream()
+                    .collect(Collectors.toMap(Room::getId, Function.identity()));
+            Map<Long, Pet> petById = petIds.isEmpty()
+                    ? Collections.emptyMap()
+                    : entityService.getListOfPetsByIds(new ArrayList<>(petIds)).stream()
+                    .collect(Collectors.toMap(Pet::getId, Function.identity()));
+            Map<Long, List<BookingInterval>> intervalsByRoomId = bookingRepository
+                    .findActiveBookingIntervalsForRoomsInDates(roomIds, startDate, endDate)
+                    .stream()
+                    .collect(Collectors.groupingBy(BookingInterval::roomId));
+
+            for (Integer i : candidates) {
+                NewBookingDto newBookingDto = newBookingDtos.get(i);
+                try {
+                    Booking newBooking = toBulkBooking(newBookingDto, roomById, petById, intervalsByRoomId);
+                    newBookings.add(newBooking);
+                    newBookingIndexes.add(i);
+                } catch (ConflictException | NotFoundException e) {
+                    results[i] = rejectedBulkBooking(i, e.getMessage());
+                }
+            }
         }
 
-        if (Objects.isNull(newBooking.getPrepaymentAmount())) {
-            newBooking.setPrepaymentAmount(oldBooking.getPrepaymentAmount());
+        List<Booking> addedBookings = bookingRepository.saveAll(newBookings);
+        addedBookings.forEach(addedBooking -> publishChange(addedBooking, BookingChangeType.CREATED));
+        for (int k = 0; k < addedBookings.size(); k++) {
+            int i = newBookingIndexes.get(k);
+            results[i] = BulkBookingResultDto.builder()
+                    .index(i)
+                    .status(BulkBookingResultDto.Status.CREATED)
+                    .bookingId(addedBookings.get(k).getId())
+                    .build();
         }
+        log.info("BookingService: addBookings, userId={}, rows={}, added={}",
+                userId, newBookingDtos.size(), addedBookings.size());
+        return Arrays.asList(results);
+    }
 
-        if (Objects.isNull(newBooking.getIsPrepaid())) {
-            newBooking.setIsPrepaid(oldBooking.getIsPrepaid());
-        }
+    @Transactional(readOnly = true)
+    @Override
+    public BookingDto getBookingById(Long userId, Long bookingId) {
+        Booking booking = entityService.getBookingIfExists(bookingId);
+        BookingDto bookingDto = addOwnerShortDtoInPetDtoList(List.of(booking), true).get(0);
+        log.info("BookingService: getBookingById, userId={}, bookingId={}", userId, bookingId);
+        return bookingDto;
+    }
 
-        if (Objects.isNull(newBooking.getComment())) {
-            newBooking.setComment(oldBooking.getComment());
+    @Transactional(readOnly = true)
+    @Override
+    public String getBookingETag(Long userId, Long bookingId) {
+        VersionStamp bookingStamp = bookingRepository.getBookingVersionStamp(bookingId);
+        if (bookingStamp == null || bookingStamp.isEmpty()) {
+            return null;
         }
+        String eTag = VersionStamp.toETag(bookingStamp, bookingRepository.getPetsVersionStamp(bookingId));
+        log.info("BookingService: getBookingETag, userId={}, bookingId={}, eTag={}", userId, bookingId, eTag);
+        return eTag;
+    }
 
-        if (Objects.isNull(newBooking.getFileUrl())) {
-            newBooking.setFileUrl(oldBooking.getFileUrl());
-        }
+    @Transactional
+    @Override
+    public BookingDto updateBooking(Long userId, Long bookingId, UpdateBookingDto updateBookingDto) {
+        Booking booking = entityService.getBookingIfExists(bookingId);
+        lockRoomsOfBooking(booking, updateBookingDto.getRoomId());
+        bookingMapper.updateBooking(updateBookingDto, booking);
 
         if (updateBookingDto.getRoomId() != null) {
             Room room = entityService.getRoomIfExists(updateBookingDto.getRoomId());
             checkRoom(room, "update");
-            newBooking.setRoom(room);
-        } else {
-            newBooking.setRoom(oldBooking.getRoom());
+            booking.setRoom(room);
         }
 
-        if (Objects.isNull(updateBookingDto.getPetIds())) {
-            newBooking.setPets(oldBooking.getPets());
-        } else {
+        if (updateBookingDto.getPetIds() != null) {
             List<Pet> pets = entityService.getListOfPetsByIds(updateBookingDto.getPetIds());
             checkPetsInBooking(pets, updateBookingDto.getPetIds());
-            newBooking.setPets(pets);
+            booking.setPets(pets);
         }
 
-        if (newBooking.getStatus().equals(StatusBooking.STATUS_INITIAL) && newBooking.getIsPrepaid()) {
-            newBooking.setStatus(StatusBooking.STATUS_CONFIRMED);
+        if (booking.getStatus().equals(StatusBooking.STATUS_INITIAL) && Boolean.TRUE.equals(booking.getIsPrepaid())) {
+            booking.setStatus(StatusBooking.STATUS_CONFIRMED);
         }
 
-        utilityService.checkDatesOfBooking(newBooking.getCheckInDate(), newBooking.getCheckOutDate());
-
-        Booking updatedBooking = bookingRepository.save(newBooking);
-
-        List<Long> petsIds = updatedBooking.getPets().stream().map(Pet::getId).toList();
-        List<Pet> pets = entityService.getListOfPetsByIds(petsIds);
-        checkPetsInBooking(pets, petsIds);
-        updatedBooking.setPets(pets);
+        utilityService.checkDatesOfBooking(booking.getCheckInDate(), booking.getCheckOutDate());
+        publishChange(booking, booking.getStatus() == StatusBooking.STATUS_CANCELLED
+                ? BookingChangeType.CANCELLED : BookingChangeType.UPDATED);
 
-        BookingDto updatedBookingDto = bookingMapper.toBookingDto(updatedBooking);
-        List<PetDto> petDtoList = addPetsDtoListForOwner(pets, updatedBookingDto);
+        BookingDto updatedBookingDto = bookingMapper.toBookingDto(booking);
+        List<PetSummaryDto> petDtoList = addPetsDtoListForOwner(booking.getPets(), updatedBookingDto);
 
         updatedBookingDto.setPets(petDtoList);
         log.info("BookingService: updateBooking, userId={}, bookingId={}, updateBookingDto={}",
@@ -185,27 +240,52 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public void deleteBookingById(Long userId, Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+                new NotFoundException(String.format("booking with id=%d not found", bookingId)));
+        lockRoomsOfBooking(booking, null);
         int result = bookingRepository.deleteBookingById(bookingId);
 
         if (result == 0) {
             throw new NotFoundException(String.format("booking with id=%d not found", bookingId));
         }
+        eventPublisher.publishEvent(new BookingChangedEvent(bookingId, null, BookingChangeType.DELETED, null, null));
 
         log.info("BookingService: deleteBookingById, userId={}, bookingId={}", userId, bookingId);
     }
 
+    /*
+     * Индекс занятости обновляется в afterCommit, а блокировка номера снимается только в afterCompletion.
+     * Изменения и удаления одного бронирования под блокировкой его номеров фиксируются и попадают в индекс
+     * в одном порядке, иначе индекс может навсегда сохранить более старый интервал бронирования.
+     */
+    private void lockRoomsOfBooking(Booking booking, Long newRoomId) {
+        Set<Long> roomIds = new TreeSet<>();
+        if (booking.getRoom() != null) {
+            roomIds.add(booking.getRoom().getId());
+        }
+        if (newRoomId != null) {
+            roomIds.add(newRoomId);
+        }
+        if (roomIds.size() == 1) {
+            roomBookingLocks.lockUntilTransactionEnds(roomIds.iterator().next());
+        } else if (roomIds.size() > 1) {
+            roomBookingLocks.lockAllUntilTransactionEnds(roomIds);
+        }
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<BookingDto> findCrossingBookingsForRoomInDates(Long userId,
                                                                Long roomId,
                                                                LocalDate checkInDate,
-                                                               LocalDate checkOutDate) {
+                                                               LocalDate checkOutDate,
+                                                               boolean expandPetDetails) {
         utilityService.checkDatesOfBooking(checkInDate, checkOutDate);
         entityService.getRoomIfExists(roomId);
         List<Booking> foundBookings = bookingRepository.findCrossingBookingsForRoomInDates(
                 roomId, checkInDate, checkOutDate).orElse(Collections.emptyList());
 
-        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings);
+        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings, expandPetDetails);
 
         log.info("BookingService: findCrossingBookingsForRoomInDates, userId={}, roomId={}, checkInDate={}, checkOutDate={}",
                 userId, roomId, checkInDate, checkOutDate);
@@ -245,12 +325,13 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> findBlockingBookingsForRoomInDates(Long userId,
                                                                Long roomId,
                                                                LocalDate checkInDate,
-                                                               LocalDate checkOutDate) {
+                                                               LocalDate checkOutDate,
+                                                               boolean expandPetDetails) {
         utilityService.checkDatesOfBooking(checkInDate, checkOutDate);
         entityService.getRoomIfExists(roomId);
         List<Booking> foundBookings = findBookingsForRoomInDates(roomId, checkInDate, checkOutDate);
 
-        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings);
+        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings, expandPetDetails);
 
         log.info("BookingService: findBlockingBookingsForRoomInDates, userId={}, roomId={}, checkInDate={}, checkOutDate={}",
                 userId, roomId, checkInDate, checkOutDate);
@@ -259,12 +340,13 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> findAllBookingsInDates(Long userId, LocalDate startDate, LocalDate endDate) {
+    public List<BookingDto> findAllBookingsInDates(Long userId, LocalDate startDate, LocalDate endDate,
+                                                   boolean expandPetDetails) {
         utilityService.checkDatesOfBooking(startDate, endDate);
         List<Booking> foundBookings = bookingRepository.findAllBookingsInDates(startDate, endDate)
                 .orElse(Collections.emptyList());
 
-        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings);
+        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings, expandPetDetails);
 
         log.info("BookingService: findAllBookingsInDates, userId={}, startDate={}, endDate={}",
                 userId, startDate, endDate);
@@ -273,10 +355,49 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> findAllBookingsByPet(Long userId, Long petId) {
+    public void streamAllBookingsInDates(Long userId, LocalDate startDate, LocalDate endDate,
+                                         boolean expandPetDetails, int chunkSize,
+                                         Consumer<List<BookingDto>> chunkConsumer) {
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        long numOfBookings = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamAllBookingsInDates(startDate, endDate)) {
+            List<Booking> chunk = new ArrayList<>(chunkSize);
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    chunkConsumer.accept(addOwnerShortDtoInPetDtoList(chunk, expandPetDetails));
+                    numOfBookings += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("BookingService: streamAllBookingsInDates, userId={}, startDate={}, endDate={}, num of bookings={}",
+                userId, startDate, endDate, numOfBookings);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findAllBookingsInDatesAfter(Long userId, LocalDate startDate, LocalDate endDate,
+                                                        Long afterId, int size) {
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        List<Booking> foundBookings = bookingRepository.findAllBookingsInDatesAfterId(
+                startDate, endDate, afterId == null ? 0L : afterId, PageRequest.of(0, size));
+
+        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings, false);
+
+        log.info("BookingService: findAllBookingsInDatesAfter, userId={}, startDate={}, endDate={}, afterId={}, " +
+                "size={}, num of bookings={}", userId, startDate, endDate, afterId, size, bookingDtoList.size());
+        return bookingDtoList;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findAllBookingsByPet(Long userId, Long petId, boolean expandPetDetails) {
         entityService.getPetIfExists(petId);
         List<Booking> foundBookings = bookingRepository.findAllBookingsByPet(petId).orElse(Collections.emptyList());
-        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings);
+        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings, expandPetDetails);
 
         log.info("BookingService: findAllBookingsByPet, userId={}, petId={}", userId, petId);
         return bookingDtoList;
@@ -284,26 +405,43 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDto> findAllBookingsByOwner(Long userId, Long ownerId) {
+    public List<BookingDto> findAllBookingsByOwner(Long userId, Long ownerId, boolean expandPetDetails) {
         entityService.getOwnerIfExists(ownerId);
         List<Booking> foundBookings = bookingRepository.findAllBookingsByOwner(ownerId).orElse(Collections.emptyList());
-        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings);
+        List<BookingDto> bookingDtoList = addOwnerShortDtoInPetDtoList(foundBookings, expandPetDetails);
 
         log.info("BookingService: findAllBookingsByOwner, userId={}, petId={}", userId, ownerId);
         return bookingDtoList;
     }
 
     private List<Booking> findBookingsForRoomInDates(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
-        return bookingRepository.findBookingsForRoomInDates(
-                        roomId, checkInDate, checkOutDate)
-                .orElse(Collections.emptyList());
+        List<Long> blockingIds = roomOccupancyIndex.findBlockingBookingIds(roomId, checkInDate, checkOutDate);
+        if (blockingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return bookingRepository.findAllById(blockingIds);
     }
 
     private void checkRoomAvailabilityByDates(Long roomId,
                                               LocalDate checkInDate,
                                               LocalDate checkOutDate) {
-        List<Booking> blockingBookings = findBookingsForRoomInDates(roomId, checkInDate, checkOutDate);
-        if (!blockingBookings.isEmpty()) {
+        List<Long> blockingIds = roomOccupancyIndex.findBlockingBookingIds(roomId, checkInDate, checkOutDate);
+        if (!blockingIds.isEmpty()) {
+            throw new ConflictException(String.format("Room with id=%d is not available for current dates", roomId));
+        }
+    }
+
+    /*
+     * Повторная проверка по БД под блокировкой строки номера: бронирование, зафиксированное другим
+     * экземпляром приложения, отсутствует в локальном индексе, но видно после получения блокировки.
+     */
+    private void checkRoomAvailabilityInDatabase(Long roomId,
+                                                 LocalDate checkInDate,
+                                                 LocalDate checkOutDate) {
+        boolean isBlocked = bookingRepository.findBookingsForRoomInDates(roomId, checkInDate, checkOutDate)
+                .map(bookings -> !bookings.isEmpty())
+                .orElse(false);
+        if (isBlocked) {
             throw new ConflictException(String.format("Room with id=%d is not available for current dates", roomId));
         }
     }
@@ -312,16 +450,104 @@ public class BookingServiceImpl implements BookingService {
                                                         Long bookingId,
                                                         LocalDate checkInDate,
                                                         LocalDate checkOutDate) {
-        List<Booking> filteredBookings = findBookingsForRoomInDates(roomId, checkInDate, checkOutDate)
+        boolean isBlocked = roomOccupancyIndex.findBlockingBookingIds(roomId, checkInDate, checkOutDate)
                 .stream()
-                .filter(booking -> !booking.getId().equals(bookingId))
-                .toList();
+                .anyMatch(id -> !id.equals(bookingId));
 
-        if (!filteredBookings.isEmpty()) {
+        if (isBlocked) {
             throw new ConflictException(String.format("Room with id=%d is not available for current dates", roomId));
         }
     }
 
+    private void setInitialStatus(Booking newBooking) {
+        if (newBooking.getStatus() == null) {
+            if (Boolean.TRUE.equals(newBooking.getIsPrepaid()) || newBooking.getType().equals(TypesBooking.TYPE_CLOSING)) {
+                newBooking.setStatus(StatusBooking.STATUS_CONFIRMED);
+            } else {
+                newBooking.setStatus(StatusBooking.STATUS_INITIAL);
+            }
+        }
+    }
+
+    /*
+     * Проверки строки пакета, не требующие обращения к БД: ограничения полей NewBookingDto
+     * (в пакете они проверяются построчно, а не для всего тела запроса), даты и причина закрытия.
+     */
+    private void checkNewBookingInBulk(NewBookingDto newBookingDto) {
+        if (newBookingDto == null) {
+            throw new BadRequestException("Booking must not be null");
+        }
+        Set<ConstraintViolation<NewBookingDto>> violations = validator.validate(newBookingDto);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+        }
+        utilityService.checkDatesOfBooking(newBookingDto.getCheckInDate(), newBookingDto.getCheckOutDate());
+        checkReasonWhenTypeClosing(newBookingDto.getType(), newBookingDto.getReasonOfStop());
+    }
+
+    /*
+     * Принятые строки пакета добавляются в список интервалов номера, поэтому пересечения
+     * внутри пакета отклоняются так же, как пересечения с уже сохраненными бронированиями.
+     */
+    private Booking toBulkBooking(NewBookingDto newBookingDto,
+                                  Map<Long, Room> roomById,
+                                  Map<Long, Pet> petById,
+                                  Map<Long, List<BookingInterval>> intervalsByRoomId) {
+        Long roomId = newBookingDto.getRoomId();
+        Room room = roomById.get(roomId);
+        if (room == null) {
+            throw new NotFoundException(String.format("Room with id=%d is not found", roomId));
+        }
+        checkRoom(room, "add");
+
+        List<BookingInterval> roomIntervals = intervalsByRoomId.computeIfAbsent(roomId, id -> new ArrayList<>());
+        boolean isBlocked = roomIntervals.stream().anyMatch(interval -> RoomOccupancyIndex.overlaps(
+                interval, newBookingDto.getCheckInDate(), newBookingDto.getCheckOutDate()));
+        if (isBlocked) {
+            throw new ConflictException(String.format("Room with id=%d is not available for current dates", roomId));
+        }
+
+        List<Pet> pets = new ArrayList<>();
+        for (Long petId : getPetIdsOrEmpty(newBookingDto)) {
+            Pet pet = petById.get(petId);
+            if (pet == null) {
+                throw new NotFoundException(String.format("Pet with id=%d is not found", petId));
+            }
+            pets.add(pet);
+        }
+
+        Booking newBooking = bookingMapper.toBooking(newBookingDto);
+        newBooking.setRoom(room);
+        newBooking.setPets(pets);
+        setInitialStatus(newBooking);
+        roomIntervals.add(new BookingInterval(null, roomId,
+                newBookingDto.getCheckInDate(), newBookingDto.getCheckOutDate()));
+        return newBooking;
+    }
+
+    private List<Long> getPetIdsOrEmpty(NewBookingDto newBookingDto) {
+        return newBookingDto.getPetIds() == null ? Collections.emptyList() : newBookingDto.getPetIds();
+    }
+
+    private BulkBookingResultDto rejectedBulkBooking(int index, String error) {
+        return BulkBookingResultDto.builder()
+                .index(index)
+                .status(BulkBookingResultDto.Status.REJECTED)
+                .error(error)
+                .build();
+    }
+
+    private static LocalDate min(LocalDate first, LocalDate second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static LocalDate max(LocalDate first, LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+
     private void checkReasonWhenTypeClosing(TypesBooking type, ReasonOfStopBooking reason) {
         if (type.equals(TypesBooking.TYPE_CLOSING)) {
             if (reason == null) {
@@ -330,6 +556,73 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public OccupancyCalendarDto getOccupancyCalendar(Long userId, LocalDate startDate, LocalDate endDate,
+                                                     Long categoryId) {
+        utilityService.checkDatesOfBooking(startDate, endDate);
+        long daysCount = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (daysCount > MAX_CALENDAR_DAYS) {
+            throw new ConflictException(String.format("Calendar period from %s to %s is longer than %d days",
+                    startDate, endDate, MAX_CALENDAR_DAYS));
+        }
+        if (categoryId != null) {
+            entityService.getCategoryIfExists(categoryId);
+        }
+        List<Room> rooms = entityService.getListOfVisibleRooms(categoryId);
+
+        Map<Long, CalendarDayStatus[]> daysByRoomId = new HashMap<>();
+        for (Room room : rooms) {
+            CalendarDayStatus[] days = new CalendarDayStatus[(int) daysCount];
+            Arrays.fill(days, CalendarDayStatus.FREE);
+            daysByRoomId.put(room.getId(), days);
+        }
+
+        List<BookingCalendarEntry> entries =
+                bookingRepository.findCalendarEntriesInDates(startDate, endDate, categoryId);
+        for (BookingCalendarEntry entry : entries) {
+            CalendarDayStatus[] days = daysByRoomId.get(entry.roomId());
+            if (days == null) {
+                continue;
+            }
+            CalendarDayStatus status = toCalendarDayStatus(entry);
+            int from = (int) Math.max(0, ChronoUnit.DAYS.between(startDate, entry.checkInDate()));
+            int to = (int) Math.min(daysCount - 1, ChronoUnit.DAYS.between(startDate, entry.checkOutDate()));
+            for (int day = from; day <= to; day++) {
+                if (status.compareTo(days[day]) > 0) {
+                    days[day] = status;
+                }
+            }
+        }
+
+        List<RoomOccupancyDto> roomOccupancyList = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            roomOccupancyList.add(RoomOccupancyDto.builder()
+                    .roomId(room.getId())
+                    .roomNumber(room.getNumber())
+                    .categoryId(room.getCategory() == null ? null : room.getCategory().getId())
+                    .days(Arrays.asList(daysByRoomId.get(room.getId())))
+                    .build());
+        }
+        log.info("BookingService: getOccupancyCalendar, userId={}, startDate={}, endDate={}, categoryId={}, " +
+                "rooms={}, bookings={}", userId, startDate, endDate, categoryId, rooms.size(), entries.size());
+        return OccupancyCalendarDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .rooms(roomOccupancyList)
+                .build();
+    }
+
+    private CalendarDayStatus toCalendarDayStatus(BookingCalendarEntry entry) {
+        if (entry.type() == TypesBooking.TYPE_CLOSING) {
+            return CalendarDayStatus.CLOSING;
+        }
+        if (entry.status() == StatusBooking.STATUS_INITIAL) {
+            return CalendarDayStatus.INITIAL;
+        }
+        return CalendarDayStatus.BOOKED;
+    }
+
     private void checkPetsInBooking(List<Pet> pets, List<Long> petIds) {
         for (Long id : petIds) {
             boolean found = false;
@@ -345,44 +638,79 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /*
+     * Подписчики получают событие только после фиксации транзакции (BookingChangeFeed).
+     */
+    private void publishChange(Booking booking, BookingChangeType type) {
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(),
+                booking.getRoom() == null ? null : booking.getRoom().getId(),
+                type, booking.getCheckInDate(), booking.getCheckOutDate()));
+    }
+
     private void checkRoom(Room room, String actionType) {
         if (!room.getIsVisible()) {
             throw new ConflictException("Can't " + actionType + " booking for hidden room");
         }
     }
 
-    private BookingDto addOwnerShortDtoInPetDto(Booking booking) {
-        List<Long> petsIds = booking.getPets().stream().map(Pet::getId).toList();
-        List<Pet> pets = entityService.getListOfPetsByIds(petsIds);
-        checkPetsInBooking(pets, petsIds);
-
-        Map<Long, Owner> owners = pets.stream()
-                .collect(Collectors.toMap(Pet::getId, Pet::getOwner));
-
-        BookingDto bookingDto = bookingMapper.toBookingDto(booking);
-        List<PetDto> petsDto = bookingDto.getPets();
-        for (PetDto petDto : petsDto) {
-            petDto.setOwnerShortDto(ownerMapper.toOwnerShortDto(owners.get(petDto.getId())));
+    private List<BookingDto> addOwnerShortDtoInPetDtoList(List<Booking> bookings, boolean expandPetDetails) {
+        if (bookings.isEmpty()) {
+            return new ArrayList<>();
         }
-        bookingDto.setPets(petsDto);
-        return bookingDto;
-    }
 
-    private List<BookingDto> addOwnerShortDtoInPetDtoList(List<Booking> bookings) {
-        List<BookingDto> bookingDtoList = new ArrayList<>();
+        List<Long> bookingIds = bookings.stream().map(Booking::getId).toList();
+        Map<Long, List<Long>> petIdsByBookingId = bookingRepository.findPetLinksByBookingIds(bookingIds)
+                .stream()
+                .collect(Collectors.groupingBy(BookingPetLink::bookingId,
+                        Collectors.mapping(BookingPetLink::petId, Collectors.toList())));
+        Set<Long> petIds = petIdsByBookingId.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet());
+        Map<Long, PetSummaryDto> petDtoById = expandPetDetails
+                ? getPetDtoWithOwnerById(petIds)
+                : getPetSummaryDtoById(petIds);
+
+        List<BookingDto> bookingDtoList = new ArrayList<>(bookings.size());
         for (Booking booking : bookings) {
-            BookingDto bookingDto = addOwnerShortDtoInPetDto(booking);
+            BookingDto bookingDto = bookingMapper.toBookingDtoWithoutPets(booking);
+            List<PetSummaryDto> petsDto = new ArrayList<>();
+            for (Long petId : petIdsByBookingId.getOrDefault(booking.getId(), Collections.emptyList())) {
+                PetSummaryDto petDto = petDtoById.get(petId);
+                if (petDto == null) {
+                    throw new NotFoundException(String.format("Pet with id=%d is not found", petId));
+                }
+                petsDto.add(petDto);
+            }
+            bookingDto.setPets(petsDto);
             bookingDtoList.add(bookingDto);
         }
         return bookingDtoList;
     }
 
-    private List<PetDto> addPetsDtoListForOwner(List<Pet> pets, BookingDto bookingDto) {
+    private Map<Long, PetSummaryDto> getPetDtoWithOwnerById(Collection<Long> petIds) {
+        Map<Long, PetSummaryDto> petDtoById = new HashMap<>();
+        for (Pet pet : entityService.getListOfPetsWithOwnersByIds(petIds)) {
+            PetDto petDto = petMapper.toPetDto(pet);
+            petDto.setOwnerShortDto(ownerMapper.toOwnerShortDto(pet.getOwner()));
+            petDtoById.put(pet.getId(), petDto);
+        }
+        return petDtoById;
+    }
+
+    private Map<Long, PetSummaryDto> getPetSummaryDtoById(Collection<Long> petIds) {
+        Map<Long, PetSummaryDto> petDtoById = new HashMap<>();
+        for (PetSummary petSummary : entityService.getListOfPetSummariesByIds(petIds)) {
+            petDtoById.put(petSummary.id(), petMapper.toPetSummaryDto(petSummary));
+        }
+        return petDtoById;
+    }
+
+    private List<PetSummaryDto> addPetsDtoListForOwner(List<Pet> pets, BookingDto bookingDto) {
         Map<Long, Owner> owners = pets.stream()
                 .collect(Collectors.toMap(Pet::getId, Pet::getOwner));
 
-        List<PetDto> petsDto = bookingDto.getPets();
-        for (PetDto petDto : petsDto) {
+        List<PetSummaryDto> petsDto = bookingDto.getPets();
+        for (PetSummaryDto petDto : petsDto) {
             petDto.setOwnerShortDto(ownerMapper.toOwnerShortDto(owners.get(petDto.getId())));
         }
         return petsDto;
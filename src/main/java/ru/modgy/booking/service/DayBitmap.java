@@ -0,0 +1,111 @@
+package ru.modgy.booking.service;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Множество дней в виде битовой карты: один бит на день (номер дня - LocalDate.toEpochDay()).
+ * Дни сгруппированы в блоки по 512 дней (8 слов long), хранятся только блоки, в которых есть отмеченные дни,
+ * поэтому два года бронирований одного номера занимают несколько сотен байт.
+ * Операции над диапазоном дней выполняются по словам, а не по отдельным дням.
+ */
+class DayBitmap {
+    private static final int BLOCK_SHIFT = 9;
+    private static final int BLOCK_DAYS = 1 << BLOCK_SHIFT;
+    private static final int WORDS_PER_BLOCK = BLOCK_DAYS / Long.SIZE;
+
+    private final NavigableMap<Long, long[]> blocks = new TreeMap<>();
+
+    /**
+     * Отметить дни с fromDay по toDay включительно (при fromDay > toDay ничего не меняется)
+     */
+    void set(long fromDay, long toDay) {
+        forEachWord(fromDay, toDay, true, (words, index, mask) -> {
+            words[index] |= mask;
+            return false;
+        });
+    }
+
+    /**
+     * Снять отметку с дней с fromDay по toDay включительно
+     */
+    void clear(long fromDay, long toDay) {
+        forEachWord(fromDay, toDay, false, (words, index, mask) -> {
+            words[index] &= ~mask;
+            return false;
+        });
+        blocks.subMap(fromDay >> BLOCK_SHIFT, true, toDay >> BLOCK_SHIFT, true)
+                .values()
+                .removeIf(DayBitmap::isEmpty);
+    }
+
+    /**
+     * Есть ли отмеченные дни в диапазоне с fromDay по toDay включительно
+     */
+    boolean intersects(long fromDay, long toDay) {
+        return forEachWord(fromDay, toDay, false, (words, index, mask) -> (words[index] & mask) != 0);
+    }
+
+    /**
+     * Есть ли отмеченные дни начиная с fromDay
+     */
+    boolean intersectsFrom(long fromDay) {
+        Map.Entry<Long, long[]> first = blocks.ceilingEntry(fromDay >> BLOCK_SHIFT);
+        if (first == null) {
+            return false;
+        }
+        if (first.getKey() > fromDay >> BLOCK_SHIFT) {
+            return true;
+        }
+        long lastDayOfBlock = ((first.getKey() + 1) << BLOCK_SHIFT) - 1;
+        return intersects(fromDay, lastDayOfBlock) || blocks.higherKey(first.getKey()) != null;
+    }
+
+    boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    /*
+     * Обход диапазона дней по словам: для каждого слова вычисляется маска битов диапазона.
+     * Отсутствующие блоки пропускаются целиком (или создаются, если create = true).
+     * Обход прекращается, как только operation вернет true.
+     */
+    private boolean forEachWord(long fromDay, long toDay, boolean create, WordOperation operation) {
+        long day = fromDay;
+        while (day <= toDay) {
+            long blockIndex = day >> BLOCK_SHIFT;
+            long[] words = create
+                    ? blocks.computeIfAbsent(blockIndex, index -> new long[WORDS_PER_BLOCK])
+                    : blocks.get(blockIndex);
+            if (words == null) {
+                day = (blockIndex + 1) << BLOCK_SHIFT;
+                continue;
+            }
+            int dayInBlock = (int) (day & (BLOCK_DAYS - 1));
+            int bitInWord = dayInBlock & (Long.SIZE - 1);
+            long lastDay = Math.min(toDay, day - bitInWord + Long.SIZE - 1);
+            int bits = (int) (lastDay - day + 1);
+            long mask = (bits == Long.SIZE ? -1L : (1L << bits) - 1) << bitInWord;
+            if (operation.apply(words, dayInBlock / Long.SIZE, mask)) {
+                return true;
+            }
+            day = lastDay + 1;
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface WordOperation {
+        boolean apply(long[] words, int index, long mask);
+    }
+}
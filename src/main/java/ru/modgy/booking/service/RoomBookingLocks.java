@@ -0,0 +1,80 @@
+package ru.modgy.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки номеров внутри приложения: бронирования одного номера выполняются по очереди,
+ * бронирования разных номеров - параллельно. Номера распределяются по фиксированному набору
+ * блокировок (stripes), поэтому память не растет с количеством номеров.
+ */
+@Component
+public class RoomBookingLocks {
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public RoomBookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Захват блокировки номера до завершения текущей транзакции (фиксации или отката)
+     *
+     * @param roomId - id номера
+     */
+    public void lockUntilTransactionEnds(Long roomId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Room lock requires an active transaction");
+        }
+        ReentrantLock lock = lockFor(roomId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Захват блокировок нескольких номеров до завершения текущей транзакции.
+     * Блокировки берутся в порядке номеров stripes, поэтому параллельные пакетные операции не блокируют друг друга взаимно.
+     *
+     * @param roomIds - id номеров
+     */
+    public void lockAllUntilTransactionEnds(Collection<Long> roomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Room lock requires an active transaction");
+        }
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long roomId : roomIds) {
+            stripes.add(stripeFor(roomId));
+        }
+        for (Integer stripe : stripes) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    ReentrantLock lockFor(Long roomId) {
+        return locks[stripeFor(roomId)];
+    }
+
+    private int stripeFor(Long roomId) {
+        return Math.floorMod(roomId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,265 @@
+package ru.modgy.booking.service;
+
+import org.springframework.stereotype.Component;
+import ru.modgy.booking.model.BookingInterval;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс занятости номеров в памяти: для каждого номера хранится упорядоченный по дате заезда
+ * список интервалов неотмененных бронирований и битовые карты занятых дней, построенные по этим интервалам.
+ * Проверка доступности номера выполняется по битовым картам, интервалы нужны для поиска блокирующих бронирований.
+ * Позволяет проверять доступность номера и искать блокирующие бронирования без обращения к БД.
+ */
+@Component
+public class RoomOccupancyIndex {
+    private static final Comparator<BookingInterval> BY_CHECK_IN_DATE = Comparator
+            .comparing(BookingInterval::checkInDate)
+            .thenComparing(BookingInterval::bookingId);
+
+    private final Map<Long, BookingInterval> bookings = new HashMap<>();
+    private final Map<Long, RoomTimeline> rooms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void load(Collection<BookingInterval> intervals) {
+        lock.writeLock().lock();
+        try {
+            bookings.clear();
+            rooms.clear();
+            intervals.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BookingInterval put(BookingInterval interval) {
+        lock.writeLock().lock();
+        try {
+            BookingInterval previous = delete(interval.bookingId());
+            add(interval);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BookingInterval remove(Long bookingId) {
+        lock.writeLock().lock();
+        try {
+            return delete(bookingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bookings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск блокирующих бронирований номера, не позволяющих добавить новое бронирование в указанные даты
+     *
+     * @param roomId       - id номера
+     * @param checkInDate  - дата заезда
+     * @param checkOutDate - дата выезда
+     * @return id блокирующих бронирований в порядке даты заезда
+     */
+    public List<Long> findBlockingBookingIds(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        lock.readLock().lock();
+        try {
+            RoomTimeline timeline = rooms.get(roomId);
+            if (timeline == null) {
+                return Collections.emptyList();
+            }
+            if (!timeline.isOccupied(checkInDate, checkOutDate)) {
+                return Collections.emptyList();
+            }
+            List<Long> blockingIds = new ArrayList<>();
+            for (BookingInterval interval : timeline.candidates(checkInDate, checkOutDate)) {
+                if (overlaps(interval, checkInDate, checkOutDate)) {
+                    blockingIds.add(interval.bookingId());
+                }
+            }
+            return blockingIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Проверка наличия у номера активных бронирований в указанные даты (используется при поиске свободных номеров)
+     *
+     * @param roomId       - id номера
+     * @param checkInDate  - дата заезда
+     * @param checkOutDate - дата выезда
+     * @return true - если номер занят хотя бы одним неотмененным бронированием
+     */
+    public boolean isRoomOccupied(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        lock.readLock().lock();
+        try {
+            return isOccupied(rooms.get(roomId), checkInDate, checkOutDate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Отбор номеров, имеющих активные бронирования в указанные даты, для поиска свободных номеров
+     * сразу по нескольким категориям (проверка всех номеров выполняется под одной блокировкой)
+     *
+     * @param roomIds      - id проверяемых номеров
+     * @param checkInDate  - дата заезда
+     * @param checkOutDate - дата выезда
+     * @return id занятых номеров
+     */
+    public Set<Long> findOccupiedRoomIds(Collection<Long> roomIds, LocalDate checkInDate, LocalDate checkOutDate) {
+        lock.readLock().lock();
+        try {
+            Set<Long> occupiedIds = new HashSet<>();
+            for (Long roomId : roomIds) {
+                if (isOccupied(rooms.get(roomId), checkInDate, checkOutDate)) {
+                    occupiedIds.add(roomId);
+                }
+            }
+            return occupiedIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Проверка наличия у номера активных бронирований, которые еще не закончились (используется при скрытии номера)
+     *
+     * @param roomId - id номера
+     * @param date   - дата, начиная с которой ищутся бронирования
+     * @return true - если у номера есть неотмененное бронирование с датой выезда не раньше date
+     */
+    public boolean hasBookingsFrom(Long roomId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            RoomTimeline timeline = rooms.get(roomId);
+            return timeline != null && timeline.days.intersectsFrom(date.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isOccupied(RoomTimeline timeline, LocalDate checkInDate, LocalDate checkOutDate) {
+        return timeline != null && timeline.isOccupied(checkInDate, checkOutDate);
+    }
+
+    /*
+     * Интервалы пересекаются, если бронирование начинается раньше выезда и заканчивается позже заезда.
+     * Однодневные бронирования (заезд и выезд в один день) и однодневный запрос пересекаются и на границах.
+     */
+    static boolean overlaps(BookingInterval booking, LocalDate checkInDate, LocalDate checkOutDate) {
+        LocalDate bookingCheckIn = booking.checkInDate();
+        LocalDate bookingCheckOut = booking.checkOutDate();
+        if (bookingCheckIn.isAfter(checkOutDate) || bookingCheckOut.isBefore(checkInDate)) {
+            return false;
+        }
+        return (bookingCheckIn.isBefore(checkOutDate) && bookingCheckOut.isAfter(checkInDate)) ||
+               bookingCheckIn.equals(bookingCheckOut) ||
+               checkInDate.equals(checkOutDate);
+    }
+
+    private void add(BookingInterval interval) {
+        bookings.put(interval.bookingId(), interval);
+        rooms.computeIfAbsent(interval.roomId(), id -> new RoomTimeline()).add(interval);
+    }
+
+    private BookingInterval delete(Long bookingId) {
+        BookingInterval previous = bookings.remove(bookingId);
+        if (previous != null) {
+            RoomTimeline timeline = rooms.get(previous.roomId());
+            timeline.remove(previous);
+            if (timeline.isEmpty()) {
+                rooms.remove(previous.roomId());
+            }
+        }
+        return previous;
+    }
+
+    /*
+     * Битовые карты повторяют правила overlaps():
+     * nights - ночи многодневных бронирований (ночь d - с дня d на день d + 1), по ним проверяются
+     * многодневные запросы, бронирования, которые только касаются запроса, ночей с ним не делят;
+     * singleDays - однодневные бронирования, они пересекаются с запросом и на границах;
+     * days - все дни бронирований включая дни заезда и выезда, по ним проверяются однодневные запросы.
+     * Бронирования одного номера могут касаться друг друга, поэтому при изменении бронирования биты
+     * его дней не снимаются, а пересчитываются по всем интервалам номера в этих днях.
+     */
+    private static class RoomTimeline {
+        private final NavigableSet<BookingInterval> intervals = new TreeSet<>(BY_CHECK_IN_DATE);
+        private final DayBitmap nights = new DayBitmap();
+        private final DayBitmap singleDays = new DayBitmap();
+        private final DayBitmap days = new DayBitmap();
+        private long maxStayDays;
+
+        void add(BookingInterval interval) {
+            intervals.add(interval);
+            maxStayDays = Math.max(maxStayDays,
+                    ChronoUnit.DAYS.between(interval.checkInDate(), interval.checkOutDate()));
+            refreshBitmaps(interval);
+        }
+
+        void remove(BookingInterval interval) {
+            intervals.remove(interval);
+            refreshBitmaps(interval);
+        }
+
+        boolean isOccupied(LocalDate checkInDate, LocalDate checkOutDate) {
+            long fromDay = checkInDate.toEpochDay();
+            long toDay = checkOutDate.toEpochDay();
+            if (fromDay == toDay) {
+                return days.intersects(fromDay, toDay);
+            }
+            return nights.intersects(fromDay, toDay - 1) || singleDays.intersects(fromDay, toDay);
+        }
+
+        private void refreshBitmaps(BookingInterval changed) {
+            long fromDay = changed.checkInDate().toEpochDay();
+            long toDay = changed.checkOutDate().toEpochDay();
+            nights.clear(fromDay, toDay);
+            singleDays.clear(fromDay, toDay);
+            days.clear(fromDay, toDay);
+            for (BookingInterval interval : candidates(changed.checkInDate(), changed.checkOutDate())) {
+                long checkInDay = interval.checkInDate().toEpochDay();
+                long checkOutDay = interval.checkOutDate().toEpochDay();
+                days.set(Math.max(checkInDay, fromDay), Math.min(checkOutDay, toDay));
+                if (checkInDay == checkOutDay) {
+                    singleDays.set(Math.max(checkInDay, fromDay), Math.min(checkOutDay, toDay));
+                } else {
+                    nights.set(Math.max(checkInDay, fromDay), Math.min(checkOutDay - 1, toDay));
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return intervals.isEmpty();
+        }
+
+        /*
+         * Интервал может касаться [checkInDate, checkOutDate], только если он начинается не позже checkOutDate
+         * и не раньше, чем за самое длинное пребывание в этом номере до checkInDate.
+         */
+        Collection<BookingInterval> candidates(LocalDate checkInDate, LocalDate checkOutDate) {
+            LocalDate earliestCheckIn = checkInDate.minusDays(maxStayDays);
+            if (earliestCheckIn.isAfter(checkOutDate)) {
+                return Collections.emptyList();
+            }
+            BookingInterval from = new BookingInterval(Long.MIN_VALUE, null, earliestCheckIn, null);
+            BookingInterval to = new BookingInterval(Long.MAX_VALUE, null, checkOutDate, null);
+            return intervals.subSet(from, true, to, true);
+        }
+    }
+}
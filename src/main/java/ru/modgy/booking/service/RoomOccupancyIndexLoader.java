@@ -0,0 +1,28 @@
+package ru.modgy.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.repository.BookingRepository;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomOccupancyIndexLoader {
+    private final BookingRepository bookingRepository;
+    private final RoomOccupancyIndex roomOccupancyIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        List<BookingInterval> intervals = bookingRepository.findAllActiveBookingIntervals();
+        roomOccupancyIndex.load(intervals);
+        log.info("RoomOccupancyIndexLoader: loadIndex, num of bookings={}", intervals.size());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.modgy.booking.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.StatusBooking;
+import ru.modgy.utility.index.IndexChangeLog;
+
+/**
+ * Поддерживает RoomOccupancyIndex в актуальном состоянии при сохранении и удалении бронирований.
+ * Изменения попадают в индекс только после фиксации транзакции, поэтому другие запросы не видят бронирований,
+ * которые еще могут быть отменены откатом. До фиксации новое бронирование проверяется по БД под блокировкой номера.
+ */
+@Component
+public class RoomOccupancyListener {
+    private final IndexChangeLog<Long, BookingInterval> changeLog;
+
+    public RoomOccupancyListener(RoomOccupancyIndex roomOccupancyIndex) {
+        this.changeLog = IndexChangeLog.applyAfterCommit((bookingId, interval) -> {
+            if (interval == null) {
+                roomOccupancyIndex.remove(bookingId);
+            } else {
+                roomOccupancyIndex.put(interval);
+            }
+        });
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onBookingSaved(Booking booking) {
+        if (booking.getRoom() == null || booking.getStatus() == StatusBooking.STATUS_CANCELLED) {
+            changeLog.record(booking.getId(), null);
+        } else {
+            changeLog.record(booking.getId(), new BookingInterval(
+                    booking.getId(),
+                    booking.getRoom().getId(),
+                    booking.getCheckInDate(),
+                    booking.getCheckOutDate()));
+        }
+    }
+
+    @PostRemove
+    public void onBookingRemoved(Booking booking) {
+        changeLog.record(booking.getId(), null);
+    }
+}
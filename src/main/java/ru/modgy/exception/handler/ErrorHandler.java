@@ -5,6 +5,7 @@ import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -180,6 +181,18 @@ public class ErrorHandler {
                 now());
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Error handleObjectOptimisticLockingFailureException(final ObjectOptimisticLockingFailureException ex) {
+        log.error("EH: ObjectOptimisticLockingFailureException: {}", ex.getMessage());
+        return new Error(
+                new ArrayList<>(),
+                String.format("Object with id=%s was changed by another request", ex.getIdentifier()),
+                "The object has been modified concurrently, reload it and repeat the operation.",
+                HttpStatus.CONFLICT,
+                now());
+    }
+
     @ExceptionHandler(BadRequestException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Error handleBadRequestException(final BadRequestException ex) {
@@ -1,18 +1,27 @@
 package ru.modgy.owner.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.modgy.exception.BadRequestException;
 import ru.modgy.owner.dto.*;
 import ru.modgy.owner.service.OwnerService;
 import ru.modgy.user.model.Roles;
 import ru.modgy.utility.UtilityService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Slf4j
@@ -22,8 +31,10 @@ import java.util.Collection;
 @RequiredArgsConstructor
 @Validated
 public class OwnerController {
+    private static final int EXPORT_CHUNK_SIZE = 500;
     private final OwnerService ownerService;
     private final UtilityService utilityService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -88,6 +99,60 @@ public class OwnerController {
         return ownerService.getAllOwners(requesterId);
     }
 
+    @GetMapping(params = "page")
+    public Page<OwnerDto> getOwnersPage(
+            @RequestHeader(value = UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+            @RequestParam(value = "page") @PositiveOrZero int page,
+            @RequestParam(value = "size", defaultValue = "20") @Positive int size
+    ) {
+        log.info("OwnerController: requesterId={} GET/getOwnersPage page={}, size={}", requesterId, page, size);
+        utilityService.checkHigherOrdinalRoleAccess(requesterId, Roles.ROLE_ADMIN);
+        return ownerService.getOwnersPage(requesterId, page, size);
+    }
+
+    @GetMapping(params = {"size", "!page"})
+    public OwnerKeysetPageDto getOwnersAfter(
+            @RequestHeader(value = UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+            @RequestParam(value = "afterRegistrationDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterRegistrationDate,
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "size") @Positive int size
+    ) {
+        log.info("OwnerController: requesterId={} GET/getOwnersAfter afterRegistrationDate={}, afterId={}, size={}",
+                requesterId, afterRegistrationDate, afterId, size);
+        utilityService.checkHigherOrdinalRoleAccess(requesterId, Roles.ROLE_ADMIN);
+        if (afterRegistrationDate != null && afterId == null) {
+            throw new BadRequestException("RequestParam afterId is required with afterRegistrationDate");
+        }
+        return ownerService.getOwnersAfter(requesterId, afterRegistrationDate, afterId, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOwners(
+            @RequestHeader(value = UtilityService.REQUESTER_ID_HEADER) Long requesterId
+    ) {
+        log.info("OwnerController: requesterId={} GET/exportOwners", requesterId);
+        utilityService.checkHigherOrdinalRoleAccess(requesterId, Roles.ROLE_ADMIN);
+        StreamingResponseBody body = outputStream -> {
+            LocalDateTime afterRegistrationDate = null;
+            Long afterId = null;
+            do {
+                OwnerKeysetPageDto chunk =
+                        ownerService.getOwnersAfter(requesterId, afterRegistrationDate, afterId, EXPORT_CHUNK_SIZE);
+                for (OwnerDto owner : chunk.getOwners()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(owner));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                afterRegistrationDate = chunk.getNextRegistrationDate();
+                afterId = chunk.getNextId();
+            } while (afterRegistrationDate != null);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteOwnerById(
@@ -114,15 +179,27 @@ public class OwnerController {
     public Collection<OwnerDto> searchOwner(
             @RequestHeader(value = UtilityService.REQUESTER_ID_HEADER) Long requesterId,
             @RequestBody SearchOwnerDto searchOwnerDto,
-            @RequestParam(value = "direction") String directionString
+            @RequestParam(value = "direction") String directionString,
+            @RequestParam(value = "limit", defaultValue = "50") @Positive int limit
     ) {
         SearchDirection searchDirection = SearchDirection.fromString(directionString);
         if (searchDirection == null) {
             throw new BadRequestException("RequestParam direction error");
         }
-        log.info("OwnerController: requesterId={} GET/searchOwner searchOwnerDto={}, direction={}",
-                requesterId, searchOwnerDto, searchDirection);
+        log.info("OwnerController: requesterId={} GET/searchOwner searchOwnerDto={}, direction={}, limit={}",
+                requesterId, searchOwnerDto, searchDirection, limit);
+        utilityService.checkHigherOrdinalRoleAccess(requesterId, Roles.ROLE_ADMIN);
+        return ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, limit);
+    }
+
+    @GetMapping("/typeahead")
+    public Collection<OwnerShortDto> getOwnersByPrefix(
+            @RequestHeader(value = UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+            @RequestParam(value = "prefix") @NotBlank String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") @Positive int limit
+    ) {
+        log.info("OwnerController: requesterId={} GET/getOwnersByPrefix prefix={}, limit={}", requesterId, prefix, limit);
         utilityService.checkHigherOrdinalRoleAccess(requesterId, Roles.ROLE_ADMIN);
-        return ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection);
+        return ownerService.getOwnersByPrefix(requesterId, prefix, limit);
     }
 }
@@ -0,0 +1,19 @@
+package ru.modgy.owner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerKeysetPageDto {
+    private List<OwnerDto> owners;
+    private LocalDateTime nextRegistrationDate;
+    private Long nextId;
+}
@@ -1,7 +1,10 @@
 package ru.modgy.owner.dto.mapper;
 
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
 import ru.modgy.owner.dto.NewOwnerDto;
 import ru.modgy.owner.dto.OwnerDto;
@@ -20,10 +23,13 @@ public interface OwnerMapper {
     @Mapping(source = "optionalPhone", target = "optionalPhone", qualifiedByName = "formatPhoneNumber")
     Owner toOwner(NewOwnerDto newOwnerDto);
 
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(source = "mainPhone", target = "mainPhone", qualifiedByName = "formatPhoneNumber")
     @Mapping(source = "optionalPhone", target = "optionalPhone", qualifiedByName = "formatPhoneNumber")
     @Mapping(target = "id", ignore = true)
-    Owner toOwner(UpdateOwnerDto updateOwnerDto);
+    @Mapping(target = "pets", ignore = true)
+    @Mapping(target = "registrationDate", ignore = true)
+    void updateOwner(UpdateOwnerDto updateOwnerDto, @MappingTarget Owner owner);
 
     @Mapping(source = "pets", target = "petsDto")
     OwnerDto toOwnerDto(Owner owner);
@@ -2,7 +2,9 @@ package ru.modgy.owner.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.utility.PhoneFormatMapper;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,14 +15,22 @@ import java.util.List;
 @Setter
 @ToString
 @Entity
-@Table(name = "owners")
+@DynamicUpdate
+@Table(name = "owners", indexes = {
+        @Index(name = "idx_owners_main_phone_digits", columnList = "main_phone_digits_owners"),
+        @Index(name = "idx_owners_optional_phone_digits", columnList = "optional_phone_digits_owners")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Owner {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "owners_seq")
+    @SequenceGenerator(name = "owners_seq", sequenceName = "owners_seq", allocationSize = 50)
     @Column(name = "id_owners")
     private Long id;
+    @Version
+    @Column(name = "version_owners", nullable = false)
+    private Long version;
     @Column(name = "last_name_owners")
     private String lastName;
     @Column(name = "first_name_owners", nullable = false)
@@ -31,6 +41,10 @@ public class Owner {
     private String mainPhone;
     @Column(name = "optional_phone_owners")
     private String optionalPhone;
+    @Column(name = "main_phone_digits_owners", length = 16)
+    private String mainPhoneDigits;
+    @Column(name = "optional_phone_digits_owners", length = 16)
+    private String optionalPhoneDigits;
     @Column(name = "other_contacts_owners")
     private String otherContacts;
     @Column(name = "actual_address_owners")
@@ -48,5 +62,13 @@ public class Owner {
     @OneToMany(mappedBy = "owner",
             fetch = FetchType.LAZY,
             cascade = CascadeType.ALL)
+    @ToString.Exclude
     List<Pet> pets = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void normalizePhones() {
+        mainPhoneDigits = PhoneFormatMapper.toDigits(mainPhone);
+        optionalPhoneDigits = PhoneFormatMapper.toDigits(optionalPhone);
+    }
 }
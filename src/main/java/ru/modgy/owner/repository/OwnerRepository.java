@@ -1,27 +1,37 @@
 package ru.modgy.owner.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.modgy.owner.model.Owner;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OwnerRepository extends JpaRepository<Owner, Long> {
+public interface OwnerRepository extends JpaRepository<Owner, Long>, SearchOwnerRepository {
     Optional<Owner> findByMainPhoneOrOptionalPhone(String mainPhoneNumber, String optionalPhoneNumber);
 
-    @Query(value = "select owner from Owner as owner where :direction = 'name'" +
-                   " and (owner.firstName like concat ('%', :searchLine, '%')" +
-                   " or owner.middleName like concat ('%', :searchLine, '%')" +
-                   " or owner.lastName like concat ('%', :searchLine, '%'))" +
-                   " or :direction ='phone'" +
-                   " and (owner.mainPhone like concat ('%', :searchLine, '%')" +
-                   " or owner.optionalPhone like concat ('%', :searchLine, '%'))")
-    List<Owner> searchOwner(
-            @Param("searchLine") String searchLine,
-            @Param("direction") String direction
-    );
-
     Integer deleteOwnerById(Long ownerId);
+
+    @Query(value = "SELECT o.id FROM Owner o ORDER BY o.registrationDate DESC, o.id DESC",
+            countQuery = "SELECT count(o) FROM Owner o")
+    Page<Long> findOwnerIds(Pageable pageable);
+
+    @Query("SELECT o.id FROM Owner o ORDER BY o.registrationDate DESC, o.id DESC")
+    List<Long> findFirstOwnerIds(Pageable pageable);
+
+    @Query("SELECT o.id FROM Owner o " +
+           "WHERE o.registrationDate < :registrationDate " +
+           "OR (o.registrationDate = :registrationDate AND o.id < :id) " +
+           "ORDER BY o.registrationDate DESC, o.id DESC")
+    List<Long> findOwnerIdsAfter(@Param("registrationDate") LocalDateTime registrationDate,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM Owner o LEFT JOIN FETCH o.pets WHERE o.id IN :ids")
+    List<Owner> findAllWithPetsByIdIn(@Param("ids") Collection<Long> ids);
 }
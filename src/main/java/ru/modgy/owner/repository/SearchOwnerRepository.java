@@ -0,0 +1,15 @@
+package ru.modgy.owner.repository;
+
+import ru.modgy.owner.model.Owner;
+
+import java.util.List;
+
+public interface SearchOwnerRepository {
+    List<Owner> searchOwnersByName(List<String> words, int limit);
+
+    List<Owner> searchOwnersByPhone(String phoneDigits, int limit);
+
+    List<Owner> findOwnersByNamePrefix(String namePrefix, int limit);
+
+    List<Owner> findOwnersByPhonePrefix(String phoneDigitsPrefix, int limit);
+}
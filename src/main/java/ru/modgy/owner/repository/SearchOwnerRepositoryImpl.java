@@ -0,0 +1,129 @@
+package ru.modgy.owner.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import ru.modgy.owner.model.Owner;
+
+import java.util.List;
+
+/**
+ * Поиск клиентов по ФИО и номерам телефонов. Условия строятся над lower(ФИО) и столбцами с цифрами телефонов,
+ * для которых в PostgreSQL созданы триграммные (pg_trgm) и префиксные индексы (см. db/migration/postgresql/V3__owner_search_trgm_indexes.sql).
+ * В H2 те же запросы выполняются без этих индексов.
+ */
+public class SearchOwnerRepositoryImpl implements SearchOwnerRepository {
+    private static final char ESCAPE_CHAR = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Owner> searchOwnersByName(List<String> words, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Owner> cq = cb.createQuery(Owner.class);
+        Root<Owner> ownerRoot = cq.from(Owner.class);
+        Expression<String> lastName = cb.lower(ownerRoot.get("lastName"));
+        Expression<String> firstName = cb.lower(ownerRoot.get("firstName"));
+        Expression<String> middleName = cb.lower(ownerRoot.get("middleName"));
+
+        Predicate[] predicates = words.stream()
+                .map(word -> cb.or(
+                        cb.like(lastName, contains(word), ESCAPE_CHAR),
+                        cb.like(firstName, contains(word), ESCAPE_CHAR),
+                        cb.like(middleName, contains(word), ESCAPE_CHAR)))
+                .toArray(Predicate[]::new);
+        String firstWord = words.get(0);
+        Expression<Integer> rank = cb.<Integer>selectCase()
+                .when(cb.equal(lastName, firstWord), 0)
+                .when(cb.like(lastName, startsWith(firstWord), ESCAPE_CHAR), 1)
+                .when(cb.like(firstName, startsWith(firstWord), ESCAPE_CHAR), 2)
+                .otherwise(3);
+
+        cq.select(ownerRoot)
+                .where(predicates)
+                .orderBy(cb.asc(rank), cb.asc(lastName), cb.asc(firstName), cb.asc(ownerRoot.get("id")));
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Owner> searchOwnersByPhone(String phoneDigits, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Owner> cq = cb.createQuery(Owner.class);
+        Root<Owner> ownerRoot = cq.from(Owner.class);
+        Expression<String> mainPhone = ownerRoot.get("mainPhoneDigits");
+        Expression<String> optionalPhone = ownerRoot.get("optionalPhoneDigits");
+
+        Expression<Integer> rank = cb.<Integer>selectCase()
+                .when(cb.equal(mainPhone, phoneDigits), 0)
+                .when(cb.equal(optionalPhone, phoneDigits), 1)
+                .when(cb.like(mainPhone, startsWith(phoneDigits), ESCAPE_CHAR), 2)
+                .otherwise(3);
+
+        cq.select(ownerRoot)
+                .where(cb.or(
+                        cb.like(mainPhone, contains(phoneDigits), ESCAPE_CHAR),
+                        cb.like(optionalPhone, contains(phoneDigits), ESCAPE_CHAR)))
+                .orderBy(cb.asc(rank), cb.asc(ownerRoot.get("lastName")), cb.asc(ownerRoot.get("id")));
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Owner> findOwnersByNamePrefix(String namePrefix, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Owner> cq = cb.createQuery(Owner.class);
+        Root<Owner> ownerRoot = cq.from(Owner.class);
+        Expression<String> lastName = cb.lower(ownerRoot.get("lastName"));
+        Expression<String> firstName = cb.lower(ownerRoot.get("firstName"));
+
+        cq.select(ownerRoot)
+                .where(cb.or(
+                        cb.like(lastName, startsWith(namePrefix), ESCAPE_CHAR),
+                        cb.like(firstName, startsWith(namePrefix), ESCAPE_CHAR)))
+                .orderBy(cb.asc(lastName), cb.asc(firstName), cb.asc(ownerRoot.get("id")));
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Owner> findOwnersByPhonePrefix(String phoneDigitsPrefix, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Owner> cq = cb.createQuery(Owner.class);
+        Root<Owner> ownerRoot = cq.from(Owner.class);
+        Expression<String> mainPhone = ownerRoot.get("mainPhoneDigits");
+        Expression<String> optionalPhone = ownerRoot.get("optionalPhoneDigits");
+
+        cq.select(ownerRoot)
+                .where(cb.or(
+                        cb.like(mainPhone, startsWith(phoneDigitsPrefix), ESCAPE_CHAR),
+                        cb.like(optionalPhone, startsWith(phoneDigitsPrefix), ESCAPE_CHAR)))
+                .orderBy(cb.asc(mainPhone), cb.asc(ownerRoot.get("id")));
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String contains(String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    private static String startsWith(String value) {
+        return escape(value) + "%";
+    }
+
+    private static String escape(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -1,8 +1,10 @@
 package ru.modgy.owner.service;
 
+import org.springframework.data.domain.Page;
 import ru.modgy.owner.controller.SearchDirection;
 import ru.modgy.owner.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -61,6 +63,28 @@ public interface OwnerService {
      */
     Collection<OwnerDto> getAllOwners(Long requesterId);
 
+    /**
+     * Получение страницы клиентов (хозяев питомцев), начиная с последних зарегистрированных
+     *
+     * @param requesterId - id пользователя, направляющего запрос
+     * @param page        - номер страницы (с 0)
+     * @param size        - размер страницы
+     * @return страница клиентов (хозяев питомцев) с питомцами
+     */
+    Page<OwnerDto> getOwnersPage(Long requesterId, int page, int size);
+
+    /**
+     * Получение следующей порции клиентов (хозяев питомцев) после курсора (дата регистрации, id),
+     * начиная с последних зарегистрированных
+     *
+     * @param requesterId           - id пользователя, направляющего запрос
+     * @param afterRegistrationDate - дата регистрации последнего полученного клиента, если null - с начала списка
+     * @param afterId               - id последнего полученного клиента
+     * @param size                  - размер порции
+     * @return порция клиентов и курсор для запроса следующей порции (null, если клиентов больше нет)
+     */
+    OwnerKeysetPageDto getOwnersAfter(Long requesterId, LocalDateTime afterRegistrationDate, Long afterId, int size);
+
     /**
      * Удаление по id информации о клиенте (хозяине питомца)
      *
@@ -84,7 +108,20 @@ public interface OwnerService {
      * @param requesterId    - id пользователя, направляющего запрос
      * @param searchOwnerDto - искомые данные
      * @param searchDirection - направление поиска: Direction.name - ФИО, Direction.phone - номер телефона
-     * @return список найденных клиентов(хозяев питомцев )
+     * @param limit          - максимальное количество результатов
+     * @return список найденных клиентов(хозяев питомцев ), наиболее точные совпадения - первыми
+     */
+    Collection<OwnerDto> searchOwner(Long requesterId, SearchOwnerDto searchOwnerDto, SearchDirection searchDirection,
+                                     int limit);
+
+    /**
+     * Подсказка при вводе: клиенты(хозяева питомцев), у которых фамилия, имя или номер телефона
+     * начинаются с введенной строки
+     *
+     * @param requesterId - id пользователя, направляющего запрос
+     * @param prefix      - начало фамилии, имени или номера телефона
+     * @param limit       - максимальное количество подсказок
+     * @return список кратких данных о найденных клиентах
      */
-    Collection<OwnerDto> searchOwner(Long requesterId, SearchOwnerDto searchOwnerDto, SearchDirection searchDirection);
+    Collection<OwnerShortDto> getOwnersByPrefix(Long requesterId, String prefix, int limit);
 }
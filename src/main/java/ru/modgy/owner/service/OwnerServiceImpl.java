@@ -3,6 +3,7 @@ package ru.modgy.owner.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -16,10 +17,16 @@ import ru.modgy.owner.model.Owner;
 import ru.modgy.owner.repository.OwnerRepository;
 import ru.modgy.utility.EntityService;
 import ru.modgy.utility.PhoneFormatMapper;
-import ru.modgy.utility.UpdateField;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static java.time.LocalDateTime.now;
 
@@ -27,6 +34,7 @@ import static java.time.LocalDateTime.now;
 @Service
 @RequiredArgsConstructor
 public class OwnerServiceImpl implements OwnerService {
+    private static final Pattern PHONE_PREFIX = Pattern.compile("\\+?\\d[\\d\\s()-]*");
     private final OwnerRepository ownerRepository;
     private final OwnerMapper ownerMapper;
     private final EntityService entityService;
@@ -71,28 +79,12 @@ public class OwnerServiceImpl implements OwnerService {
     @Transactional
     @Override
     public OwnerDto updateOwner(Long requesterId, Long ownerId, UpdateOwnerDto updateOwnerDto) {
-        Owner oldOwner = entityService.getOwnerIfExists(ownerId);
-        Owner newOwner = ownerMapper.toOwner(updateOwnerDto);
-        newOwner.setId(ownerId);
-        newOwner.setRegistrationDate(oldOwner.getRegistrationDate());
-
-        newOwner.setLastName(UpdateField.stringField(oldOwner.getLastName(), newOwner.getLastName()));
-        newOwner.setFirstName(UpdateField.stringField(oldOwner.getFirstName(), newOwner.getFirstName()));
-        newOwner.setMiddleName(UpdateField.stringField(oldOwner.getMiddleName(), newOwner.getMiddleName()));
-        newOwner.setMainPhone(UpdateField.stringField(oldOwner.getMainPhone(), newOwner.getMainPhone()));
-        newOwner.setOptionalPhone(UpdateField.stringField(oldOwner.getOptionalPhone(), newOwner.getOptionalPhone()));
-        newOwner.setOtherContacts(UpdateField.stringField(oldOwner.getOtherContacts(), newOwner.getOtherContacts()));
-        newOwner.setActualAddress(UpdateField.stringField(oldOwner.getActualAddress(), newOwner.getActualAddress()));
-        newOwner.setTrustedMan(UpdateField.stringField(oldOwner.getTrustedMan(), newOwner.getTrustedMan()));
-        newOwner.setSource(UpdateField.stringField(oldOwner.getSource(), newOwner.getSource()));
-        newOwner.setComment(UpdateField.stringField(oldOwner.getComment(), newOwner.getComment()));
-        newOwner.setRating(UpdateField.intField(oldOwner.getRating(), newOwner.getRating()));
-
-        Owner updatedOwner = ownerRepository.save(newOwner);
-        log.info("ownerService: updateOwner, requesterId={}, old owner={}, updatedOwner={}",
-                requesterId, oldOwner, updatedOwner);
-
-        return ownerMapper.toOwnerDto(updatedOwner);
+        Owner owner = entityService.getOwnerIfExists(ownerId);
+        ownerMapper.updateOwner(updateOwnerDto, owner);
+        log.info("ownerService: updateOwner, requesterId={}, ownerId={}, updateOwnerDto={}",
+                requesterId, ownerId, updateOwnerDto);
+
+        return ownerMapper.toOwnerDto(owner);
     }
 
     @Transactional(readOnly = true)
@@ -104,6 +96,42 @@ public class OwnerServiceImpl implements OwnerService {
         return ownerMapper.map(allOwners);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Page<OwnerDto> getOwnersPage(Long requesterId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Long> ownerIds = ownerRepository.findOwnerIds(pageable);
+        List<OwnerDto> owners = getOwnersWithPets(ownerIds.getContent());
+
+        log.info("ownerService: getOwnersPage, requesterId={}, page={}, size={}, num of owners={}",
+                requesterId, page, size, owners.size());
+        return new PageImpl<>(owners, pageable, ownerIds.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public OwnerKeysetPageDto getOwnersAfter(Long requesterId, LocalDateTime afterRegistrationDate, Long afterId,
+                                             int size) {
+        Pageable limit = PageRequest.of(0, size);
+        List<Long> ownerIds;
+        if (afterRegistrationDate == null) {
+            ownerIds = ownerRepository.findFirstOwnerIds(limit);
+        } else {
+            ownerIds = ownerRepository.findOwnerIdsAfter(afterRegistrationDate, afterId, limit);
+        }
+        List<OwnerDto> owners = getOwnersWithPets(ownerIds);
+
+        OwnerKeysetPageDto keysetPageDto = OwnerKeysetPageDto.builder().owners(owners).build();
+        if (owners.size() == size) {
+            OwnerDto lastOwner = owners.get(owners.size() - 1);
+            keysetPageDto.setNextRegistrationDate(lastOwner.getRegistrationDate());
+            keysetPageDto.setNextId(lastOwner.getId());
+        }
+        log.info("ownerService: getOwnersAfter, requesterId={}, afterRegistrationDate={}, afterId={}, size={}, " +
+                "num of owners={}", requesterId, afterRegistrationDate, afterId, size, owners.size());
+        return keysetPageDto;
+    }
+
     @Transactional
     @Override
     public void deleteOwnerById(Long requesterId, Long ownerId) {
@@ -127,13 +155,82 @@ public class OwnerServiceImpl implements OwnerService {
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<OwnerDto> searchOwner(Long requesterId, SearchOwnerDto searchOwnerDto, SearchDirection searchDirection) {
-        String searchLine = searchOwnerDto.getWanted();
-        List<Owner> foundOwners = ownerRepository.searchOwner(searchLine, searchDirection.getTitle());
+    public Collection<OwnerDto> searchOwner(Long requesterId, SearchOwnerDto searchOwnerDto,
+                                            SearchDirection searchDirection, int limit) {
+        String searchLine = Objects.requireNonNullElse(searchOwnerDto.getWanted(), "");
+        List<Owner> foundOwners = switch (searchDirection) {
+            case NAME -> {
+                List<String> words = toSearchWords(searchLine);
+                yield words.isEmpty() ? List.of() : ownerRepository.searchOwnersByName(words, limit);
+            }
+            case PHONE -> {
+                String phoneDigits = toSearchPhoneDigits(searchLine);
+                yield phoneDigits.isEmpty() ? List.of() : ownerRepository.searchOwnersByPhone(phoneDigits, limit);
+            }
+        };
 
         log.info("ownerService: searchOwner, requesterId={}, searchOwnerDto={}, direction={}, num foundOwners={}",
                 requesterId,searchOwnerDto, searchDirection, foundOwners.size());
 
         return ownerMapper.map(foundOwners);
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<OwnerShortDto> getOwnersByPrefix(Long requesterId, String prefix, int limit) {
+        List<Owner> foundOwners;
+        if (PHONE_PREFIX.matcher(prefix).matches()) {
+            foundOwners = ownerRepository.findOwnersByPhonePrefix(toPhoneDigitsPrefix(prefix), limit);
+        } else {
+            List<String> words = toSearchWords(prefix);
+            foundOwners = words.isEmpty() ? List.of() : ownerRepository.findOwnersByNamePrefix(words.get(0), limit);
+        }
+
+        log.info("ownerService: getOwnersByPrefix, requesterId={}, prefix={}, num foundOwners={}",
+                requesterId, prefix, foundOwners.size());
+        return ownerMapper.shortMap(foundOwners);
+    }
+
+    private List<String> toSearchWords(String searchLine) {
+        return Arrays.stream(searchLine.trim().toLowerCase().split("\\s+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /*
+     * Номера хранятся в формате +7XXXXXXXXXX, поэтому полный номер, набранный через 8, приводится к 7.
+     */
+    private String toSearchPhoneDigits(String searchLine) {
+        String digits = PhoneFormatMapper.toDigits(searchLine);
+        if (digits.length() == 11 && digits.startsWith("8")) {
+            return "7" + digits.substring(1);
+        }
+        return digits;
+    }
+
+    /*
+     * Номер при вводе набирается с начала: через +7, через 8 или сразу с кода оператора (города).
+     */
+    private String toPhoneDigitsPrefix(String prefix) {
+        String digits = PhoneFormatMapper.toDigits(prefix);
+        if (digits.startsWith("8")) {
+            return "7" + digits.substring(1);
+        }
+        if (digits.startsWith("7")) {
+            return digits;
+        }
+        return "7" + digits;
+    }
+
+    private List<OwnerDto> getOwnersWithPets(List<Long> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Owner> ownersById = ownerRepository.findAllWithPetsByIdIn(ownerIds).stream()
+                .collect(Collectors.toMap(Owner::getId, Function.identity()));
+        return ownerIds.stream()
+                .map(ownersById::get)
+                .map(ownerMapper::toOwnerDto)
+                .toList();
+    }
 }
@@ -10,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.modgy.pet.dto.NewPetDto;
 import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.pet.dto.UpdatePetDto;
 import ru.modgy.pet.service.PetService;
 import ru.modgy.utility.UtilityService;
@@ -41,13 +42,14 @@ public class PetController {
     }
 
     @GetMapping("/search")
-    public Page<PetDto> getPetsBySearch(
+    public Page<PetSummaryDto> getPetsBySearch(
             @RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
             @RequestParam(required = false) String text,
             @PositiveOrZero
             @RequestParam(defaultValue = "0") Integer page,
             @Positive
-            @RequestParam(defaultValue = "10") Integer size) {
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(value = UtilityService.EXPAND_PARAM, required = false) String expand) {
         utilityService.checkBossAdminAccess(requesterId);
         log.info("PetController: GET/getPetsBySearch, requesterId={}, text={}, page={}, size={}", requesterId,
                 text, page, size);
@@ -55,7 +57,8 @@ public class PetController {
                 requesterId,
                 text,
                 page,
-                size);
+                size,
+                UtilityService.EXPAND_DETAILS.equals(expand));
     }
 
     @PatchMapping("/{id}")
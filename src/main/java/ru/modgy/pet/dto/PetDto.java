@@ -2,10 +2,9 @@ package ru.modgy.pet.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
-import ru.modgy.owner.dto.OwnerShortDto;
+import lombok.experimental.SuperBuilder;
 import ru.modgy.booking.dto.BookingForPetDto;
 import ru.modgy.pet.model.Sex;
-import ru.modgy.pet.model.TypeOfPet;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,17 +13,10 @@ import java.util.List;
 
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
-@Builder
-@ToString
-public class PetDto {
-    private long id;
-    private OwnerShortDto ownerShortDto;
-    @JsonFormat(shape = JsonFormat.Shape.STRING)
-    private TypeOfPet type; // вид животного
-    private String name;
-    private String breed; // порода
+@SuperBuilder
+@ToString(callSuper = true)
+public class PetDto extends PetSummaryDto {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd.MM.yyyy")
     private LocalDate birthDate;
     private String age;
@@ -99,7 +91,7 @@ public class PetDto {
     }
 
     public int compareTo(PetDto other) {
-        return this.name.compareTo(other.name);
+        return getName().compareTo(other.getName());
     }
 
 }
\ No newline at end of file
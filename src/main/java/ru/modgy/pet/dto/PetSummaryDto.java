@@ -0,0 +1,21 @@
+package ru.modgy.pet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import ru.modgy.owner.dto.OwnerShortDto;
+import ru.modgy.pet.model.TypeOfPet;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+@ToString
+public class PetSummaryDto {
+    private long id;
+    private OwnerShortDto ownerShortDto;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private TypeOfPet type; // вид животного
+    private String name;
+    private String breed; // порода
+}
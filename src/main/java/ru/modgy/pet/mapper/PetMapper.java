@@ -1,13 +1,19 @@
 package ru.modgy.pet.mapper;
 
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Condition;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.modgy.pet.dto.NewPetDto;
 import ru.modgy.pet.dto.PetDto;
 import ru.modgy.pet.dto.PetDtoForOwner;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.pet.dto.UpdatePetDto;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.PetSummary;
 
 import java.time.LocalDate;
 import java.time.Period;
@@ -23,6 +29,15 @@ public interface PetMapper {
     @Mapping(target = "bookings", conditionQualifiedByName = {"BookingMapper"})
     PetDto toPetDto(Pet pet);
 
+    @Mapping(source = "ownerId", target = "ownerShortDto.id")
+    @Mapping(source = "ownerLastName", target = "ownerShortDto.lastName")
+    @Mapping(source = "ownerFirstName", target = "ownerShortDto.firstName")
+    @Mapping(source = "ownerMiddleName", target = "ownerShortDto.middleName")
+    @Mapping(source = "ownerMainPhone", target = "ownerShortDto.mainPhone")
+    @Mapping(source = "ownerOptionalPhone", target = "ownerShortDto.optionalPhone")
+    @Mapping(source = "ownerRegistrationDate", target = "ownerShortDto.registrationDate")
+    PetSummaryDto toPetSummaryDto(PetSummary petSummary);
+
     @Named("calculateAge")
     default String calculateAge(LocalDate birthDate) {
         LocalDate now = LocalDate.now();
@@ -44,14 +59,34 @@ public interface PetMapper {
     }
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "registrationDate", ignore = true)
     @Mapping(target = "bookings", ignore = true)
     Pet toPet(NewPetDto newPetDto);
 
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "owner", ignore = true)
     @Mapping(target = "bookings", ignore = true)
-    Pet toPet(UpdatePetDto updatePetDto);
+    @Mapping(target = "registrationDate", ignore = true)
+    void updatePet(UpdatePetDto updatePetDto, @MappingTarget Pet pet);
+
+    /*
+     * При обновлении питомца пустая строка, как и null, оставляет поле без изменений.
+     * Условие применяется только в методах с параметром UpdatePetDto.
+     */
+    @Condition
+    default boolean isNotBlank(String value, UpdatePetDto updatePetDto) {
+        return value != null && !value.isBlank();
+    }
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "owner", ignore = true)
     @Mapping(target = "bookings", ignore = true)
+    Pet toPet(PetDto petDto);
+
     Set<Pet> toPet(Collection<PetDto> pets);
 
     List<PetDto> toListPetDto(List<Pet> pets);
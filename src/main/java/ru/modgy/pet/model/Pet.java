@@ -3,6 +3,7 @@ package ru.modgy.pet.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.modgy.owner.model.Owner;
 import ru.modgy.booking.model.Booking;
 
@@ -14,15 +15,20 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@DynamicUpdate
 @ToString
-@Table(name = "pets")
+@Table(name = "pets", indexes = @Index(name = "idx_pets_owner", columnList = "owner_id_pets"))
 @NoArgsConstructor
 @AllArgsConstructor
 public class Pet {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pets_seq")
+    @SequenceGenerator(name = "pets_seq", sequenceName = "pets_seq", allocationSize = 50)
     @Column(name = "id_pets")
     private long id;
+    @Version
+    @Column(name = "version_pets", nullable = false)
+    private Long version;
     @ManyToOne()
     @JoinColumn(name = "owner_id_pets", nullable = false)
     @ToString.Exclude
@@ -148,6 +154,7 @@ public class Pet {
             joinColumns = @JoinColumn(name = "id_pets"),
             inverseJoinColumns = @JoinColumn(name = "id_bookings")
     )
+    @ToString.Exclude
     private List<Booking> bookings;
 }
 
@@ -0,0 +1,16 @@
+package ru.modgy.pet.model;
+
+import java.time.LocalDateTime;
+
+public record PetSummary(Long id,
+                         TypeOfPet type,
+                         String name,
+                         String breed,
+                         Long ownerId,
+                         String ownerLastName,
+                         String ownerFirstName,
+                         String ownerMiddleName,
+                         String ownerMainPhone,
+                         String ownerOptionalPhone,
+                         LocalDateTime ownerRegistrationDate) {
+}
@@ -1,8 +1,12 @@
 package ru.modgy.pet.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.PetSummary;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,15 @@ public interface PetRepository extends JpaRepository<Pet, Long>, SearchPetReposi
     Integer deletePetById(Long id);
 
     Optional<List<Pet>> findAllByIdIn(List<Long> petIds);
+
+    @Query("SELECT DISTINCT p FROM Pet p JOIN FETCH p.owner " +
+           "LEFT JOIN FETCH p.bookings pb LEFT JOIN FETCH pb.room " +
+           "WHERE p.id IN :petIds")
+    List<Pet> findAllWithOwnerAndBookingsByIdIn(@Param("petIds") Collection<Long> petIds);
+
+    @Query("SELECT new ru.modgy.pet.model.PetSummary(p.id, p.type, p.name, p.breed, " +
+           "o.id, o.lastName, o.firstName, o.middleName, o.mainPhone, o.optionalPhone, o.registrationDate) " +
+           "FROM Pet p JOIN p.owner o " +
+           "WHERE p.id IN :petIds")
+    List<PetSummary> findSummariesByIdIn(@Param("petIds") Collection<Long> petIds);
 }
@@ -1,10 +1,9 @@
 package ru.modgy.pet.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import ru.modgy.pet.dto.PetFilterParams;
-import ru.modgy.pet.model.Pet;
-
-import java.util.List;
 
 public interface SearchPetRepository {
-    List<Pet> findAllPetsByParams(PetFilterParams params);
+    Page<Long> findPetIdsByParams(PetFilterParams params, Pageable pageable);
 }
@@ -2,31 +2,58 @@ package ru.modgy.pet.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import ru.modgy.pet.dto.PetFilterParams;
 import ru.modgy.pet.model.Pet;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
 public class SearchPetRepositoryImpl implements SearchPetRepository {
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
-    public List<Pet> findAllPetsByParams(PetFilterParams params) {
+    public Page<Long> findPetIdsByParams(PetFilterParams params, Pageable pageable) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Pet> cq = cb.createQuery(Pet.class);
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
         Root<Pet> petRoot = cq.from(Pet.class);
 
-        String searchValue = ("%" + params.getName() + "%").toLowerCase();
-
-        cq.select(petRoot).where(cb.like(cb.lower(petRoot.get("name")), searchValue));
-        return entityManager.createQuery(cq)
+        cq.select(petRoot.get("id"))
+                .where(getPredicates(cb, petRoot, params))
+                .orderBy(toOrders(pageable.getSort(), petRoot, cb));
+        List<Long> petIds = entityManager.createQuery(cq)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
                 .getResultList();
+
+        return PageableExecutionUtils.getPage(petIds, pageable, () -> countPetsByParams(params));
     }
 
+    private long countPetsByParams(PetFilterParams params) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Pet> petRoot = cq.from(Pet.class);
+
+        cq.select(cb.count(petRoot)).where(getPredicates(cb, petRoot, params));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
 
+    private Predicate[] getPredicates(CriteriaBuilder cb, Root<Pet> petRoot, PetFilterParams params) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (params.getName() != null) {
+            String searchValue = ("%" + params.getName() + "%").toLowerCase();
+            predicates.add(cb.like(cb.lower(petRoot.get("name")), searchValue));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
 }
@@ -2,6 +2,7 @@ package ru.modgy.pet.service;
 
 import ru.modgy.pet.dto.NewPetDto;
 import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.pet.dto.UpdatePetDto;
 
 import org.springframework.data.domain.Page;
@@ -15,5 +16,6 @@ public interface PetService {
 
     void deletePetById(Long requesterId, Long petId);
 
-    Page<PetDto> getPetsBySearch(Long requesterId, String text, Integer page, Integer size);
+    Page<PetSummaryDto> getPetsBySearch(Long requesterId, String text, Integer page, Integer size,
+                                        boolean expandPetDetails);
 }
\ No newline at end of file
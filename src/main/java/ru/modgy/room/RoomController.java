@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.modgy.room.dto.AvailableRoomsDto;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.room.dto.UpdateRoomDto;
@@ -57,10 +59,15 @@ public class RoomController {
 
     @GetMapping
     public Collection<RoomDto> getAllRooms(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
-                                           @RequestParam("isVisible") Boolean isVisible) {
+                                           @RequestParam("isVisible") Boolean isVisible,
+                                           WebRequest webRequest) {
         utilityService.checkBossAdminFinancialAccess(requesterId);
         log.info("RoomController: GET/getAllRooms, requesterId={}", requesterId);
         utilityService.checkBossAdminFinancialAccess(requesterId);
+        String eTag = roomService.getAllRoomsETag(requesterId, isVisible);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         return roomService.getAllRooms(requesterId, isVisible);
     }
 
@@ -106,6 +113,19 @@ public class RoomController {
         return roomService.getAvailableRoomsByCategoryInDates(requesterId, catId, checkInDate, checkOutDate);
     }
 
+    @GetMapping("/available")
+    public List<AvailableRoomsDto> searchAvailableRooms(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+                                                        @RequestParam("checkInDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkInDate,
+                                                        @RequestParam("checkOutDate") @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate checkOutDate,
+                                                        @RequestParam(value = "categoryIds", required = false) List<Long> categoryIds,
+                                                        @RequestParam(value = "minArea", required = false) Double minArea) {
+        log.info("RoomController: GET/searchAvailableRooms, " +
+                        "requesterId={}, checkInDate={}, checkOutDate={}, categoryIds={}, minArea={}",
+                requesterId, checkInDate, checkOutDate, categoryIds, minArea);
+        utilityService.checkBossAdminAccess(requesterId);
+        return roomService.searchAvailableRooms(requesterId, checkInDate, checkOutDate, categoryIds, minArea);
+    }
+
     @GetMapping("/checkUniqueNumber")
     public boolean checkUniqueRoomNumber(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
                                          @RequestParam String roomNumber) {
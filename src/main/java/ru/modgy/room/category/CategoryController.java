@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.modgy.room.category.dto.CategoryDto;
 import ru.modgy.room.category.dto.NewCategoryDto;
 import ru.modgy.room.category.dto.UpdateCategoryDto;
@@ -50,9 +51,14 @@ public class CategoryController {
     }
 
     @GetMapping
-    public Collection<CategoryDto> getAllCategories(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId) {
+    public Collection<CategoryDto> getAllCategories(@RequestHeader(UtilityService.REQUESTER_ID_HEADER) Long requesterId,
+                                                    WebRequest webRequest) {
         utilityService.checkBossAdminAccess(requesterId);
         log.info("CategoryController: GET/getAllCategories, requesterId={}", requesterId);
+        String eTag = categoryService.getAllCategoriesETag(requesterId);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         return categoryService.getAllCategories(requesterId);
     }
 
@@ -14,10 +14,15 @@ public interface CategoryMapper {
     CategoryDto toCategoryDto(Category category);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Category toCategory(CategoryDto categoryDto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Category toCategory(NewCategoryDto newCategoryDto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Category toCategory(UpdateCategoryDto updateCategoryDto);
 
     List<CategoryDto> toCategoryDto(List<Category> categories);
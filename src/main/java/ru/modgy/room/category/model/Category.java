@@ -2,20 +2,28 @@ package ru.modgy.room.category.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Builder
 @Getter
 @Setter
 @ToString
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Table(name = "categories")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     @Column(name = "id_categories")
     private Long id;
+    @Version
+    @Column(name = "version_categories", nullable = false)
+    private Long version;
     @Column(name = "name_categories", nullable = false)
     private String name;
     @Column(name = "description_categories")
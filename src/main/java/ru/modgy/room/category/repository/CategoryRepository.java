@@ -1,8 +1,12 @@
 package ru.modgy.room.category.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.modgy.room.category.model.Category;
+import ru.modgy.utility.etag.VersionStamp;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,7 +15,12 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     int deleteCategoryById(Long id);
 
     int countAllByName(String name);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Category c " +
             "ORDER BY c.name")
     Optional<List<Category>> findAllOrderByNameAsc();
+
+    @Query("SELECT new ru.modgy.utility.etag.VersionStamp(COUNT(c), SUM(c.id), SUM(c.version)) FROM Category c")
+    VersionStamp getAllCategoriesVersionStamp();
 }
@@ -43,6 +43,14 @@ public interface CategoryService {
      */
     Collection<CategoryDto> getAllCategories(Long userId);
 
+    /**
+     * ETag списка категорий по версиям категорий, вычисляется без загрузки сущностей
+     *
+     * @param userId - id пользователя, направляющего запрос
+     * @return ETag списка категорий
+     */
+    String getAllCategoriesETag(Long userId);
+
     /**
      * Удаление по id информации о номере
      *
@@ -12,6 +12,7 @@ import ru.modgy.room.category.dto.mapper.CategoryMapper;
 import ru.modgy.room.category.model.Category;
 import ru.modgy.room.category.repository.CategoryRepository;
 import ru.modgy.utility.EntityService;
+import ru.modgy.utility.etag.VersionStamp;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -41,6 +42,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category oldCategory = entityService.getCategoryIfExists(catId);
         Category newCategory = categoryMapper.toCategory(updateCategoryDto);
         newCategory.setId(oldCategory.getId());
+        newCategory.setVersion(oldCategory.getVersion());
 
         if (Objects.isNull(newCategory.getName())) {
             newCategory.setName(oldCategory.getName());
@@ -73,6 +75,14 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryMapper.toCategoryDto(allCategories);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getAllCategoriesETag(Long userId) {
+        String eTag = VersionStamp.toETag(categoryRepository.getAllCategoriesVersionStamp());
+        log.info("CategoryService: getAllCategoriesETag, userId={}, eTag={}", userId, eTag);
+        return eTag;
+    }
+
     @Transactional
     @Override
     public void deleteCategoryById(Long userId, Long catId) {
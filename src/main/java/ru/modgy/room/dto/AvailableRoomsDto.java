@@ -0,0 +1,18 @@
+package ru.modgy.room.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.modgy.room.category.dto.CategoryDto;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableRoomsDto {
+    private CategoryDto categoryDto;
+    private List<RoomDto> rooms;
+}
@@ -1,7 +1,10 @@
 package ru.modgy.room.dto.mapper;
 
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.modgy.room.category.dto.mapper.CategoryMapper;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
@@ -16,17 +19,21 @@ public interface RoomMapper {
     RoomDto toRoomDto(Room room);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(source = "roomDto.categoryDto", target = "category")
     Room toRoom(RoomDto roomDto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "category", ignore = true)
     Room toRoom(NewRoomDto newRoomDto);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "isVisible", ignore = true)
-    Room toRoom(UpdateRoomDto roomDto);
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void updateRoom(UpdateRoomDto roomDto, @MappingTarget Room room);
 
     List<RoomDto> toListRoomDto(List<Room> rooms);
 }
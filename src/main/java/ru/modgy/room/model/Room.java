@@ -2,6 +2,10 @@ package ru.modgy.room.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.modgy.analytics.service.RoomStatsListener;
 import ru.modgy.room.category.model.Category;
 
 @Builder
@@ -9,14 +13,22 @@ import ru.modgy.room.category.model.Category;
 @Setter
 @ToString
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rooms")
+@DynamicUpdate
 @Table(name = "rooms")
+@EntityListeners(RoomStatsListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Room {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rooms_seq")
+    @SequenceGenerator(name = "rooms_seq", sequenceName = "rooms_seq", allocationSize = 50)
     @Column(name = "id_rooms")
     private Long id;
+    @Version
+    @Column(name = "version_rooms", nullable = false)
+    private Long version;
     @Column(name = "number_rooms", nullable = false)
     private String number;
     @Column(name = "area_rooms")
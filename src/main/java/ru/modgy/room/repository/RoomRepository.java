@@ -1,30 +1,55 @@
 package ru.modgy.room.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.modgy.analytics.model.RoomCategoryLink;
 import ru.modgy.room.model.Room;
+import ru.modgy.utility.etag.VersionStamp;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT r FROM Room r " +
             "WHERE (r.isVisible = :isVisible) " +
             "ORDER BY r.category.name, r.number")
     Optional<List<Room>> getAllRooms(@Param("isVisible") Boolean isVisible);
 
+    @Query("SELECT new ru.modgy.utility.etag.VersionStamp(COUNT(r), SUM(r.id), " +
+            "SUM(r.version + COALESCE(c.version, 0))) " +
+            "FROM Room r LEFT JOIN r.category c WHERE r.isVisible = :isVisible")
+    VersionStamp getAllRoomsVersionStamp(@Param("isVisible") Boolean isVisible);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT r FROM Room r WHERE r.category.id = :categoryId AND " +
-            "r.isVisible = true AND " +
-            "r.id NOT IN (SELECT b.room.id FROM Booking b WHERE b.room.category.id = :categoryId AND " +
-            "b.status <> 'STATUS_CANCELLED' AND "+
-            "((b.checkInDate <= :checkInDate AND b.checkOutDate > :checkInDate) OR " +
-            "(b.checkInDate < :checkOutDate AND b.checkOutDate >= :checkOutDate) OR " +
-            "(b.checkInDate >= :checkInDate AND b.checkOutDate <= :checkOutDate)))")
-    Optional<List<Room>> findAvailableRoomsByCategoryInDates(@Param("categoryId") Long categoryId,
-                                                             @Param("checkInDate") LocalDate checkInDate,
-                                                             @Param("checkOutDate") LocalDate checkOutDate);
+            "r.isVisible = true " +
+            "ORDER BY r.number")
+    Optional<List<Room>> findVisibleRoomsByCategory(@Param("categoryId") Long categoryId);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT r FROM Room r WHERE r.category.id IN :categoryIds AND " +
+            "r.isVisible = true " +
+            "ORDER BY r.category.name, r.number")
+    List<Room> findVisibleRoomsByCategories(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    Optional<Room> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id IN :ids ORDER BY r.id")
+    List<Room> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.modgy.analytics.model.RoomCategoryLink(r.id, c.id) FROM Room r LEFT JOIN r.category c")
+    List<RoomCategoryLink> findAllRoomCategoryLinks();
 
     Integer deleteRoomById(Long id);
 
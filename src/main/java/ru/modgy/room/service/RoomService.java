@@ -1,5 +1,6 @@
 package ru.modgy.room.service;
 
+import ru.modgy.room.dto.AvailableRoomsDto;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.room.dto.UpdateRoomDto;
@@ -46,6 +47,15 @@ public interface RoomService {
      */
     Collection<RoomDto> getAllRooms(Long userId, Boolean isVisible);
 
+    /**
+     * ETag списка номеров по версиям номеров и их категорий, вычисляется без загрузки сущностей
+     *
+     * @param userId    - id пользователя, направляющего запрос
+     * @param isVisible - видимость номера (отражается ли он в списках для пользователей ПО).
+     * @return ETag списка номеров
+     */
+    String getAllRoomsETag(Long userId, Boolean isVisible);
+
     /**
      * Изменение видимости (статуса отображения) номера на false, т.е. сокрытие номера
      *
@@ -83,6 +93,20 @@ public interface RoomService {
      */
     List<RoomDto> getAvailableRoomsByCategoryInDates(Long userId, Long catId, LocalDate checkInDate, LocalDate checkOutDate);
 
+    /**
+     * Поиск свободных в указанные даты номеров сразу по нескольким категориям
+     *
+     * @param userId       - id пользователя, направляющего запрос
+     * @param checkInDate  - дата заезда
+     * @param checkOutDate - дата выезда
+     * @param categoryIds  - id категорий номеров, пустой список или null - все категории
+     * @param minArea      - минимальная площадь номера, null - без ограничения
+     * @return свободные видимые номера, сгруппированные по категориям; категория, все номера которой заняты,
+     * возвращается с пустым списком номеров
+     */
+    List<AvailableRoomsDto> searchAvailableRooms(Long userId, LocalDate checkInDate, LocalDate checkOutDate,
+                                                 List<Long> categoryIds, Double minArea);
+
     /**
      * Проверка номера комнаты на уникальность.
      *
@@ -6,9 +6,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.modgy.booking.model.Booking;
 import ru.modgy.booking.repository.BookingRepository;
+import ru.modgy.booking.service.RoomOccupancyIndex;
 import ru.modgy.exception.ConflictException;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.room.category.model.Category;
+import ru.modgy.room.dto.AvailableRoomsDto;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.room.dto.UpdateRoomDto;
@@ -16,6 +18,8 @@ import ru.modgy.room.dto.mapper.RoomMapper;
 import ru.modgy.room.model.Room;
 import ru.modgy.room.repository.RoomRepository;
 import ru.modgy.utility.EntityService;
+import ru.modgy.utility.UtilityService;
+import ru.modgy.utility.etag.VersionStamp;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -28,6 +32,8 @@ public class RoomServiceImpl implements RoomService {
     private final RoomMapper roomMapper;
     private final BookingRepository bookingRepository;
     private final EntityService entityService;
+    private final RoomOccupancyIndex roomOccupancyIndex;
+    private final UtilityService utilityService;
 
     @Transactional
     @Override
@@ -53,32 +59,12 @@ public class RoomServiceImpl implements RoomService {
     @Transactional
     @Override
     public RoomDto updateRoom(Long userId, Long roomId, UpdateRoomDto updateRoomDto) {
-        Room oldRoom = entityService.getRoomIfExists(roomId);
-        Room newRoom = roomMapper.toRoom(updateRoomDto);
-        Category category;
+        Room room = entityService.getRoomIfExists(roomId);
+        roomMapper.updateRoom(updateRoomDto, room);
         if (updateRoomDto.getCategoryId() != null) {
-            category = entityService.getCategoryIfExists(updateRoomDto.getCategoryId());
-        } else {
-            category = oldRoom.getCategory();
-        }
-        newRoom.setId(roomId);
-        newRoom.setCategory(category);
-        newRoom.setIsVisible(oldRoom.getIsVisible());
-
-        if (Objects.isNull(newRoom.getCategory())) {
-            newRoom.setCategory(oldRoom.getCategory());
-        }
-
-        if (Objects.isNull(newRoom.getArea())) {
-            newRoom.setArea(oldRoom.getArea());
+            room.setCategory(entityService.getCategoryIfExists(updateRoomDto.getCategoryId()));
         }
-
-        if (Objects.isNull(newRoom.getNumber())) {
-            newRoom.setNumber(oldRoom.getNumber());
-        }
-
-        Room updatedRoom = roomRepository.save(newRoom);
-        RoomDto updatedRoomDto = roomMapper.toRoomDto(updatedRoom);
+        RoomDto updatedRoomDto = roomMapper.toRoomDto(room);
 
         log.info("RoomService: updateRoom, userId={}, roomId={}, roomDto={}", userId, roomId, updateRoomDto);
 
@@ -92,14 +78,20 @@ public class RoomServiceImpl implements RoomService {
         return roomMapper.toListRoomDto(allRooms);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getAllRoomsETag(Long userId, Boolean isVisible) {
+        String eTag = VersionStamp.toETag(roomRepository.getAllRoomsVersionStamp(isVisible));
+        log.info("RoomService: getAllRoomsETag, userId={}, isVisible={}, eTag={}", userId, isVisible, eTag);
+        return eTag;
+    }
+
     @Transactional
     @Override
     public RoomDto hideRoomById(Long userId, Long roomId) {
         Room room = entityService.getRoomIfExists(roomId);
 
-        List<Booking> futureBookings = bookingRepository.findFutureBookingsForRoom(roomId, LocalDate.now())
-                .orElse(Collections.emptyList());
-        if (futureBookings.isEmpty()) {
+        if (!hasFutureBookings(roomId)) {
             room.setIsVisible(false);
             roomRepository.save(room);
             log.info("RoomService: hideRoomById, userId={}, roomId={}", userId, roomId);
@@ -146,6 +138,37 @@ public class RoomServiceImpl implements RoomService {
         return roomMapper.toListRoomDto(foundRooms);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailableRoomsDto> searchAvailableRooms(Long userId, LocalDate checkInDate, LocalDate checkOutDate,
+                                                        List<Long> categoryIds, Double minArea) {
+        utilityService.checkDatesOfBooking(checkInDate, checkOutDate);
+        List<Room> rooms = (categoryIds == null || categoryIds.isEmpty())
+                ? roomRepository.getAllRooms(true).orElse(Collections.emptyList())
+                : roomRepository.findVisibleRoomsByCategories(categoryIds);
+        if (minArea != null) {
+            rooms = rooms.stream()
+                    .filter(room -> room.getArea() != null && room.getArea() >= minArea)
+                    .toList();
+        }
+        Set<Long> occupiedRoomIds = roomOccupancyIndex.findOccupiedRoomIds(
+                rooms.stream().map(Room::getId).toList(), checkInDate, checkOutDate);
+
+        Map<Long, AvailableRoomsDto> roomsByCategoryId = new LinkedHashMap<>();
+        for (RoomDto roomDto : roomMapper.toListRoomDto(rooms)) {
+            AvailableRoomsDto categoryRooms = roomsByCategoryId.computeIfAbsent(
+                    roomDto.getCategoryDto() == null ? null : roomDto.getCategoryDto().getId(),
+                    id -> new AvailableRoomsDto(roomDto.getCategoryDto(), new ArrayList<>()));
+            if (!occupiedRoomIds.contains(roomDto.getId())) {
+                categoryRooms.getRooms().add(roomDto);
+            }
+        }
+        log.info("RoomService: searchAvailableRooms, userId={}, checkInDate={}, checkOutDate={}, categoryIds={}, " +
+                        "num of rooms={}, num of available rooms={}", userId, checkInDate, checkOutDate, categoryIds,
+                rooms.size(), rooms.size() - occupiedRoomIds.size());
+        return new ArrayList<>(roomsByCategoryId.values());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public boolean checkUniqueRoomNumber(Long userId, String roomNumber) {
@@ -160,10 +183,28 @@ public class RoomServiceImpl implements RoomService {
         return isUnique;
     }
 
+    /*
+     * Индекс занятости содержит и бронирования типа закрытие, которые не мешают скрыть номер,
+     * поэтому к БД обращаемся, только если по битовой карте у номера есть незавершенные бронирования.
+     */
+    private boolean hasFutureBookings(Long roomId) {
+        LocalDate today = LocalDate.now();
+        if (!roomOccupancyIndex.hasBookingsFrom(roomId, today)) {
+            return false;
+        }
+        List<Booking> futureBookings = bookingRepository.findFutureBookingsForRoom(roomId, today)
+                .orElse(Collections.emptyList());
+        return !futureBookings.isEmpty();
+    }
+
     private List<Room> findAvailableRoomsByCategoryInDates(Long catId,
                                                            LocalDate checkInDate,
                                                            LocalDate checkOutDate) {
-        return roomRepository.findAvailableRoomsByCategoryInDates(catId, checkInDate, checkOutDate)
-                .orElse(Collections.emptyList());
+        List<Room> rooms = roomRepository.findVisibleRoomsByCategory(catId).orElse(Collections.emptyList());
+        Set<Long> occupiedRoomIds = roomOccupancyIndex.findOccupiedRoomIds(
+                rooms.stream().map(Room::getId).toList(), checkInDate, checkOutDate);
+        return rooms.stream()
+                .filter(room -> !occupiedRoomIds.contains(room.getId()))
+                .toList();
     }
 }
@@ -34,7 +34,7 @@ public class UserServiceImpl implements UserService {
     @Transactional(readOnly = true)
     @Override
     public List<UserDto> getAllUsers(Long requesterId, Boolean isActive) {
-        User requester = entityService.getUserIfExists(requesterId);
+        User requester = utilityService.getUserIfExists(requesterId);
 
         List<Roles> roles =
                 Arrays.asList(Roles.values()).subList(requester.getRole().ordinal(), Roles.values().length);
@@ -81,6 +81,7 @@ public class UserServiceImpl implements UserService {
         if (result == 0) {
             throw new NotFoundException(String.format("user with id=%d not found", userId));
         }
+        utilityService.evictUser(userId);
         log.info("UserService: deleteUserById, requesterId={} userId={}", requesterId, user);
     }
 
@@ -90,43 +91,24 @@ public class UserServiceImpl implements UserService {
         boolean updateBySelf = utilityService.checkRequesterRequestsHimself(requesterId, userId);
         User requester = entityService.getUserIfExists(requesterId);
 
-        User newUser = userMapper.toUser(updateUserDto);
-        newUser.setId(userId);
-        User oldUser;
+        User user;
 
         if (updateBySelf) {
-            oldUser = requester;
+            user = requester;
         } else {
-            utilityService.checkHigherOrdinalRoleAccessForUsers(requester, newUser);
-            oldUser = entityService.getUserIfExists(userId);
+            utilityService.checkHigherOrdinalRoleAccessForUsers(requester, updateUserDto.getRole());
+            user = entityService.getUserIfExists(userId);
         }
 
-        if (Objects.isNull(newUser.getLastName())) {
-            newUser.setLastName(oldUser.getLastName());
-        }
-        if (Objects.isNull(newUser.getFirstName())) {
-            newUser.setFirstName(oldUser.getFirstName());
-        }
-        if (Objects.isNull(newUser.getMiddleName())) {
-            newUser.setMiddleName(oldUser.getMiddleName());
-        }
-        if (Objects.isNull(newUser.getPassword())) {
-            newUser.setPassword(oldUser.getPassword());
-        }
-        if (Objects.isNull(newUser.getEmail())) {
-            newUser.setEmail(oldUser.getEmail());
+        userMapper.updateUser(updateUserDto, user);
+        if (!updateBySelf && updateUserDto.getRole() != null) {
+            user.setRole(updateUserDto.getRole());
         }
-        if (Objects.isNull(newUser.getRole()) || updateBySelf) {
-            newUser.setRole(oldUser.getRole());
-        }
-        if (Objects.isNull(newUser.getIsActive()) || updateBySelf) {
-            newUser.setIsActive(oldUser.getIsActive());
-        }
-        User updatedUser = userRepository.save(newUser);
+        utilityService.evictUser(userId);
         log.info("UserService: updateUser, requesterId={}, userId={}, to updateUserDto={}",
                 requesterId, userId, updateUserDto);
 
-        return userMapper.toUserDto(updatedUser);
+        return userMapper.toUserDto(user);
     }
 
     @Override
@@ -136,6 +118,7 @@ public class UserServiceImpl implements UserService {
         user.setIsActive(isActive);
 
         User updatedUser = userRepository.save(user);
+        utilityService.evictUser(userId);
         return userMapper.toUserDto(updatedUser);
     }
 }
@@ -10,6 +10,7 @@ import ru.modgy.exception.NotFoundException;
 import ru.modgy.owner.model.Owner;
 import ru.modgy.owner.repository.OwnerRepository;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.PetSummary;
 import ru.modgy.pet.repository.PetRepository;
 import ru.modgy.room.category.model.Category;
 import ru.modgy.room.category.repository.CategoryRepository;
@@ -18,6 +19,8 @@ import ru.modgy.room.repository.RoomRepository;
 import ru.modgy.user.model.User;
 import ru.modgy.user.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -51,6 +54,18 @@ public class EntityService {
                 new NotFoundException(String.format("Room with id=%d is not found", id)));
     }
 
+    public Room getRoomForUpdateIfExists(Long id) {
+        return roomRepository.findByIdForUpdate(id).orElseThrow(() ->
+                new NotFoundException(String.format("Room with id=%d is not found", id)));
+    }
+
+    public List<Room> getListOfRoomsForUpdateByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return roomRepository.findAllByIdInForUpdate(ids);
+    }
+
     public Pet getPetIfExists(Long petId) {
         return petRepository.findById(petId).orElseThrow(() ->
                 new NotFoundException(String.format("Pet with id=%d is not found", petId)));
@@ -65,4 +80,25 @@ public class EntityService {
         return petRepository.findAllByIdIn(petIds)
                 .orElseThrow(() -> new ConflictException("At least one id should be in list"));
     }
+
+    public List<Pet> getListOfPetsWithOwnersByIds(Collection<Long> petIds) {
+        if (petIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return petRepository.findAllWithOwnerAndBookingsByIdIn(petIds);
+    }
+
+    public List<PetSummary> getListOfPetSummariesByIds(Collection<Long> petIds) {
+        if (petIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return petRepository.findSummariesByIdIn(petIds);
+    }
+
+    public List<Room> getListOfVisibleRooms(Long categoryId) {
+        if (categoryId == null) {
+            return roomRepository.getAllRooms(true).orElse(Collections.emptyList());
+        }
+        return roomRepository.findVisibleRoomsByCategory(categoryId).orElse(Collections.emptyList());
+    }
 }
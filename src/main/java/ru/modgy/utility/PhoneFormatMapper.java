@@ -15,4 +15,12 @@ public interface PhoneFormatMapper {
         int length = clearNumber.length();
         return "+7" + clearNumber.substring(length - 10, length);
     }
+
+    @Named("toDigits")
+    static String toDigits(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        return phoneNumber.replaceAll("\\D", "");
+    }
 }
@@ -3,6 +3,8 @@ package ru.modgy.utility;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import ru.modgy.exception.AccessDeniedException;
 import ru.modgy.user.model.Roles;
 import ru.modgy.user.model.User;
@@ -10,14 +12,38 @@ import ru.modgy.user.model.User;
 import ru.modgy.exception.ConflictException;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UtilityService {
     public static final String REQUESTER_ID_HEADER = "X-PetHotel-User-Id";
+    public static final String EXPAND_PARAM = "expand";
+    public static final String EXPAND_DETAILS = "details";
+    private static final String USERS_CACHE_ATTRIBUTE = UtilityService.class.getName() + ".USERS";
     private final EntityService entityService;
 
+    /*
+     * Пользователи кешируются в атрибутах текущего HTTP-запроса, поэтому повторные проверки доступа
+     * в рамках одного запроса не обращаются к БД. Вне HTTP-запроса пользователь загружается каждый раз.
+     */
+    public User getUserIfExists(Long userId) {
+        Map<Long, User> users = getRequestUsersCache();
+        if (users == null) {
+            return entityService.getUserIfExists(userId);
+        }
+        return users.computeIfAbsent(userId, entityService::getUserIfExists);
+    }
+
+    public void evictUser(Long userId) {
+        Map<Long, User> users = getRequestUsersCache();
+        if (users != null) {
+            users.remove(userId);
+        }
+    }
+
     public void checkBossAdminAccess(User user) {
         if (user.getRole().ordinal() >= 2) {
             throw new AccessDeniedException(String.format("User with role=%s, can't access for this action",
@@ -26,7 +52,7 @@ public class UtilityService {
     }
 
     public void checkBossAdminAccess(Long userId) {
-        User user = entityService.getUserIfExists(userId);
+        User user = getUserIfExists(userId);
         checkBossAdminAccess(user);
     }
 
@@ -38,7 +64,7 @@ public class UtilityService {
     }
 
     public void checkBossAdminFinancialAccess(Long userId) {
-        User user = entityService.getUserIfExists(userId);
+        User user = getUserIfExists(userId);
         checkBossAdminFinancialAccess(user);
     }
 
@@ -50,7 +76,7 @@ public class UtilityService {
     }
 
     public void checkBossAccess(Long userId) {
-        User user = entityService.getUserIfExists(userId);
+        User user = getUserIfExists(userId);
         checkBossAccess(user);
     }
 
@@ -62,7 +88,7 @@ public class UtilityService {
     }
 
     public void checkHigherOrdinalRoleAccess(Long requesterId, Roles role) {
-        User requester = entityService.getUserIfExists(requesterId);
+        User requester = getUserIfExists(requesterId);
         checkHigherOrdinalRoleAccess(requester, role);
     }
 
@@ -82,18 +108,18 @@ public class UtilityService {
     }
 
     public void checkHigherOrdinalRoleAccessForUsers(Long requesterId, User user) {
-        User requester = entityService.getUserIfExists(requesterId);
+        User requester = getUserIfExists(requesterId);
         checkHigherOrdinalRoleAccessForUsers(requester, user.getRole());
     }
 
     public void checkHigherOrdinalRoleAccessForUsers(Long requesterId, Roles role) {
-        User requester = entityService.getUserIfExists(requesterId);
+        User requester = getUserIfExists(requesterId);
         checkHigherOrdinalRoleAccessForUsers(requester, role);
     }
 
     public void checkHigherOrdinalRoleAccessForUsers(Long requesterId, Long userId) {
-        User requester = entityService.getUserIfExists(requesterId);
-        User user = entityService.getUserIfExists(userId);
+        User requester = getUserIfExists(requesterId);
+        User user = getUserIfExists(userId);
         checkHigherOrdinalRoleAccessForUsers(requester, user);
     }
 
@@ -111,18 +137,18 @@ public class UtilityService {
     }
 
     public void checkHigherOrEqualOrdinalRoleAccessForUsers(Long requesterId, User user) {
-        User requester = entityService.getUserIfExists(requesterId);
+        User requester = getUserIfExists(requesterId);
         checkHigherOrEqualOrdinalRoleAccessForUsers(requester, user.getRole());
     }
 
     public void checkHigherOrEqualOrdinalRoleAccessForUsers(Long requesterId, Roles role) {
-        User requester = entityService.getUserIfExists(requesterId);
+        User requester = getUserIfExists(requesterId);
         checkHigherOrEqualOrdinalRoleAccessForUsers(requester, role);
     }
 
     public void checkHigherOrEqualOrdinalRoleAccessForUsers(Long requesterId, Long userId) {
-        User requester = entityService.getUserIfExists(requesterId);
-        User user = entityService.getUserIfExists(userId);
+        User requester = getUserIfExists(requesterId);
+        User user = getUserIfExists(userId);
         checkHigherOrEqualOrdinalRoleAccessForUsers(requester, user);
     }
 
@@ -136,4 +162,19 @@ public class UtilityService {
                     checkInDate, checkOutDate));
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, User> getRequestUsersCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, User> users = (Map<Long, User>) attributes.getAttribute(USERS_CACHE_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(USERS_CACHE_ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
 }
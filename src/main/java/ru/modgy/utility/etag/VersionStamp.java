@@ -0,0 +1,33 @@
+package ru.modgy.utility.etag;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Сводка версий набора записей, из которой строится ETag ответа.
+ * Версия записи при каждом изменении только растет, поэтому изменение записи меняет сумму версий,
+ * добавление или удаление записи - количество записей и сумму id.
+ *
+ * @param rows       - количество записей
+ * @param idSum      - сумма id записей
+ * @param versionSum - сумма версий записей
+ */
+public record VersionStamp(Long rows, Long idSum, Long versionSum) {
+    public boolean isEmpty() {
+        return rows == null || rows == 0;
+    }
+
+    /**
+     * Сильный ETag из сводок всех наборов записей, из которых собирается ответ
+     */
+    public static String toETag(VersionStamp... stamps) {
+        return Arrays.stream(stamps)
+                .map(stamp -> Long.toHexString(valueOf(stamp.rows())) + "-" + Long.toHexString(valueOf(stamp.idSum()))
+                        + "-" + Long.toHexString(valueOf(stamp.versionSum())))
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
+}
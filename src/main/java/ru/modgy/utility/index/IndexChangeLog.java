@@ -0,0 +1,102 @@
+package ru.modgy.utility.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Журнал изменений индекса в памяти в рамках текущей транзакции. Работает в одном из двух режимов:
+ * undoOnRollback - индекс меняется сразу, для каждого ключа запоминается значение до первого изменения
+ * в транзакции, при откате транзакции запомненные значения возвращаются в индекс;
+ * applyAfterCommit - для каждого ключа запоминается последнее новое значение, в индекс оно попадает
+ * только после фиксации транзакции, поэтому другие запросы не видят незафиксированных изменений.
+ * Вне транзакции изменения не запоминаются, в режиме applyAfterCommit новое значение записывается в индекс сразу.
+ *
+ * @param <K> - тип ключа индекса
+ * @param <V> - тип значения индекса, null - значения по ключу не было
+ */
+public final class IndexChangeLog<K, V> {
+    private final BiConsumer<K, V> write;
+    private final boolean afterCommit;
+
+    private IndexChangeLog(BiConsumer<K, V> write, boolean afterCommit) {
+        this.write = write;
+        this.afterCommit = afterCommit;
+    }
+
+    /**
+     * Журнал, возвращающий прежние значения индекса при откате транзакции
+     *
+     * @param restore - запись значения в индекс (значение null - удаление ключа из индекса)
+     */
+    public static <K, V> IndexChangeLog<K, V> undoOnRollback(BiConsumer<K, V> restore) {
+        return new IndexChangeLog<>(restore, false);
+    }
+
+    /**
+     * Журнал, откладывающий изменения индекса до фиксации транзакции
+     *
+     * @param apply - запись значения в индекс (значение null - удаление ключа из индекса)
+     */
+    public static <K, V> IndexChangeLog<K, V> applyAfterCommit(BiConsumer<K, V> apply) {
+        return new IndexChangeLog<>(apply, true);
+    }
+
+    /**
+     * Запоминание значения индекса: в режиме undoOnRollback - значения до изменения,
+     * в режиме applyAfterCommit - нового значения
+     *
+     * @param key   - ключ индекса
+     * @param value - значение, null - значения нет
+     */
+    @SuppressWarnings("unchecked")
+    public void record(K key, V value) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (afterCommit) {
+                write.accept(key, value);
+            }
+            return;
+        }
+        Map<K, Optional<V>> changes = (Map<K, Optional<V>>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new WriteOnCompletion(changes));
+        }
+        if (afterCommit) {
+            changes.put(key, Optional.ofNullable(value));
+        } else {
+            changes.putIfAbsent(key, Optional.ofNullable(value));
+        }
+    }
+
+    /*
+     * Отложенные изменения записываются в afterCommit, а не в afterCompletion: afterCommit выполняется
+     * раньше снятия блокировок номеров (RoomBookingLocks снимает их в afterCompletion),
+     * поэтому следующее бронирование номера уже видит изменения в индексе.
+     */
+    @RequiredArgsConstructor
+    private class WriteOnCompletion implements TransactionSynchronization {
+        private final Map<K, Optional<V>> changes;
+
+        @Override
+        public void afterCommit() {
+            if (afterCommit) {
+                changes.forEach((key, value) -> write.accept(key, value.orElse(null)));
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(IndexChangeLog.this);
+            if (!afterCommit && status != STATUS_COMMITTED) {
+                changes.forEach((key, previous) -> write.accept(key, previous.orElse(null)));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.modgy.utility.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Публикует для каждого HTTP-запроса количество SQL-запросов (hibernate.request.statements)
+ * и загруженных сущностей (hibernate.request.entity.loads) с тегами method и uri.
+ * Рост этих значений для одного и того же uri указывает на появление N+1.
+ * Счетчики хранятся в атрибуте запроса: для асинхронных запросов (StreamingResponseBody) значения
+ * публикуются при завершающем async-диспатче, когда выгрузка уже выполнена.
+ */
+@RequiredArgsConstructor
+public class HibernateRequestMetricsFilter extends OncePerRequestFilter {
+    private static final String COUNTERS_ATTRIBUTE = HibernateRequestMetricsFilter.class.getName() + ".counters";
+
+    private final HibernateRequestStatistics hibernateRequestStatistics;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        HibernateRequestStatistics.Counters counters =
+                (HibernateRequestStatistics.Counters) request.getAttribute(COUNTERS_ATTRIBUTE);
+        if (counters == null) {
+            counters = new HibernateRequestStatistics.Counters();
+            request.setAttribute(COUNTERS_ATTRIBUTE, counters);
+        }
+        HibernateRequestStatistics.Counters previous = hibernateRequestStatistics.bind(counters);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            hibernateRequestStatistics.bind(previous);
+            if (!isAsyncStarted(request)) {
+                recordCounters(request, counters);
+            }
+        }
+    }
+
+    private void recordCounters(HttpServletRequest request, HibernateRequestStatistics.Counters counters) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        record("hibernate.request.statements", request.getMethod(), uri, counters.getStatements());
+        record("hibernate.request.entity.loads", request.getMethod(), uri, counters.getEntityLoads());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private void record(String name, String method, String uri, long value) {
+        DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
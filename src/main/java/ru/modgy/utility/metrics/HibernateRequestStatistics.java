@@ -0,0 +1,120 @@
+package ru.modgy.utility.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики SQL-запросов и загруженных сущностей Hibernate в рамках одного HTTP-запроса.
+ * Подсчет ведется только в потоках, к которым привязаны счетчики запроса, поэтому параллельные запросы не смешиваются.
+ * Потоковая выгрузка (StreamingResponseBody) выполняется после возврата из контроллера в асинхронном исполнителе,
+ * счетчики переносятся в его поток через taskDecorator().
+ */
+@Component
+public class HibernateRequestStatistics implements HibernatePropertiesCustomizer, StatementInspector,
+        PostLoadEventListener {
+    private final ThreadLocal<Counters> counters = new ThreadLocal<>();
+
+    /**
+     * Привязка счетчиков запроса к текущему потоку
+     *
+     * @param requestCounters - счетчики запроса, null - отвязать счетчики от потока
+     * @return счетчики, которые были привязаны к потоку до вызова
+     */
+    public Counters bind(Counters requestCounters) {
+        Counters previous = counters.get();
+        if (requestCounters == null) {
+            counters.remove();
+        } else {
+            counters.set(requestCounters);
+        }
+        return previous;
+    }
+
+    /**
+     * Декоратор задач асинхронного исполнителя: задача считает запросы в счетчики HTTP-запроса,
+     * из потока которого она была запущена
+     */
+    public TaskDecorator taskDecorator() {
+        return task -> {
+            Counters requestCounters = counters.get();
+            if (requestCounters == null) {
+                return task;
+            }
+            return () -> {
+                Counters previous = bind(requestCounters);
+                try {
+                    task.run();
+                } finally {
+                    bind(previous);
+                }
+            };
+        };
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new Integrator() {
+            @Override
+            public void integrate(Metadata metadata,
+                                  BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor sessionFactory) {
+                sessionFactory.getServiceRegistry()
+                        .getService(EventListenerRegistry.class)
+                        .appendListeners(EventType.POST_LOAD, HibernateRequestStatistics.this);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                     SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        }));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counters current = counters.get();
+        if (current != null) {
+            current.statements.increment();
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counters current = counters.get();
+        if (current != null) {
+            current.entityLoads.increment();
+        }
+    }
+
+    public static class Counters {
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+
+        public long getStatements() {
+            return statements.sum();
+        }
+
+        public long getEntityLoads() {
+            return entityLoads.sum();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.modgy.utility.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public FilterRegistrationBean<HibernateRequestMetricsFilter> hibernateRequestMetricsFilter(
+            HibernateRequestStatistics hibernateRequestStatistics,
+            MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(
+                new HibernateRequestMetricsFilter(hibernateRequestStatistics, meterRegistry));
+    }
+
+    /**
+     * Декоратор задач applicationTaskExecutor, в котором Spring MVC выполняет StreamingResponseBody:
+     * запросы потоковой выгрузки учитываются в метриках HTTP-запроса, из которого она запущена.
+     */
+    @Bean
+    public TaskDecorator hibernateRequestStatisticsTaskDecorator(HibernateRequestStatistics hibernateRequestStatistics) {
+        return hibernateRequestStatistics.taskDecorator();
+    }
+
+    /**
+     * Статистика Hibernate, в том числе попадания и промахи кэша второго уровня по регионам
+     * (hibernate.second.level.cache.requests) и кэша запросов (hibernate.cache.query.requests).
+     */
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> HibernateMetrics.monitor(registry,
+                entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory");
+    }
+}
@@ -0,0 +1,41 @@
+package ru.modgy.utility.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Время выполнения, количество вызовов и ошибок всех методов *ServiceImpl.
+ * Метрика service.method с тегами class, method и exception (none - если вызов завершился без исключения).
+ * Вызовы репозиториев Spring Data измеряет Spring Boot (метрика spring.data.repository.invocations).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String METRIC_NAME = "service.method";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.modgy..*ServiceImpl.*(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
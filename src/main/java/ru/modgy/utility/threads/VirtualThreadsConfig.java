@@ -0,0 +1,73 @@
+package ru.modgy.utility.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка HTTP-запросов на виртуальных потоках, включается свойством modgy.threads.virtual.enabled=true
+ * и требует Java 21+. Каждый запрос, вместе с вызовами @Transactional-сервисов и потоковой выгрузкой
+ * (StreamingResponseBody), выполняется в собственном виртуальном потоке, поэтому число одновременных запросов
+ * не ограничено пулом потоков Tomcat. Одновременную работу с БД ограничивает пул соединений
+ * Hikari (spring.datasource.hikari.maximum-pool-size), он настраивается отдельно.
+ * Проект собирается под Java 17, поэтому исполнитель виртуальных потоков создается через MethodHandle.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "modgy.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+    static final int MIN_JAVA_VERSION = 21;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("VirtualThreadsConfig: requests are handled on virtual threads");
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /*
+     * Декоратор задач применяется так же, как к исполнителю, который создает TaskExecutionAutoConfiguration.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor,
+                                                     ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreadExecutor);
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < MIN_JAVA_VERSION) {
+            throw new IllegalStateException(String.format(
+                    "modgy.threads.virtual.enabled=true requires Java %d+, current Java version is %d",
+                    MIN_JAVA_VERSION, javaVersion));
+        }
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+-- Demo data for the local profile. Repeatable migration: runs after all versioned migrations and again
+-- whenever this file changes, so every insert is skipped when the row already exists
+-- (databases created by the pre-Flyway schema.sql already contain the same rows).
+-- Rows are looked up by natural keys; new ids are taken from the entity sequences that Hibernate allocates from,
+-- so demo rows never collide with ids handed out by the application.
+INSERT INTO owners (id_owners, first_name_owners, main_phone_owners, main_phone_digits_owners, registration_date_owners)
+SELECT nextval('owners_seq'), 'Иван', '89000000000000', '89000000000000', '2024-08-23T12:09:45.0037547'
+WHERE NOT EXISTS (SELECT 1 FROM owners WHERE main_phone_owners = '89000000000000');
+
+INSERT INTO pets (id_pets, owner_id_pets, birth_date_pets, breed_pets, name_pets, sex_pets, type_pets)
+SELECT nextval('pets_seq'), o.id_owners, '2023-06-09', 'Спаниель', 'Барбос', 'FEMALE', 'DOG'
+FROM owners o
+WHERE o.main_phone_owners = '89000000000000'
+  AND NOT EXISTS (SELECT 1 FROM pets p WHERE p.owner_id_pets = o.id_owners AND p.name_pets = 'Барбос');
+
+INSERT INTO categories (id_categories, name_categories)
+SELECT nextval('categories_seq'), 'Room'
+WHERE NOT EXISTS (SELECT 1 FROM categories WHERE name_categories = 'Room');
+
+INSERT INTO rooms (id_rooms, number_rooms, area_rooms, category_id_rooms, description_rooms, visible_rooms)
+SELECT nextval('rooms_seq'), '1F', 10, c.id_categories, 'Номер с отдельным входом', true
+FROM categories c
+WHERE c.name_categories = 'Room'
+  AND NOT EXISTS (SELECT 1 FROM rooms WHERE number_rooms = '1F');
+
+INSERT INTO bookings (id_bookings, type_bookings, check_in_date_bookings, check_out_date_bookings,
+                      check_in_time_bookings, check_out_time_bookings, status_bookings, reason_of_stop_bookings,
+                      reason_of_cancel_bookings, price_bookings, amount_bookings, prepayment_amount_bookings,
+                      made_prepayment_bookings, comment_bookings, file_bookings, room_id_bookings)
+SELECT nextval('bookings_seq'), 'TYPE_BOOKING', '2024-09-02', '2024-09-09', '11:43:31', '11:43:34',
+       'STATUS_CONFIRMED', null, null, 0, 0, 0, false, null, null, r.id_rooms
+FROM rooms r
+WHERE r.number_rooms = '1F'
+  AND NOT EXISTS (SELECT 1
+                  FROM bookings b
+                  WHERE b.room_id_bookings = r.id_rooms
+                    AND b.check_in_date_bookings = '2024-09-02'
+                    AND b.check_out_date_bookings = '2024-09-09');
+
+INSERT INTO pets_in_bookings (id_bookings, id_pets)
+SELECT b.id_bookings, p.id_pets
+FROM bookings b
+         JOIN rooms r ON r.id_rooms = b.room_id_bookings
+         JOIN pets p ON p.name_pets = 'Барбос'
+         JOIN owners o ON o.id_owners = p.owner_id_pets
+WHERE r.number_rooms = '1F'
+  AND b.check_in_date_bookings = '2024-09-02'
+  AND b.check_out_date_bookings = '2024-09-09'
+  AND o.main_phone_owners = '89000000000000'
+  AND NOT EXISTS (SELECT 1 FROM pets_in_bookings pb WHERE pb.id_bookings = b.id_bookings AND pb.id_pets = p.id_pets);
@@ -1,12 +1,4 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS pets CASCADE;
-DROP TABLE IF EXISTS rooms CASCADE;
-DROP TABLE IF EXISTS categories CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS pets_in_bookings CASCADE;
-DROP TABLE IF EXISTS owners;
-
-CREATE TABLE IF NOT EXISTS users
+CREATE TABLE users
 (
     id_users          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     last_name_users   VARCHAR(30),
@@ -20,11 +12,7 @@ CREATE TABLE IF NOT EXISTS users
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email_users)
 );
 
-INSERT INTO users (first_name_users, email_users, password_users, role_users)
-values ('boss', 'boss@mail.ru', 'boss_pwd', 'ROLE_BOSS');
-
-
-CREATE TABLE IF NOT EXISTS owners
+CREATE TABLE owners
 (
     id_owners                BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     last_name_owners         VARCHAR(30),
@@ -32,6 +20,8 @@ CREATE TABLE IF NOT EXISTS owners
     middle_name_owners       VARCHAR(15),
     main_phone_owners        VARCHAR(16)                             NOT NULL,
     optional_phone_owners    VARCHAR(16),
+    main_phone_digits_owners     VARCHAR(16),
+    optional_phone_digits_owners VARCHAR(16),
     other_contacts_owners    VARCHAR(500),
     actual_address_owners    VARCHAR(150),
     trusted_man_owners       VARCHAR(150),
@@ -44,10 +34,7 @@ CREATE TABLE IF NOT EXISTS owners
     CONSTRAINT UQ_OWNER_MAIN_PHONE UNIQUE (main_phone_owners)
 );
 
-INSERT INTO owners (first_name_owners, main_phone_owners, registration_date_owners)
-values ('Иван', '89000000000000', '2024-08-23T12:09:45.0037547');
-
-CREATE TABLE IF NOT EXISTS pets
+CREATE TABLE pets
 (
     id_pets                    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     owner_id_pets              BIGINT                                  NOT NULL,
@@ -111,10 +98,7 @@ CREATE TABLE IF NOT EXISTS pets
     CONSTRAINT fk_owner_to_pets FOREIGN KEY (owner_id_pets) REFERENCES owners (id_owners) ON DELETE RESTRICT
 );
 
-INSERT INTO pets (owner_id_pets, birth_date_pets, breed_pets, name_pets, sex_pets, type_pets)
-VALUES (1, '2023-06-09', 'Спаниель', 'Барбос', 'FEMALE', 'DOG');
-
-CREATE TABLE IF NOT EXISTS categories
+CREATE TABLE categories
 (
     id_categories          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name_categories        VARCHAR(20)                             NOT NULL,
@@ -123,10 +107,7 @@ CREATE TABLE IF NOT EXISTS categories
     CONSTRAINT UQ_CATEGORY_NAME UNIQUE (name_categories)
 );
 
-INSERT INTO categories (name_categories)
-VALUES ('Room');
-
-CREATE TABLE IF NOT EXISTS rooms
+CREATE TABLE rooms
 (
     id_rooms          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     number_rooms      VARCHAR(100)                            NOT NULL,
@@ -140,10 +121,7 @@ CREATE TABLE IF NOT EXISTS rooms
     CONSTRAINT positive_room_area CHECK (area_rooms >= 0)
 );
 
-INSERT INTO rooms (number_rooms, area_rooms, category_id_rooms, description_rooms, visible_rooms)
-VALUES ('1F', 10, 1, 'Номер с отдельным входом', true);
-
-CREATE TABLE IF NOT EXISTS bookings
+CREATE TABLE bookings
 (
     id_bookings                BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     type_bookings              VARCHAR(150)      NOT NULL,
@@ -169,14 +147,7 @@ CREATE TABLE IF NOT EXISTS bookings
     CONSTRAINT check_out_later_than_in CHECK (check_out_date_bookings >= check_in_date_bookings)
 );
 
-INSERT INTO public.bookings (id_bookings, type_bookings, check_in_date_bookings, check_out_date_bookings,
-                             check_in_time_bookings, check_out_time_bookings, status_bookings, reason_of_stop_bookings,
-                             reason_of_cancel_bookings, price_bookings, amount_bookings, prepayment_amount_bookings,
-                             made_prepayment_bookings, comment_bookings, file_bookings, room_id_bookings)
-VALUES (1, 'TYPE_BOOKING', '2024-09-02', '2024-09-09', '11:43:31', '11:43:34', 'STATUS_CONFIRMED', null, null, 0, 0, 0,
-        false, null, null, 1);
-
-CREATE TABLE IF NOT EXISTS pets_in_bookings
+CREATE TABLE pets_in_bookings
 (
     id_bookings BIGINT,
     id_pets     BIGINT,
@@ -185,5 +156,5 @@ CREATE TABLE IF NOT EXISTS pets_in_bookings
     CONSTRAINT fk_id_pets FOREIGN KEY (id_pets) REFERENCES pets (id_pets)
 );
 
-INSERT INTO public.pets_in_bookings (id_bookings, id_pets)
-VALUES (1, 1);
\ No newline at end of file
+INSERT INTO users (first_name_users, email_users, password_users, role_users)
+values ('boss', 'boss@mail.ru', 'boss_pwd', 'ROLE_BOSS');
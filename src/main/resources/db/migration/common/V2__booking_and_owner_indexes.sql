@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_room_dates
+    ON bookings (room_id_bookings, check_in_date_bookings, check_out_date_bookings);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_dates
+    ON bookings (check_in_date_bookings, check_out_date_bookings);
+
+CREATE INDEX IF NOT EXISTS idx_pets_in_bookings_pet
+    ON pets_in_bookings (id_pets);
+
+CREATE INDEX IF NOT EXISTS idx_pets_owner
+    ON pets (owner_id_pets);
+
+CREATE INDEX IF NOT EXISTS idx_owners_main_phone_digits
+    ON owners (main_phone_digits_owners);
+
+CREATE INDEX IF NOT EXISTS idx_owners_optional_phone_digits
+    ON owners (optional_phone_digits_owners);
@@ -0,0 +1,6 @@
+-- Optimistic locking versions, also used to build ETags for conditional GET requests.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version_bookings BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS version_rooms BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS version_categories BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS version_owners BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE pets ADD COLUMN IF NOT EXISTS version_pets BIGINT DEFAULT 0 NOT NULL;
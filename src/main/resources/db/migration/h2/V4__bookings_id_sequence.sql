@@ -0,0 +1,3 @@
+-- Booking ids come from a pooled sequence (allocationSize = 50) so that Hibernate can batch inserts.
+-- H2 is used only by the test profile with an empty database, so the sequence starts from scratch.
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
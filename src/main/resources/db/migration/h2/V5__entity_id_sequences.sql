@@ -0,0 +1,12 @@
+-- Ids of the remaining entities come from pooled sequences (allocationSize = 50) so that Hibernate can batch inserts.
+-- The pooled optimizer hands out (value - 49 .. value], so each sequence restarts 50 above the current max id.
+CREATE SEQUENCE IF NOT EXISTS categories_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE categories_seq RESTART WITH (SELECT COALESCE(MAX(id_categories), 0) + 50 FROM categories);
+CREATE SEQUENCE IF NOT EXISTS rooms_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE rooms_seq RESTART WITH (SELECT COALESCE(MAX(id_rooms), 0) + 50 FROM rooms);
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id_users), 0) + 50 FROM users);
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE owners_seq RESTART WITH (SELECT COALESCE(MAX(id_owners), 0) + 50 FROM owners);
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE pets_seq RESTART WITH (SELECT COALESCE(MAX(id_pets), 0) + 50 FROM pets);
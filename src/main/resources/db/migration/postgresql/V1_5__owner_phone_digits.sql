@@ -0,0 +1,15 @@
+-- Databases created by the pre-Flyway schema.sql are adopted with baseline-on-migrate at version 1,
+-- so V1 is skipped there and the owner phone digits columns added later to V1 are missing.
+-- On databases created by V1 the columns already exist and the backfill touches no rows.
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS main_phone_digits_owners VARCHAR(16);
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS optional_phone_digits_owners VARCHAR(16);
+
+UPDATE owners
+SET main_phone_digits_owners = regexp_replace(main_phone_owners, '\D', '', 'g')
+WHERE main_phone_digits_owners IS NULL
+  AND main_phone_owners IS NOT NULL;
+
+UPDATE owners
+SET optional_phone_digits_owners = regexp_replace(optional_phone_owners, '\D', '', 'g')
+WHERE optional_phone_digits_owners IS NULL
+  AND optional_phone_owners IS NOT NULL;
@@ -0,0 +1,28 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_owners_last_name_trgm
+    ON owners USING gin (lower(last_name_owners) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_first_name_trgm
+    ON owners USING gin (lower(first_name_owners) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_middle_name_trgm
+    ON owners USING gin (lower(middle_name_owners) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_main_phone_digits_trgm
+    ON owners USING gin (main_phone_digits_owners gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_optional_phone_digits_trgm
+    ON owners USING gin (optional_phone_digits_owners gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_last_name_prefix
+    ON owners (lower(last_name_owners) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_first_name_prefix
+    ON owners (lower(first_name_owners) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_main_phone_digits_prefix
+    ON owners (main_phone_digits_owners varchar_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_owners_optional_phone_digits_prefix
+    ON owners (optional_phone_digits_owners varchar_pattern_ops);
@@ -0,0 +1,4 @@
+-- Booking ids come from a pooled sequence (allocationSize = 50) so that Hibernate can batch inserts.
+-- The pooled optimizer hands out (value - 49 .. value], so the first value is set 50 above the current max id.
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id_bookings) FROM bookings), 0) + 50, false);
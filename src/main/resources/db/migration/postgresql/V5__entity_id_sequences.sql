@@ -0,0 +1,12 @@
+-- Ids of the remaining entities come from pooled sequences (allocationSize = 50) so that Hibernate can batch inserts.
+-- The pooled optimizer hands out (value - 49 .. value], so the first value is set 50 above the current max id.
+CREATE SEQUENCE IF NOT EXISTS categories_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id_categories) FROM categories), 0) + 50, false);
+CREATE SEQUENCE IF NOT EXISTS rooms_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('rooms_seq', COALESCE((SELECT MAX(id_rooms) FROM rooms), 0) + 50, false);
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id_users) FROM users), 0) + 50, false);
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('owners_seq', COALESCE((SELECT MAX(id_owners) FROM owners), 0) + 50, false);
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('pets_seq', COALESCE((SELECT MAX(id_pets) FROM pets), 0) + 50, false);
@@ -0,0 +1,219 @@
+package ru.modgy.analytics.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.analytics.dto.CategoryStatsDto;
+import ru.modgy.analytics.dto.PeriodStatsDto;
+import ru.modgy.analytics.dto.RoomStatsDto;
+import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.UpdateBookingDto;
+import ru.modgy.booking.model.StatusBooking;
+import ru.modgy.booking.model.TypesBooking;
+import ru.modgy.booking.service.BookingService;
+import ru.modgy.owner.model.Owner;
+import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.Sex;
+import ru.modgy.pet.model.TypeOfPet;
+import ru.modgy.room.category.model.Category;
+import ru.modgy.room.dto.UpdateRoomDto;
+import ru.modgy.room.model.Room;
+import ru.modgy.room.service.RoomService;
+import ru.modgy.user.model.Roles;
+import ru.modgy.user.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsServiceIntegrationTest {
+    private final LocalDate startDate = LocalDate.of(2024, 1, 1);
+    private final LocalDate endDate = LocalDate.of(2024, 2, 29);
+    private final User requesterAdmin = User.builder()
+            .email("admin@mail.ru")
+            .firstName("admin")
+            .role(Roles.ROLE_ADMIN)
+            .isActive(true)
+            .build();
+    private final Category category = Category.builder()
+            .name("Analytics dog room")
+            .description("Room for dogs")
+            .build();
+    private final Category otherCategory = Category.builder()
+            .name("Analytics cat room")
+            .description("Room for cats")
+            .build();
+    private final Room room = Room.builder()
+            .area(5.0)
+            .number("analytics room")
+            .category(category)
+            .isVisible(true)
+            .build();
+    private final Owner owner = Owner.builder()
+            .firstName("Ivan")
+            .lastName("Ivanov")
+            .mainPhone("89000000000")
+            .registrationDate(LocalDateTime.now())
+            .build();
+    private final Pet pet = Pet.builder()
+            .owner(owner)
+            .type(TypeOfPet.DOG)
+            .name("Шарик")
+            .breed("Spaniel")
+            .birthDate(LocalDate.of(2023, 1, 1))
+            .sex(Sex.FEMALE)
+            .build();
+    private final EntityManager em;
+    private final AnalyticsService analyticsService;
+    private final BookingService bookingService;
+    private final RoomService roomService;
+    private BookingDto booking;
+
+    @BeforeEach
+    void setUp() {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(otherCategory);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        booking = bookingService.addBooking(requesterAdmin.getId(), NewBookingDto.builder()
+                .type(TypesBooking.TYPE_BOOKING)
+                .roomId(room.getId())
+                .checkInDate(LocalDate.of(2024, 1, 29))
+                .checkOutDate(LocalDate.of(2024, 2, 3))
+                .price(1000.0)
+                .amount(6000.0)
+                .prepaymentAmount(1200.0)
+                .petIds(List.of(pet.getId()))
+                .build());
+        em.flush();
+    }
+
+    @Test
+    void getCategoryStats_whenBookingAdded_thenStatsSplitByMonth() {
+        List<CategoryStatsDto> result = analyticsService.getCategoryStats(
+                requesterAdmin.getId(), startDate, endDate, category.getId());
+
+        assertThat(result, hasSize(1));
+        assertThat(result.get(0).getRooms(), equalTo(1));
+        assertThat(result.get(0).getMonths(), hasSize(2));
+        PeriodStatsDto january = result.get(0).getMonths().get(0);
+        assertThat(january.getEndDate(), equalTo(LocalDate.of(2024, 1, 31)));
+        assertThat(january.getRoomDays(), equalTo(31L));
+        assertThat(january.getOccupiedRoomDays(), equalTo(3L));
+        assertThat(january.getLoadFactor(), equalTo(0.0968));
+        assertThat(january.getCheckIns(), equalTo(1L));
+        assertThat(january.getAverageStayDays(), equalTo(6.0));
+        assertThat(january.getAveragePrice(), equalTo(1000.0));
+        assertThat(january.getRevenue(), equalTo(3600.0));
+        assertThat(january.getPrepayment(), equalTo(720.0));
+        PeriodStatsDto february = result.get(0).getMonths().get(1);
+        assertThat(february.getOccupiedRoomDays(), equalTo(2L));
+        assertThat(february.getCheckIns(), equalTo(0L));
+        assertThat(february.getRevenue(), equalTo(2400.0));
+    }
+
+    @Test
+    void getCategoryStats_whenBookingUpdated_thenPreviousContributionReplaced() {
+        bookingService.updateBooking(requesterAdmin.getId(), booking.getId(), UpdateBookingDto.builder()
+                .checkOutDate(LocalDate.of(2024, 1, 31))
+                .amount(3000.0)
+                .build());
+        em.flush();
+
+        List<PeriodStatsDto> months = analyticsService.getCategoryStats(
+                requesterAdmin.getId(), startDate, endDate, category.getId()).get(0).getMonths();
+
+        assertThat(months.get(0).getOccupiedRoomDays(), equalTo(2L));
+        assertThat(months.get(0).getAverageStayDays(), equalTo(3.0));
+        assertThat(months.get(0).getRevenue(), equalTo(3000.0));
+        assertThat(months.get(1).getOccupiedRoomDays(), equalTo(0L));
+        assertThat(months.get(1).getRevenue(), equalTo(0.0));
+    }
+
+    @Test
+    void getRoomStats_whenBookingsBackToBack_thenLoadFactorNotAboveOne() {
+        for (LocalDate[] dates : List.of(
+                new LocalDate[]{LocalDate.of(2024, 2, 3), LocalDate.of(2024, 2, 10)},
+                new LocalDate[]{LocalDate.of(2024, 2, 10), LocalDate.of(2024, 2, 15)})) {
+            bookingService.addBooking(requesterAdmin.getId(), NewBookingDto.builder()
+                    .type(TypesBooking.TYPE_BOOKING)
+                    .roomId(room.getId())
+                    .checkInDate(dates[0])
+                    .checkOutDate(dates[1])
+                    .price(1000.0)
+                    .amount(1000.0)
+                    .prepaymentAmount(0.0)
+                    .petIds(List.of(pet.getId()))
+                    .build());
+        }
+        em.flush();
+
+        PeriodStatsDto period = analyticsService.getRoomStats(requesterAdmin.getId(), room.getId(),
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 10)).getMonths().get(0);
+
+        assertThat(period.getRoomDays(), equalTo(10L));
+        assertThat(period.getOccupiedRoomDays(), equalTo(10L));
+        assertThat(period.getLoadFactor(), lessThanOrEqualTo(1.0));
+        assertThat(period.getCheckIns(), equalTo(2L));
+    }
+
+    @Test
+    void getRoomStats_whenBookingCancelledOrDeleted_thenContributionRemoved() {
+        bookingService.updateBooking(requesterAdmin.getId(), booking.getId(), UpdateBookingDto.builder()
+                .status(StatusBooking.STATUS_CANCELLED)
+                .reasonOfCancel("cancel")
+                .build());
+        em.flush();
+
+        RoomStatsDto cancelled = analyticsService.getRoomStats(requesterAdmin.getId(), room.getId(), startDate, endDate);
+        assertThat(cancelled.getMonths().get(0).getOccupiedRoomDays(), equalTo(0L));
+        assertThat(cancelled.getMonths().get(0).getRevenue(), equalTo(0.0));
+
+        bookingService.updateBooking(requesterAdmin.getId(), booking.getId(), UpdateBookingDto.builder()
+                .status(StatusBooking.STATUS_CONFIRMED)
+                .build());
+        em.flush();
+        RoomStatsDto restored = analyticsService.getRoomStats(requesterAdmin.getId(), room.getId(), startDate, endDate);
+        assertThat(restored.getMonths().get(0).getOccupiedRoomDays(), equalTo(3L));
+
+        bookingService.deleteBookingById(requesterAdmin.getId(), booking.getId());
+        em.flush();
+        RoomStatsDto deleted = analyticsService.getRoomStats(requesterAdmin.getId(), room.getId(), startDate, endDate);
+        assertThat(deleted.getMonths().get(0).getOccupiedRoomDays(), equalTo(0L));
+        assertThat(deleted.getMonths().get(1).getOccupiedRoomDays(), equalTo(0L));
+    }
+
+    @Test
+    void getCategoryStats_whenRoomMovedToOtherCategory_thenRoomStatsMovedToo() {
+        roomService.updateRoom(requesterAdmin.getId(), room.getId(), UpdateRoomDto.builder()
+                .categoryId(otherCategory.getId())
+                .build());
+        em.flush();
+
+        PeriodStatsDto previousCategory = analyticsService.getCategoryStats(
+                requesterAdmin.getId(), startDate, endDate, category.getId()).get(0).getMonths().get(0);
+        CategoryStatsDto newCategory = analyticsService.getCategoryStats(
+                requesterAdmin.getId(), startDate, endDate, otherCategory.getId()).get(0);
+
+        assertThat(previousCategory.getOccupiedRoomDays(), equalTo(0L));
+        assertThat(newCategory.getRooms(), equalTo(1));
+        assertThat(newCategory.getMonths().get(0).getOccupiedRoomDays(), equalTo(3L));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.modgy.analytics.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.modgy.analytics.model.BookingContribution;
+import ru.modgy.analytics.model.OccupancyTotals;
+import ru.modgy.analytics.model.RoomCategoryLink;
+import ru.modgy.booking.model.TypesBooking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class BookingStatsIndexTest {
+    private final Long roomId = 1L;
+    private final Long categoryId = 10L;
+    private final LocalDate checkIn = LocalDate.of(2024, 1, 30);
+    private final LocalDate checkOut = LocalDate.of(2024, 2, 2);
+    private final BookingContribution booking = new BookingContribution(1L, roomId, TypesBooking.TYPE_BOOKING,
+            checkIn, checkOut, 1000.0, 3000.0, 900.0);
+    private BookingStatsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingStatsIndex();
+        index.load(List.of(new RoomCategoryLink(roomId, categoryId), new RoomCategoryLink(2L, categoryId)),
+                List.of(booking));
+    }
+
+    @Test
+    void summarizeCategory_whenBookingSpansMonths_thenDaysAndRevenueSplitByMonth() {
+        OccupancyTotals january = index.summarizeCategory(categoryId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        OccupancyTotals february = index.summarizeCategory(categoryId, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+
+        Assertions.assertEquals(2, january.occupiedRoomDays());
+        Assertions.assertEquals(1, january.checkIns());
+        Assertions.assertEquals(4, january.stayDays());
+        Assertions.assertEquals(2000.0, january.revenue(), 0.001);
+        Assertions.assertEquals(600.0, january.prepayment(), 0.001);
+        Assertions.assertEquals(2000.0, january.priceSum(), 0.001);
+        Assertions.assertEquals(1, february.occupiedRoomDays());
+        Assertions.assertEquals(0, february.checkIns());
+        Assertions.assertEquals(1000.0, february.revenue(), 0.001);
+        Assertions.assertEquals(2, index.countRoomsInCategory(categoryId));
+    }
+
+    @Test
+    void put_whenBookingChanged_thenPreviousContributionReplaced() {
+        BookingContribution previous = index.put(new BookingContribution(1L, 2L, TypesBooking.TYPE_BOOKING,
+                checkIn, checkIn, 1500.0, 1500.0, 0.0));
+
+        Assertions.assertEquals(booking, previous);
+        Assertions.assertEquals(0, index.summarizeRoom(roomId, checkIn, checkOut).occupiedRoomDays());
+        OccupancyTotals room2 = index.summarizeRoom(2L, checkIn, checkOut);
+        Assertions.assertEquals(1, room2.occupiedRoomDays());
+        Assertions.assertEquals(1500.0, room2.revenue(), 0.001);
+        Assertions.assertEquals(1, index.summarizeCategory(categoryId, checkIn, checkOut).occupiedRoomDays());
+    }
+
+    @Test
+    void put_whenBookingsBackToBack_thenTurnoverDayCountedOnce() {
+        index.put(new BookingContribution(2L, roomId, TypesBooking.TYPE_BOOKING,
+                checkOut, checkOut.plusDays(2), 1000.0, 2000.0, 0.0));
+
+        OccupancyTotals totals = index.summarizeRoom(roomId, checkIn, checkOut.plusDays(1));
+        Assertions.assertEquals(5, totals.occupiedRoomDays());
+        Assertions.assertEquals(2, totals.checkIns());
+        Assertions.assertEquals(4 + 3, totals.stayDays());
+        Assertions.assertEquals(5000.0, totals.revenue(), 0.001);
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenAggregatesEmpty() {
+        Assertions.assertEquals(booking, index.remove(1L));
+
+        OccupancyTotals totals = index.summarizeCategory(categoryId, checkIn, checkOut);
+        Assertions.assertEquals(0, totals.occupiedRoomDays());
+        Assertions.assertEquals(0, totals.checkIns());
+        Assertions.assertEquals(0.0, totals.revenue(), 0.001);
+        Assertions.assertNull(index.remove(1L));
+    }
+
+    @Test
+    void put_whenTypeClosing_thenOnlyClosedDaysCounted() {
+        index.put(new BookingContribution(2L, 2L, TypesBooking.TYPE_CLOSING, checkIn, checkOut, 0.0, 0.0, 0.0));
+
+        OccupancyTotals totals = index.summarizeCategory(categoryId, checkIn, checkOut);
+        Assertions.assertEquals(3, totals.occupiedRoomDays());
+        Assertions.assertEquals(3, totals.closedRoomDays());
+        Assertions.assertEquals(1, totals.checkIns());
+    }
+
+    @Test
+    void moveRoom_whenCategoryChanged_thenRoomAggregatesMovedToNewCategory() {
+        Long previous = index.moveRoom(roomId, 20L);
+
+        Assertions.assertEquals(categoryId, previous);
+        Assertions.assertEquals(0, index.summarizeCategory(categoryId, checkIn, checkOut).occupiedRoomDays());
+        Assertions.assertEquals(3, index.summarizeCategory(20L, checkIn, checkOut).occupiedRoomDays());
+        Assertions.assertEquals(1, index.countRoomsInCategory(categoryId));
+
+        index.remove(1L);
+        Assertions.assertEquals(0, index.summarizeCategory(20L, checkIn, checkOut).occupiedRoomDays());
+    }
+}
@@ -6,34 +6,56 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.modgy.booking.controller.BookingController;
 import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.BulkBookingResultDto;
 import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.OccupancyCalendarDto;
+import ru.modgy.booking.dto.RoomOccupancyDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
+import ru.modgy.booking.model.BookingChangeType;
+import ru.modgy.booking.model.BookingChangedEvent;
+import ru.modgy.booking.model.CalendarDayStatus;
 import ru.modgy.booking.model.StatusBooking;
 import ru.modgy.booking.model.TypesBooking;
+import ru.modgy.booking.service.BookingChangeFeed;
 import ru.modgy.booking.service.BookingService;
 import ru.modgy.exception.ConflictException;
 import ru.modgy.exception.NotFoundException;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.room.category.dto.CategoryDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.utility.UtilityService;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(BookingChangeFeed.class)
 class BookingControllerTest {
     private final String requesterHeader = UtilityService.REQUESTER_ID_HEADER;
     private final UpdateBookingDto updateBookingDto = UpdateBookingDto.builder()
@@ -82,6 +104,8 @@ class BookingControllerTest {
     private BookingService bookingService;
     @MockBean
     private UtilityService utilityService;
+    @Autowired
+    private BookingChangeFeed bookingChangeFeed;
 
     @Test
     @SneakyThrows
@@ -123,6 +147,156 @@ class BookingControllerTest {
         verify(bookingService, times(1)).addBooking(anyLong(), any(NewBookingDto.class));
     }
 
+    @Test
+    @SneakyThrows
+    void addBookings() {
+        when(bookingService.addBookings(anyLong(), anyList())).thenReturn(List.of(
+                BulkBookingResultDto.builder().index(0).status(BulkBookingResultDto.Status.CREATED)
+                        .bookingId(bookingId).build(),
+                BulkBookingResultDto.builder().index(1).status(BulkBookingResultDto.Status.REJECTED)
+                        .error("Room with id=1 is not available for current dates").build()));
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .header(requesterHeader, requesterId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(List.of(newBookingDto, newBookingDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].bookingId", is(bookingId), Long.class))
+                .andExpect(jsonPath("$[1].status", is("REJECTED")))
+                .andExpect(jsonPath("$[1].error", is("Room with id=1 is not available for current dates")));
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .header(requesterHeader, requesterId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, times(1)).addBookings(anyLong(), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsInDates() {
+        when(bookingService.findAllBookingsInDatesAfter(anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/export")
+                        .header(requesterHeader, requesterId)
+                        .param("startDate", "01.01.2024")
+                        .param("endDate", "02.01.2024")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().bytes((objectMapper.writeValueAsString(bookingDto) + "\n")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        verify(bookingService).findAllBookingsInDatesAfter(requesterId, checkIn, checkOut, null, 500);
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsInDatesAsCsv() {
+        BookingDto bookingWithComment = BookingDto.builder()
+                .id(bookingId)
+                .type(TypesBooking.TYPE_BOOKING)
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .status(StatusBooking.STATUS_CONFIRMED)
+                .price(100.0)
+                .isPrepaid(true)
+                .room(roomDto)
+                .pets(List.of(PetSummaryDto.builder().id(petId).build(), PetSummaryDto.builder().id(2L).build()))
+                .comment("late check-in, \"VIP\"")
+                .build();
+        when(bookingService.findAllBookingsInDatesAfter(anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(bookingWithComment));
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/export")
+                        .header(requesterHeader, requesterId)
+                        .param("startDate", "01.01.2024")
+                        .param("endDate", "02.01.2024")
+                        .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,type,checkInDate,checkOutDate,status,roomId,roomNumber,price," +
+                        "amount,prepaymentAmount,isPrepaid,petIds,comment\n" +
+                        "1,TYPE_BOOKING,01.01.2024,02.01.2024,STATUS_CONFIRMED,1,standard room,100.0,,,true,1 2," +
+                        "\"late check-in, \"\"VIP\"\"\"\n"));
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsInDatesAsCsv_whenTextStartsWithFormulaChar_thenValueNeutralized() {
+        BookingDto bookingWithFormula = BookingDto.builder()
+                .id(bookingId)
+                .type(TypesBooking.TYPE_BOOKING)
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .status(StatusBooking.STATUS_CONFIRMED)
+                .price(-100.0)
+                .room(RoomDto.builder().id(roomId).number("@1F").build())
+                .comment("=HYPERLINK(\"http://example.com\",\"x\")")
+                .build();
+        when(bookingService.findAllBookingsInDatesAfter(anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(bookingWithFormula));
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/export")
+                        .header(requesterHeader, requesterId)
+                        .param("startDate", "01.01.2024")
+                        .param("endDate", "02.01.2024")
+                        .accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(endsWith(
+                        "1,TYPE_BOOKING,01.01.2024,02.01.2024,STATUS_CONFIRMED," + roomId + ",'@1F,-100.0,,,,," +
+                        "\"'=HYPERLINK(\"\"http://example.com\"\",\"\"x\"\")\"\n")));
+    }
+
+    @Test
+    @SneakyThrows
+    void subscribeToBookingChanges() {
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/changes")
+                        .header(requesterHeader, requesterId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        bookingChangeFeed.onBookingChanged(
+                new BookingChangedEvent(bookingId, roomId, BookingChangeType.CREATED, checkIn, checkOut));
+        bookingChangeFeed.onBookingChanged(
+                new BookingChangedEvent(bookingId, roomId, BookingChangeType.UPDATED, checkIn, checkOut.plusDays(1)));
+        bookingChangeFeed.onBookingChanged(
+                new BookingChangedEvent(bookingId + 1, null, BookingChangeType.DELETED, null, null));
+
+        String content = "";
+        for (int i = 0; i < 100 && !content.contains("DELETED"); i++) {
+            Thread.sleep(50);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+
+        assertThat(mvcResult.getResponse().getContentType(), startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        assertThat(content.split("event:" + BookingChangeFeed.CHANGE_EVENT, -1).length - 1, is(2));
+        assertThat(content, containsString("\"bookingId\":" + bookingId + ",\"roomId\":" + roomId +
+                ",\"type\":\"CREATED\""));
+        assertThat(content, containsString("\"type\":\"DELETED\""));
+        verify(utilityService).checkBossAdminAccess(requesterId);
+        mvcResult.getRequest().getAsyncContext().complete();
+    }
+
     @Test
     @SneakyThrows
     void getBookingById() {
@@ -269,7 +443,8 @@ class BookingControllerTest {
     @SneakyThrows
     @DateTimeFormat(iso= DateTimeFormat.ISO.DATE)
     void findBlockingBookingsForRoomInDates() {
-        when(bookingService.findBlockingBookingsForRoomInDates(anyLong(), anyLong(), any(LocalDate.class), any(LocalDate.class)))
+        when(bookingService.findBlockingBookingsForRoomInDates(anyLong(), anyLong(), any(LocalDate.class), any(LocalDate.class),
+                anyBoolean()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/rooms/{roomId}/blockingBookingsInDates", roomId)
@@ -279,16 +454,17 @@ class BookingControllerTest {
                         .param("checkOutDate", "02.01.2024"))
                 .andExpect(status().isOk());
 
-        verify(bookingService).findBlockingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut);
+        verify(bookingService).findBlockingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut, false);
         verify(bookingService, times(1))
-                .findBlockingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut);
+                .findBlockingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut, false);
     }
 
     @Test
     @SneakyThrows
     @DateTimeFormat(iso= DateTimeFormat.ISO.DATE)
     void findCrossingBookingsForRoomInDates() {
-        when(bookingService.findCrossingBookingsForRoomInDates(anyLong(), anyLong(), any(LocalDate.class), any(LocalDate.class)))
+        when(bookingService.findCrossingBookingsForRoomInDates(anyLong(), anyLong(), any(LocalDate.class), any(LocalDate.class),
+                anyBoolean()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/rooms/{roomId}/crossingBookingsOfRoomInDates", roomId)
@@ -298,16 +474,16 @@ class BookingControllerTest {
                         .param("checkOutDate", "02.01.2024"))
                 .andExpect(status().isOk());
 
-        verify(bookingService).findCrossingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut);
+        verify(bookingService).findCrossingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut, false);
         verify(bookingService, times(1))
-                .findCrossingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut);
+                .findCrossingBookingsForRoomInDates(requesterId, roomId, checkIn, checkOut, false);
     }
 
     @Test
     @SneakyThrows
     @DateTimeFormat(iso= DateTimeFormat.ISO.DATE)
     void findAllBookingsInDates() {
-        when(bookingService.findAllBookingsInDates(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+        when(bookingService.findAllBookingsInDates(anyLong(), any(LocalDate.class), any(LocalDate.class), anyBoolean()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/inDates")
@@ -317,15 +493,44 @@ class BookingControllerTest {
                         .param("endDate", "02.01.2024"))
                 .andExpect(status().isOk());
 
-        verify(bookingService).findAllBookingsInDates(requesterId, checkIn, checkOut);
+        verify(bookingService).findAllBookingsInDates(requesterId, checkIn, checkOut, false);
         verify(bookingService, times(1))
-                .findAllBookingsInDates(requesterId, checkIn, checkOut);
+                .findAllBookingsInDates(requesterId, checkIn, checkOut, false);
+    }
+
+    @Test
+    @SneakyThrows
+    void streamAllBookingsInDates() {
+        doAnswer(invocation -> {
+            Consumer<List<BookingDto>> chunkConsumer = invocation.getArgument(5);
+            chunkConsumer.accept(List.of(bookingDto));
+            chunkConsumer.accept(List.of(bookingDto));
+            return null;
+        }).when(bookingService).streamAllBookingsInDates(anyLong(), any(), any(), anyBoolean(), anyInt(), any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/inDates")
+                        .header(requesterHeader, requesterId)
+                        .param("startDate", "01.01.2024")
+                        .param("endDate", "02.01.2024")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = objectMapper.writeValueAsString(bookingDto) + "\n";
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().bytes((line + line).getBytes(StandardCharsets.UTF_8)));
+
+        verify(bookingService).streamAllBookingsInDates(eq(requesterId), eq(checkIn), eq(checkOut), eq(false),
+                eq(500), any());
+        verify(bookingService, never()).findAllBookingsInDates(anyLong(), any(), any(), anyBoolean());
     }
 
     @Test
     @SneakyThrows
     void findAllBookingsByPet() {
-        when(bookingService.findAllBookingsByPet(anyLong(), anyLong()))
+        when(bookingService.findAllBookingsByPet(anyLong(), anyLong(), anyBoolean()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/allByPet/pets/{petId}", petId)
@@ -333,15 +538,15 @@ class BookingControllerTest {
                         .accept(MediaType.ALL_VALUE))
                 .andExpect(status().isOk());
 
-        verify(bookingService).findAllBookingsByPet(requesterId, petId);
+        verify(bookingService).findAllBookingsByPet(requesterId, petId, false);
         verify(bookingService, times(1))
-                .findAllBookingsByPet(requesterId, petId);
+                .findAllBookingsByPet(requesterId, petId, false);
     }
 
     @Test
     @SneakyThrows
     void findAllBookingsByOwner() {
-        when(bookingService.findAllBookingsByOwner(anyLong(), anyLong()))
+        when(bookingService.findAllBookingsByOwner(anyLong(), anyLong(), anyBoolean()))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/allByOwner/owners/{ownerId}", ownerId)
@@ -349,8 +554,54 @@ class BookingControllerTest {
                         .accept(MediaType.ALL_VALUE))
                 .andExpect(status().isOk());
 
-        verify(bookingService).findAllBookingsByOwner(requesterId, ownerId);
+        verify(bookingService).findAllBookingsByOwner(requesterId, ownerId, false);
         verify(bookingService, times(1))
-                .findAllBookingsByOwner(requesterId, ownerId);
+                .findAllBookingsByOwner(requesterId, ownerId, false);
+    }
+
+    @Test
+    @SneakyThrows
+    void findAllBookingsByOwner_whenExpandDetails_thenFullPetsRequested() {
+        when(bookingService.findAllBookingsByOwner(anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/allByOwner/owners/{ownerId}", ownerId)
+                        .header(requesterHeader, requesterId)
+                        .param("expand", "details")
+                        .accept(MediaType.ALL_VALUE))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1))
+                .findAllBookingsByOwner(requesterId, ownerId, true);
+    }
+
+    @Test
+    @SneakyThrows
+    void getOccupancyCalendar() {
+        OccupancyCalendarDto calendarDto = OccupancyCalendarDto.builder()
+                .startDate(checkIn)
+                .endDate(checkOut)
+                .rooms(List.of(RoomOccupancyDto.builder()
+                        .roomId(roomId)
+                        .roomNumber(roomDto.getNumber())
+                        .categoryId(1L)
+                        .days(List.of(CalendarDayStatus.BOOKED, CalendarDayStatus.FREE))
+                        .build()))
+                .build();
+        when(bookingService.getOccupancyCalendar(anyLong(), any(), any(), any()))
+                .thenReturn(calendarDto);
+
+        mockMvc.perform(get("/bookings/calendar")
+                        .header(requesterHeader, requesterId)
+                        .param("startDate", "01.01.2024")
+                        .param("endDate", "02.01.2024")
+                        .param("categoryId", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms[0].roomId", is(roomId), Long.class))
+                .andExpect(jsonPath("$.rooms[0].days[0]", is(CalendarDayStatus.BOOKED.toString())))
+                .andExpect(jsonPath("$.rooms[0].days[1]", is(CalendarDayStatus.FREE.toString())));
+
+        verify(bookingService, times(1)).getOccupancyCalendar(requesterId, checkIn, checkOut, 1L);
     }
 }
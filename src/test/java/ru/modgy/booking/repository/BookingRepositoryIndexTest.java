@@ -0,0 +1,55 @@
+package ru.modgy.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.not;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingRepositoryIndexTest {
+    private final EntityManager em;
+
+    @Test
+    void overlapPredicateForRoom_whenExplained_thenRoomDatesIndexUsed() {
+        String plan = explain("SELECT id_bookings FROM bookings " +
+                "WHERE room_id_bookings = 1 " +
+                "AND status_bookings <> 'STATUS_CANCELLED' " +
+                "AND check_in_date_bookings <= DATE '2024-01-10' " +
+                "AND check_out_date_bookings >= DATE '2024-01-01' " +
+                "AND ((check_in_date_bookings < DATE '2024-01-10' AND check_out_date_bookings > DATE '2024-01-01') " +
+                "OR check_in_date_bookings = check_out_date_bookings)");
+
+        assertThat(plan, containsStringIgnoringCase("idx_bookings_room_dates"));
+    }
+
+    @Test
+    void bookingsInDatesPredicate_whenExplained_thenDatesIndexUsed() {
+        String plan = explain("SELECT id_bookings FROM bookings " +
+                "WHERE status_bookings <> 'STATUS_CANCELLED' " +
+                "AND check_in_date_bookings <= DATE '2024-01-10' " +
+                "AND check_out_date_bookings >= DATE '2024-01-01'");
+
+        assertThat(plan, containsStringIgnoringCase("idx_bookings_dates"));
+    }
+
+    @Test
+    void bookingsOfPet_whenExplained_thenNoTableScan() {
+        String plan = explain("SELECT id_bookings FROM pets_in_bookings WHERE id_pets = 1");
+
+        assertThat(plan, not(containsStringIgnoringCase("tableScan")));
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(em.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+}
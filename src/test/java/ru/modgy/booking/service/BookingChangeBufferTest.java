@@ -0,0 +1,72 @@
+package ru.modgy.booking.service;
+
+import org.junit.jupiter.api.Test;
+import ru.modgy.booking.dto.BookingChangeDto;
+import ru.modgy.booking.model.BookingChangeType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BookingChangeBufferTest {
+    private final LocalDate checkIn = LocalDate.of(2024, 1, 10);
+    private final LocalDate checkOut = LocalDate.of(2024, 1, 15);
+    private final BookingChangeBuffer buffer = new BookingChangeBuffer(3);
+
+    @Test
+    void drain_whenBookingChangedSeveralTimes_thenOneChangeWithLastState() {
+        buffer.offer(change(1L, BookingChangeType.UPDATED, checkOut));
+        buffer.offer(change(2L, BookingChangeType.UPDATED, checkOut));
+        buffer.offer(change(1L, BookingChangeType.CANCELLED, checkOut.plusDays(1)));
+
+        BookingChangeBuffer.Batch batch = buffer.drain();
+
+        assertThat(batch.resync(), is(false));
+        assertThat(batch.changes().stream().map(BookingChangeDto::getBookingId).toList(), equalTo(List.of(2L, 1L)));
+        assertThat(batch.changes().get(1).getType(), equalTo(BookingChangeType.CANCELLED));
+        assertThat(batch.changes().get(1).getCheckOutDate(), equalTo(checkOut.plusDays(1)));
+        assertThat(buffer.isEmpty(), is(true));
+    }
+
+    @Test
+    void drain_whenCreatedBookingUpdated_thenChangeStaysCreated() {
+        buffer.offer(change(1L, BookingChangeType.CREATED, checkOut));
+        buffer.offer(change(1L, BookingChangeType.UPDATED, checkOut.plusDays(1)));
+
+        List<BookingChangeDto> changes = buffer.drain().changes();
+
+        assertThat(changes, hasSize(1));
+        assertThat(changes.get(0).getType(), equalTo(BookingChangeType.CREATED));
+        assertThat(changes.get(0).getCheckOutDate(), equalTo(checkOut.plusDays(1)));
+    }
+
+    @Test
+    void drain_whenCapacityExceeded_thenResyncOnceAndBufferReused() {
+        for (long bookingId = 1; bookingId <= 4; bookingId++) {
+            buffer.offer(change(bookingId, BookingChangeType.UPDATED, checkOut));
+        }
+        buffer.offer(change(5L, BookingChangeType.UPDATED, checkOut));
+
+        assertThat(buffer.isEmpty(), is(false));
+        BookingChangeBuffer.Batch overflowed = buffer.drain();
+        assertThat(overflowed.resync(), is(true));
+        assertThat(overflowed.changes(), empty());
+
+        buffer.offer(change(6L, BookingChangeType.DELETED, null));
+        BookingChangeBuffer.Batch next = buffer.drain();
+        assertThat(next.resync(), is(false));
+        assertThat(next.changes(), hasSize(1));
+    }
+
+    private BookingChangeDto change(Long bookingId, BookingChangeType type, LocalDate checkOutDate) {
+        return BookingChangeDto.builder()
+                .bookingId(bookingId)
+                .roomId(1L)
+                .type(type)
+                .checkInDate(checkIn)
+                .checkOutDate(checkOutDate)
+                .build();
+    }
+}
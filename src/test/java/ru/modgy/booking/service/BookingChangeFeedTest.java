@@ -0,0 +1,120 @@
+package ru.modgy.booking.service;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.modgy.booking.model.BookingChangeType;
+import ru.modgy.booking.model.BookingChangedEvent;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BookingChangeFeedTest {
+    private static final long SEND_TIMEOUT_MS = 500;
+
+    private final LocalDate checkIn = LocalDate.of(2024, 1, 10);
+    private final LocalDate checkOut = LocalDate.of(2024, 1, 15);
+    private BookingChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void flush_whenOneSubscriberBlocked_thenOtherSubscriberGetsChanges() {
+        feed = new BookingChangeFeed(100, 20, 60_000, SEND_TIMEOUT_MS, 3_600_000, null, 2);
+        BlockingEmitter blocked = new BlockingEmitter();
+        RecordingEmitter recording = new RecordingEmitter();
+        feed.subscribe(blocked);
+        feed.subscribe(recording);
+
+        feed.onBookingChanged(event(1L));
+        assertThat(blocked.entered.await(5, TimeUnit.SECONDS), is(true));
+        feed.onBookingChanged(event(2L));
+
+        awaitUntil(() -> recording.content().contains("bookingId=2,"));
+        assertThat(recording.content(), containsString("bookingId=1,"));
+        assertThat(feed.getNumOfSubscribers(), is(2));
+    }
+
+    @Test
+    @SneakyThrows
+    void flush_whenSendInFlightLongerThanSendTimeout_thenSubscriberDropped() {
+        feed = new BookingChangeFeed(100, 20, 60_000, SEND_TIMEOUT_MS, 3_600_000, null, 2);
+        BlockingEmitter blocked = new BlockingEmitter();
+        feed.subscribe(blocked);
+        feed.subscribe(new RecordingEmitter());
+
+        feed.onBookingChanged(event(1L));
+        assertThat(blocked.entered.await(5, TimeUnit.SECONDS), is(true));
+
+        awaitUntil(() -> feed.getNumOfSubscribers() == 1);
+        assertThat(blocked.interrupted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void heartbeat_whenNoChanges_thenCommentSent() {
+        feed = new BookingChangeFeed(100, 20, 60_000, SEND_TIMEOUT_MS, 50, null, 2);
+        RecordingEmitter recording = new RecordingEmitter();
+        feed.subscribe(recording);
+
+        awaitUntil(() -> recording.content().contains(":" + BookingChangeFeed.HEARTBEAT_COMMENT));
+        assertThat(recording.content(), not(containsString("event:")));
+    }
+
+    private BookingChangedEvent event(Long bookingId) {
+        return new BookingChangedEvent(bookingId, 1L, BookingChangeType.CREATED, checkIn, checkOut);
+    }
+
+    @SneakyThrows
+    private void awaitUntil(BooleanSupplier condition) {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean(), is(true));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> parts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(part -> parts.add(String.valueOf(part.getData())));
+        }
+
+        String content() {
+            return String.join("", parts);
+        }
+    }
+
+    /*
+     * Эмулирует клиента, который перестал читать: запись висит, пока поток отправки не прерван.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                throw new IOException("Write interrupted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ru.modgy.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.TypesBooking;
+import ru.modgy.booking.repository.BookingRepository;
+import ru.modgy.exception.ConflictException;
+import ru.modgy.owner.model.Owner;
+import ru.modgy.owner.repository.OwnerRepository;
+import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.Sex;
+import ru.modgy.pet.model.TypeOfPet;
+import ru.modgy.pet.repository.PetRepository;
+import ru.modgy.room.category.model.Category;
+import ru.modgy.room.category.repository.CategoryRepository;
+import ru.modgy.room.model.Room;
+import ru.modgy.room.repository.RoomRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Нетранзакционный тест: каждый вызов addBooking выполняется в собственной транзакции
+ * из пула потоков, созданные данные удаляются после теста.
+ */
+@Slf4j
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int CALLS = 400;
+    private static final int ROOMS = 4;
+    private static final LocalDate START_DATE = LocalDate.of(2031, 3, 1);
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final CategoryRepository categoryRepository;
+    private final OwnerRepository ownerRepository;
+    private final PetRepository petRepository;
+    private final List<Room> rooms = new ArrayList<>();
+    private Category category;
+    private Owner owner;
+    private Pet pet;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(Category.builder()
+                .name("Stress test rooms")
+                .description("Rooms for concurrent booking test")
+                .build());
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(roomRepository.save(Room.builder()
+                    .area(5.0)
+                    .number("stress room " + i)
+                    .category(category)
+                    .isVisible(true)
+                    .build()));
+        }
+        owner = ownerRepository.save(Owner.builder()
+                .firstName("Stress")
+                .lastName("Test")
+                .mainPhone("89990001122")
+                .registrationDate(LocalDateTime.now())
+                .build());
+        pet = petRepository.save(Pet.builder()
+                .owner(owner)
+                .type(TypeOfPet.DOG)
+                .name("Бобик")
+                .breed("Spaniel")
+                .birthDate(LocalDate.of(2023, 1, 1))
+                .sex(Sex.MALE)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> roomIds = rooms.stream().map(Room::getId).toList();
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getRoom() != null && roomIds.contains(booking.getRoom().getId()))
+                .toList());
+        petRepository.delete(pet);
+        ownerRepository.delete(owner);
+        roomRepository.deleteAll(rooms);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void addBooking_whenOverlappingBookingsAddedConcurrently_thenNoDoubleBookings() throws Exception {
+        Random random = new Random(42);
+        List<NewBookingDto> requests = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            LocalDate checkIn = START_DATE.plusDays(random.nextInt(20));
+            requests.add(NewBookingDto.builder()
+                    .type(TypesBooking.TYPE_BOOKING)
+                    .roomId(rooms.get(random.nextInt(ROOMS)).getId())
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn.plusDays(1 + random.nextInt(3)))
+                    .price(100.0)
+                    .amount(100.0)
+                    .prepaymentAmount(0.0)
+                    .isPrepaid(false)
+                    .petIds(List.of(pet.getId()))
+                    .build());
+        }
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (NewBookingDto request : requests) {
+            futures.add(executor.submit(() -> {
+                try {
+                    start.await();
+                    bookingService.addBooking(1L, request);
+                    added.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        log.info("addBooking stress: threads={}, calls={}, added={}, conflicts={}, elapsed={} ms, throughput={} ops/s",
+                THREADS, CALLS, added.get(), conflicts.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.1f", CALLS * 1_000_000_000.0 / elapsedNanos));
+
+        assertThat(failures, empty());
+        assertThat(added.get() + conflicts.get(), equalTo(CALLS));
+        assertThat(added.get(), greaterThanOrEqualTo(ROOMS));
+        assertThat(conflicts.get(), greaterThan(0));
+
+        List<Long> roomIds = rooms.stream().map(Room::getId).toList();
+        List<BookingInterval> intervals = bookingRepository.findAllActiveBookingIntervals().stream()
+                .filter(interval -> roomIds.contains(interval.roomId()))
+                .toList();
+        assertThat(intervals, hasSize(added.get()));
+        for (int i = 0; i < intervals.size(); i++) {
+            for (int j = i + 1; j < intervals.size(); j++) {
+                BookingInterval first = intervals.get(i);
+                BookingInterval second = intervals.get(j);
+                if (first.roomId().equals(second.roomId())) {
+                    assertThat(first + " overlaps " + second,
+                            RoomOccupancyIndex.overlaps(first, second.checkInDate(), second.checkOutDate()),
+                            is(false));
+                }
+            }
+        }
+    }
+}
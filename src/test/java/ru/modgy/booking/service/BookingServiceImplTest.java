@@ -1,5 +1,6 @@
 package ru.modgy.booking.service;
 
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,22 +9,34 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.modgy.exception.ConflictException;
 import ru.modgy.owner.dto.OwnerShortDto;
 import ru.modgy.owner.dto.mapper.OwnerMapper;
 import ru.modgy.owner.model.Owner;
 import ru.modgy.utility.EntityService;
 import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.BulkBookingResultDto;
 import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.OccupancyCalendarDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
 import ru.modgy.booking.dto.mapper.BookingMapper;
 import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.BookingCalendarEntry;
+import ru.modgy.booking.model.BookingChangeType;
+import ru.modgy.booking.model.BookingChangedEvent;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.BookingPetLink;
+import ru.modgy.booking.model.CalendarDayStatus;
 import ru.modgy.booking.model.StatusBooking;
 import ru.modgy.booking.model.TypesBooking;
 import ru.modgy.booking.repository.BookingRepository;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.dto.PetSummaryDto;
+import ru.modgy.pet.mapper.PetMapper;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.PetSummary;
 import ru.modgy.pet.model.Sex;
 import ru.modgy.pet.model.TypeOfPet;
 import ru.modgy.room.category.dto.CategoryDto;
@@ -38,9 +51,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -108,7 +123,7 @@ class BookingServiceImplTest {
             .id(1L)
             .area(5.0)
             .number("standard room")
-            .category(new Category(1L, "name", "description"))
+            .category(new Category(1L, null, "name", "description"))
             .isVisible(true)
             .build();
     private final RoomDto roomDto = RoomDto.builder()
@@ -173,25 +188,6 @@ class BookingServiceImplTest {
             .room(roomDto)
             .pets(List.of(petDto))
             .build();
-    private final Booking newBooking = Booking.builder()
-            .price(1000.00)
-            .amount(7000.00)
-            .prepaymentAmount(1000.00)
-            .isPrepaid(true)
-            .build();
-    private final Booking updatedBooking = Booking.builder()
-            .id(bookingId)
-            .type(TypesBooking.TYPE_BOOKING)
-            .checkInDate(checkIn)
-            .checkOutDate(checkOut)
-            .status(StatusBooking.STATUS_INITIAL)
-            .price(1000.00)
-            .amount(7000.00)
-            .prepaymentAmount(1000.00)
-            .isPrepaid(true)
-            .room(room)
-            .pets(List.of(pet))
-            .build();
     @InjectMocks
     private BookingServiceImpl bookingService;
     @Mock
@@ -204,12 +200,22 @@ class BookingServiceImplTest {
     private BookingMapper bookingMapper;
     @Mock
     private OwnerMapper ownerMapper;
+    @Mock
+    private PetMapper petMapper;
+    @Mock
+    private RoomOccupancyIndex roomOccupancyIndex;
+    @Mock
+    private RoomBookingLocks roomBookingLocks;
+    @Mock
+    private Validator validator;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Test
     void addBooking_whenAddBookingByBoss_thenBookingAdded() {
         when(entityService.getUserIfExists(anyLong())).thenReturn(boss);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
-        when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
+        when(entityService.getRoomForUpdateIfExists(anyLong())).thenReturn(room);
         when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
         when(bookingMapper.toBooking(any(NewBookingDto.class))).thenReturn(booking);
         when(bookingMapper.toBookingDto(any(Booking.class))).thenReturn(bookingDto);
@@ -231,24 +237,119 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingDto.getRoom(), result.getRoom());
         Assertions.assertEquals(bookingDto.getPets(), result.getPets());
 
+        verify(roomBookingLocks, times(1)).lockUntilTransactionEnds(newBookingDto.getRoomId());
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(booking.getId(), room.getId(),
+                BookingChangeType.CREATED, booking.getCheckInDate(), booking.getCheckOutDate()));
     }
 
     @Test
     void addBooking_whenAddBookingAndRoomNotFound_thenNotFoundException() {
         doThrow(new NotFoundException(String.format("Room with id=%d is not found", user.getId())))
-                .when(entityService).getRoomIfExists(anyLong());
+                .when(entityService).getRoomForUpdateIfExists(anyLong());
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.addBooking(user.getId(), newBookingDto));
     }
 
+    @Test
+    void addBooking_whenBookingCommittedByOtherInstance_thenConflictException() {
+        when(entityService.getRoomForUpdateIfExists(anyLong())).thenReturn(room);
+        when(bookingMapper.toBooking(any(NewBookingDto.class))).thenReturn(booking);
+        when(bookingRepository.findBookingsForRoomInDates(anyLong(), any(), any()))
+                .thenReturn(Optional.of(List.of(booking)));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.addBooking(user.getId(), newBookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void addBookings_whenRowsConflictOrMissing_thenPerRowResultsAndSingleBatchSaved() {
+        NewBookingDto overlappingRow = newBookingRow(1L, checkIn, checkOut);
+        NewBookingDto missingRoomRow = newBookingRow(2L, checkIn, checkOut);
+        NewBookingDto wrongDatesRow = newBookingRow(1L, checkOut, checkIn);
+        NewBookingDto bookedInDatabaseRow = newBookingRow(1L, checkIn.plusDays(10), checkOut.plusDays(10));
+        doThrow(new ConflictException("CheckInDate is after CheckOutDate"))
+                .when(utilityService).checkDatesOfBooking(checkOut, checkIn);
+        when(entityService.getListOfRoomsForUpdateByIds(any())).thenReturn(List.of(room));
+        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
+        when(bookingRepository.findActiveBookingIntervalsForRoomsInDates(any(), any(), any()))
+                .thenReturn(List.of(new BookingInterval(5L, room.getId(),
+                        checkIn.plusDays(10), checkOut.plusDays(10))));
+        when(bookingMapper.toBooking(any(NewBookingDto.class))).thenAnswer(invocation -> {
+            NewBookingDto row = invocation.getArgument(0);
+            return Booking.builder()
+                    .type(row.getType())
+                    .checkInDate(row.getCheckInDate())
+                    .checkOutDate(row.getCheckOutDate())
+                    .build();
+        });
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(addedBooking -> addedBooking.setId(10L));
+            return bookings;
+        });
+
+        List<BulkBookingResultDto> result = bookingService.addBookings(boss.getId(),
+                List.of(newBookingDto, overlappingRow, missingRoomRow, wrongDatesRow, bookedInDatabaseRow));
+
+        Assertions.assertEquals(5, result.size());
+        Assertions.assertEquals(BulkBookingResultDto.Status.CREATED, result.get(0).getStatus());
+        Assertions.assertEquals(10L, result.get(0).getBookingId());
+        Assertions.assertEquals("Room with id=1 is not available for current dates", result.get(1).getError());
+        Assertions.assertEquals("Room with id=2 is not found", result.get(2).getError());
+        Assertions.assertEquals("CheckInDate is after CheckOutDate", result.get(3).getError());
+        Assertions.assertEquals("Room with id=1 is not available for current dates", result.get(4).getError());
+        for (int i = 1; i < result.size(); i++) {
+            Assertions.assertEquals(i, result.get(i).getIndex());
+            Assertions.assertEquals(BulkBookingResultDto.Status.REJECTED, result.get(i).getStatus());
+        }
+
+        verify(roomBookingLocks, times(1)).lockAllUntilTransactionEnds(Set.of(1L, 2L));
+        verify(entityService, times(1)).getListOfRoomsForUpdateByIds(any());
+        verify(entityService, times(1)).getListOfPetsByIds(List.of(pet.getId()));
+        verify(bookingRepository, times(1)).findActiveBookingIntervalsForRoomsInDates(
+                Set.of(1L, 2L), checkIn, checkOut.plusDays(10));
+        verify(bookingRepository, times(1)).saveAll(argThat(bookings -> {
+            Booking addedBooking = bookings.iterator().next();
+            return addedBooking.getRoom() == room && addedBooking.getPets().equals(List.of(pet))
+                    && addedBooking.getStatus() == StatusBooking.STATUS_INITIAL;
+        }));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void addBookings_whenAllRowsInvalid_thenNothingLoadedOrLocked() {
+        doThrow(new ConflictException("CheckInDate is after CheckOutDate"))
+                .when(utilityService).checkDatesOfBooking(any(), any());
+
+        List<BulkBookingResultDto> result = bookingService.addBookings(boss.getId(), List.of(newBookingDto));
+
+        Assertions.assertEquals(BulkBookingResultDto.Status.REJECTED, result.get(0).getStatus());
+        verifyNoInteractions(roomBookingLocks, entityService);
+        verify(bookingRepository, never()).findActiveBookingIntervalsForRoomsInDates(any(), any(), any());
+    }
+
+    private NewBookingDto newBookingRow(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        return NewBookingDto.builder()
+                .type(TypesBooking.TYPE_BOOKING)
+                .roomId(roomId)
+                .checkInDate(checkInDate)
+                .checkOutDate(checkOutDate)
+                .petIds(List.of(1L))
+                .build();
+    }
+
     @Test
     void getBookingById_whenGetBookingByBoss_thenReturnedBooking() {
         when(entityService.getUserIfExists(anyLong())).thenReturn(boss);
         when(entityService.getBookingIfExists(anyLong())).thenReturn(booking);
-        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
-        when(bookingMapper.toBookingDto(any(Booking.class))).thenReturn(bookingDto);
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetsWithOwnersByIds(any())).thenReturn(List.of(pet));
+        when(petMapper.toPetDto(pet)).thenReturn(petDto);
 
         BookingDto result = bookingService.getBookingById(boss.getId(), bookingId);
 
@@ -281,12 +382,10 @@ class BookingServiceImplTest {
     void updateBookingById_whenRequesterBossAndBookingFound_thenUpdateAllFields() {
         when(entityService.getUserIfExists(anyLong())).thenReturn(boss);
         when(entityService.getBookingIfExists(anyLong())).thenReturn(booking);
-        when(bookingMapper.toBooking(any(UpdateBookingDto.class))).thenReturn(newBooking);
         when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
         when(entityService.getPetIfExists(anyLong())).thenReturn(pet);
         when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
         when(bookingMapper.toBookingDto(any(Booking.class))).thenReturn(updatedBookingDto);
-        when(bookingRepository.save(any(Booking.class))).thenReturn(updatedBooking);
 
         BookingDto result = bookingService.updateBooking(boss.getId(), bookingId, updateBookingDto);
 
@@ -304,8 +403,22 @@ class BookingServiceImplTest {
         Assertions.assertEquals(updatedBookingDto.getRoom(), result.getRoom());
         Assertions.assertEquals(updatedBookingDto.getPets(), result.getPets());
 
-        verify(bookingRepository, times(1)).save(any(Booking.class));
-        verifyNoMoreInteractions(bookingRepository);
+        verify(bookingMapper).updateBooking(updateBookingDto, booking);
+        verify(roomBookingLocks).lockUntilTransactionEnds(room.getId());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void updateBookingById_whenRoomChanged_thenCurrentAndNewRoomsLocked() {
+        Room newRoom = Room.builder().id(room.getId() + 1).isVisible(true).build();
+        when(entityService.getBookingIfExists(anyLong())).thenReturn(booking);
+        when(entityService.getRoomIfExists(newRoom.getId())).thenReturn(newRoom);
+        when(bookingMapper.toBookingDto(any(Booking.class))).thenReturn(updatedBookingDto);
+
+        bookingService.updateBooking(boss.getId(), bookingId, UpdateBookingDto.builder().roomId(newRoom.getId()).build());
+
+        verify(roomBookingLocks).lockAllUntilTransactionEnds(Set.of(room.getId(), newRoom.getId()));
+        verify(roomBookingLocks, never()).lockUntilTransactionEnds(anyLong());
     }
 
     @Test
@@ -322,12 +435,13 @@ class BookingServiceImplTest {
     @Test
     void deleteBookingId_whenRequesterBossAndBookingFound_thenBookingDeleted() {
         when(entityService.getUserIfExists(anyLong())).thenReturn(boss);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
         when(bookingRepository.deleteBookingById(anyLong())).thenReturn(1);
 
         bookingService.deleteBookingById(boss.getId(), bookingId);
 
+        verify(roomBookingLocks).lockUntilTransactionEnds(room.getId());
         verify(bookingRepository, times(1)).deleteBookingById(anyLong());
-        verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
@@ -341,19 +455,24 @@ class BookingServiceImplTest {
     @Test
     void deleteBookingById_whenRequesterFoundAndBookingNotFound_thenNotFoundException() {
         when(entityService.getUserIfExists(anyLong())).thenReturn(boss);
-        when(entityService.getBookingIfExists(anyLong())).thenReturn(null);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> bookingService.deleteBookingById(boss.getId(), bookingId));
+        verifyNoInteractions(roomBookingLocks);
+        verify(bookingRepository, never()).deleteBookingById(anyLong());
     }
 
     @Test
     void findCrossingBookingsForRoomInDates_whenOneCrossingBooking_thenReturnedListOfBooking() {
         when(bookingRepository.findCrossingBookingsForRoomInDates(anyLong(), any(), any())).thenReturn(Optional.of(List.of(booking)));
-        when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
-        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetsWithOwnersByIds(any())).thenReturn(List.of(pet));
+        when(petMapper.toPetDto(pet)).thenReturn(petDto);
 
-        List<BookingDto> result = bookingService.findCrossingBookingsForRoomInDates(boss.getId(), room.getId(), checkIn, checkOut);
+        List<BookingDto> result = bookingService.findCrossingBookingsForRoomInDates(boss.getId(), room.getId(), checkIn, checkOut, true);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1L, result.get(0).getId());
@@ -370,16 +489,21 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingDto.getPets(), result.get(0).getPets());
 
         verify(bookingRepository, times(1)).findCrossingBookingsForRoomInDates(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).findPetLinksByBookingIds(List.of(bookingId));
         verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
     void findBlockingBookingsForRoomInDates_whenOneBlockingBooking_thenReturnedListOfBooking() {
-        when(bookingRepository.findBookingsForRoomInDates(anyLong(), any(), any())).thenReturn(Optional.of(List.of(booking)));
-        when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
-        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
+        when(roomOccupancyIndex.findBlockingBookingIds(anyLong(), any(), any())).thenReturn(List.of(bookingId));
+        when(bookingRepository.findAllById(List.of(bookingId))).thenReturn(List.of(booking));
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetsWithOwnersByIds(any())).thenReturn(List.of(pet));
+        when(petMapper.toPetDto(pet)).thenReturn(petDto);
 
-        List<BookingDto> result = bookingService.findBlockingBookingsForRoomInDates(boss.getId(), room.getId(), checkIn, checkOut);
+        List<BookingDto> result = bookingService.findBlockingBookingsForRoomInDates(boss.getId(), room.getId(), checkIn, checkOut, true);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1L, result.get(0).getId());
@@ -395,13 +519,14 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingDto.getRoom(), result.get(0).getRoom());
         Assertions.assertEquals(bookingDto.getPets(), result.get(0).getPets());
 
-        verify(bookingRepository, times(1)).findBookingsForRoomInDates(anyLong(), any(), any());
+        verify(bookingRepository, times(1)).findAllById(List.of(bookingId));
+        verify(bookingRepository, times(1)).findPetLinksByBookingIds(List.of(bookingId));
         verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
     void checkRoomAvailableInDates_whenOneBlockingBooking_thenConflictException() {
-        when(bookingRepository.findBookingsForRoomInDates(anyLong(), any(), any())).thenReturn(Optional.of(List.of(booking)));
+        when(roomOccupancyIndex.findBlockingBookingIds(anyLong(), any(), any())).thenReturn(List.of(bookingId));
 
         assertThrows(ConflictException.class,
                 () -> bookingService.checkRoomAvailableInDates(boss.getId(), room.getId(), checkIn, checkOut));
@@ -409,14 +534,15 @@ class BookingServiceImplTest {
 
     @Test
     void checkRoomAvailableInDates_whenNoBlockingBooking_thenNoConflictException() {
-        when(bookingRepository.findBookingsForRoomInDates(anyLong(), any(), any())).thenReturn(Optional.empty());
+        when(roomOccupancyIndex.findBlockingBookingIds(anyLong(), any(), any())).thenReturn(List.of());
 
         Assertions.assertDoesNotThrow(() -> bookingService.checkRoomAvailableInDates(boss.getId(), room.getId(), checkIn, checkOut));
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void checkUpdateBookingRoomAvailableInDates_whenOneUpdatingBookingAndNoBlocking_thenNoConflictException() {
-        when(bookingRepository.findBookingsForRoomInDates(anyLong(), any(), any())).thenReturn(Optional.of(List.of(booking)));
+        when(roomOccupancyIndex.findBlockingBookingIds(anyLong(), any(), any())).thenReturn(List.of(bookingId));
 
         Assertions.assertDoesNotThrow(() -> bookingService.checkUpdateBookingRoomAvailableInDates(boss.getId(), room.getId(), bookingId, checkIn, checkOut));
     }
@@ -436,7 +562,8 @@ class BookingServiceImplTest {
                 .room(room)
                 .pets(List.of(pet))
                 .build();
-        when(bookingRepository.findBookingsForRoomInDates(anyLong(), any(), any())).thenReturn(Optional.of(List.of(booking, blockingBooking)));
+        when(roomOccupancyIndex.findBlockingBookingIds(anyLong(), any(), any()))
+                .thenReturn(List.of(bookingId, blockingBooking.getId()));
 
         assertThrows(ConflictException.class,
                 () -> bookingService.checkRoomAvailableInDates(boss.getId(), room.getId(), checkIn, checkOut));
@@ -445,10 +572,13 @@ class BookingServiceImplTest {
     @Test
     void findAllBookingsInDates_whenOneBooking_thenReturnedListOfBooking() {
         when(bookingRepository.findAllBookingsInDates(any(), any())).thenReturn(Optional.of(List.of(booking)));
-        when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
-        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetsWithOwnersByIds(any())).thenReturn(List.of(pet));
+        when(petMapper.toPetDto(pet)).thenReturn(petDto);
 
-        List<BookingDto> result = bookingService.findAllBookingsInDates(boss.getId(), checkIn, checkOut);
+        List<BookingDto> result = bookingService.findAllBookingsInDates(boss.getId(), checkIn, checkOut, true);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1L, result.get(0).getId());
@@ -465,16 +595,20 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingDto.getPets(), result.get(0).getPets());
 
         verify(bookingRepository, times(1)).findAllBookingsInDates(any(), any());
+        verify(bookingRepository, times(1)).findPetLinksByBookingIds(List.of(bookingId));
         verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
     void findAllBookingsByPet_whenOneBooking_thenReturnedListOfBooking() {
         when(bookingRepository.findAllBookingsByPet(any())).thenReturn(Optional.of(List.of(booking)));
-        when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
-        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetsWithOwnersByIds(any())).thenReturn(List.of(pet));
+        when(petMapper.toPetDto(pet)).thenReturn(petDto);
 
-        List<BookingDto> result = bookingService.findAllBookingsByPet(boss.getId(), pet.getId());
+        List<BookingDto> result = bookingService.findAllBookingsByPet(boss.getId(), pet.getId(), true);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1L, result.get(0).getId());
@@ -491,16 +625,20 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingDto.getPets(), result.get(0).getPets());
 
         verify(bookingRepository, times(1)).findAllBookingsByPet(any());
+        verify(bookingRepository, times(1)).findPetLinksByBookingIds(List.of(bookingId));
         verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
     void findAllBookingsByOwner_whenOneBooking_thenReturnedListOfBooking() {
         when(bookingRepository.findAllBookingsByOwner(any())).thenReturn(Optional.of(List.of(booking)));
-        when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
-        when(entityService.getListOfPetsByIds(any())).thenReturn(List.of(pet));
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetsWithOwnersByIds(any())).thenReturn(List.of(pet));
+        when(petMapper.toPetDto(pet)).thenReturn(petDto);
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(boss.getId(), owner.getId());
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(boss.getId(), owner.getId(), true);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1L, result.get(0).getId());
@@ -517,6 +655,82 @@ class BookingServiceImplTest {
         Assertions.assertEquals(bookingDto.getPets(), result.get(0).getPets());
 
         verify(bookingRepository, times(1)).findAllBookingsByOwner(any());
+        verify(bookingRepository, times(1)).findPetLinksByBookingIds(List.of(bookingId));
         verifyNoMoreInteractions(bookingRepository);
     }
+
+    @Test
+    void findAllBookingsByOwner_whenDetailsNotExpanded_thenPetSummariesReturned() {
+        PetSummary petSummary = new PetSummary(pet.getId(), pet.getType(), pet.getName(), pet.getBreed(),
+                owner.getId(), owner.getLastName(), owner.getFirstName(), owner.getMiddleName(),
+                owner.getMainPhone(), owner.getOptionalPhone(), owner.getRegistrationDate());
+        PetSummaryDto petSummaryDto = PetSummaryDto.builder()
+                .id(pet.getId())
+                .type(pet.getType())
+                .name(pet.getName())
+                .breed(pet.getBreed())
+                .ownerShortDto(ownerShortDto)
+                .build();
+        when(bookingRepository.findAllBookingsByOwner(any())).thenReturn(Optional.of(List.of(booking)));
+        when(bookingMapper.toBookingDtoWithoutPets(booking)).thenReturn(bookingDto);
+        when(bookingRepository.findPetLinksByBookingIds(any()))
+                .thenReturn(List.of(new BookingPetLink(bookingId, pet.getId())));
+        when(entityService.getListOfPetSummariesByIds(any())).thenReturn(List.of(petSummary));
+        when(petMapper.toPetSummaryDto(petSummary)).thenReturn(petSummaryDto);
+
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(boss.getId(), owner.getId(), false);
+
+        Assertions.assertEquals(List.of(petSummaryDto), result.get(0).getPets());
+        verify(entityService, never()).getListOfPetsWithOwnersByIds(any());
+        verify(petMapper, never()).toPetDto(any());
+    }
+
+    @Test
+    void getOccupancyCalendar_whenBookingsInDates_thenDaysMarkedByPriority() {
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 5);
+        when(entityService.getListOfVisibleRooms(null)).thenReturn(List.of(room));
+        when(bookingRepository.findCalendarEntriesInDates(startDate, endDate, null)).thenReturn(List.of(
+                new BookingCalendarEntry(room.getId(), TypesBooking.TYPE_BOOKING, StatusBooking.STATUS_INITIAL,
+                        LocalDate.of(2023, 12, 28), LocalDate.of(2024, 1, 2)),
+                new BookingCalendarEntry(room.getId(), TypesBooking.TYPE_BOOKING, StatusBooking.STATUS_CONFIRMED,
+                        LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3)),
+                new BookingCalendarEntry(room.getId(), TypesBooking.TYPE_CLOSING, StatusBooking.STATUS_INITIAL,
+                        LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 10))));
+
+        OccupancyCalendarDto result = bookingService.getOccupancyCalendar(boss.getId(), startDate, endDate, null);
+
+        Assertions.assertEquals(1, result.getRooms().size());
+        Assertions.assertEquals(room.getId(), result.getRooms().get(0).getRoomId());
+        Assertions.assertEquals(List.of(
+                        CalendarDayStatus.INITIAL,
+                        CalendarDayStatus.BOOKED,
+                        CalendarDayStatus.BOOKED,
+                        CalendarDayStatus.FREE,
+                        CalendarDayStatus.CLOSING),
+                result.getRooms().get(0).getDays());
+        verify(bookingRepository, times(1)).findCalendarEntriesInDates(startDate, endDate, null);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void getOccupancyCalendar_whenPeriodLongerThanMax_thenConflictException() {
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = startDate.plusDays(BookingServiceImpl.MAX_CALENDAR_DAYS);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.getOccupancyCalendar(boss.getId(), startDate, endDate, null));
+        verifyNoInteractions(bookingRepository);
+        verify(entityService, never()).getListOfVisibleRooms(any());
+    }
+
+    @Test
+    void getOccupancyCalendar_whenCategoryNotFound_thenNotFoundException() {
+        when(entityService.getCategoryIfExists(anyLong()))
+                .thenThrow(new NotFoundException("Category with id=1 is not found"));
+
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getOccupancyCalendar(boss.getId(), checkIn, checkOut, 1L));
+        verifyNoInteractions(bookingRepository);
+    }
 }
@@ -2,16 +2,28 @@ package ru.modgy.booking.service;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 import ru.modgy.booking.dto.BookingDto;
+import ru.modgy.booking.dto.BulkBookingResultDto;
 import ru.modgy.booking.dto.NewBookingDto;
+import ru.modgy.booking.dto.OccupancyCalendarDto;
 import ru.modgy.booking.dto.UpdateBookingDto;
 import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.BookingChangeType;
+import ru.modgy.booking.model.BookingChangedEvent;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.CalendarDayStatus;
 import ru.modgy.booking.model.StatusBooking;
 import ru.modgy.booking.model.TypesBooking;
 import ru.modgy.exception.ConflictException;
@@ -32,18 +44,23 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest
 @ActiveProfiles("test")
+@RecordApplicationEvents
 class BookingServiceIntegrationTest {
     private final LocalDate checkIn = LocalDate.of(2024, 1, 1);
     private final LocalDate checkOut = LocalDate.of(2024, 1, 2);
@@ -139,8 +156,10 @@ class BookingServiceIntegrationTest {
             .prepaymentAmount(1000.00)
             .isPrepaid(true)
             .build();
+    private final List<Long> indexedBookingIds = new ArrayList<>();
     private final EntityManager em;
     private final BookingService service;
+    private final RoomOccupancyIndex roomOccupancyIndex;
 
     @Test
     void addBooking() {
@@ -168,6 +187,28 @@ class BookingServiceIntegrationTest {
         assertThat(result.getPets().size(), equalTo(1));
     }
 
+    @Test
+    void entityToString_whenAssociationsNotLoaded_thenNoLazyLoading() {
+        em.persist(category);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        em.persist(booking);
+        em.flush();
+        em.clear();
+
+        Booking foundBooking = em.find(Booking.class, booking.getId());
+        Owner foundOwner = em.find(Owner.class, owner.getId());
+        Pet foundPet = em.find(Pet.class, pet.getId());
+        String text = foundBooking.toString() + foundOwner.toString() + foundPet.toString();
+
+        assertThat(text.contains("Шарик"), equalTo(true));
+        assertThat(Hibernate.isInitialized(foundBooking.getPets()), equalTo(false));
+        assertThat(Hibernate.isInitialized(foundBooking.getRoom()), equalTo(false));
+        assertThat(Hibernate.isInitialized(foundOwner.getPets()), equalTo(false));
+        assertThat(Hibernate.isInitialized(foundPet.getBookings()), equalTo(false));
+    }
+
     @Test
     void getBookingById() {
         em.persist(requesterAdmin);
@@ -222,6 +263,85 @@ class BookingServiceIntegrationTest {
         assertThat(result.getPets().size(), equalTo(1));
     }
 
+    @Test
+    void getBookingETag_whenBookingOrPetChanged_thenETagChanged() {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        em.persist(booking);
+        em.flush();
+
+        String initialETag = service.getBookingETag(requesterAdmin.getId(), booking.getId());
+
+        service.updateBooking(requesterAdmin.getId(), booking.getId(), updateBookingDto);
+        em.flush();
+        String bookingChangedETag = service.getBookingETag(requesterAdmin.getId(), booking.getId());
+
+        owner.setFirstName("new name");
+        em.flush();
+        String ownerChangedETag = service.getBookingETag(requesterAdmin.getId(), booking.getId());
+
+        assertThat(initialETag, notNullValue());
+        assertNotEquals(initialETag, bookingChangedETag);
+        assertNotEquals(bookingChangedETag, ownerChangedETag);
+        assertThat(service.getBookingETag(requesterAdmin.getId(), booking.getId()), equalTo(ownerChangedETag));
+        assertThat(service.getBookingETag(requesterAdmin.getId(), booking.getId() + 1000), nullValue());
+    }
+
+    @Test
+    void updateBooking_whenFieldsNull_thenStoredValuesKept() {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        em.persist(booking);
+        UpdateBookingDto commentOnly = UpdateBookingDto.builder()
+                .comment("new comment")
+                .build();
+
+        service.updateBooking(requesterAdmin.getId(), booking.getId(), commentOnly);
+        em.flush();
+        em.clear();
+        Booking actualBooking = em.find(Booking.class, booking.getId());
+
+        assertThat(actualBooking.getComment(), equalTo(commentOnly.getComment()));
+        assertThat(actualBooking.getType(), equalTo(TypesBooking.TYPE_BOOKING));
+        assertThat(actualBooking.getCheckInDate(), equalTo(checkIn));
+        assertThat(actualBooking.getCheckOutDate(), equalTo(checkOut));
+        assertThat(actualBooking.getStatus(), equalTo(StatusBooking.STATUS_INITIAL));
+        assertThat(actualBooking.getPrice(), equalTo(0.0));
+        assertThat(actualBooking.getAmount(), equalTo(0.0));
+        assertThat(actualBooking.getPrepaymentAmount(), equalTo(0.0));
+        assertThat(actualBooking.getIsPrepaid(), equalTo(false));
+        assertThat(actualBooking.getRoom().getId(), equalTo(room.getId()));
+        assertThat(actualBooking.getPets(), hasSize(1));
+    }
+
+    @Test
+    void updateAndDeleteBooking_thenChangeEventsPublished(@Autowired ApplicationEvents events) {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        em.persist(booking);
+
+        service.updateBooking(requesterAdmin.getId(), booking.getId(), updateBookingDto);
+        service.updateBooking(requesterAdmin.getId(), booking.getId(), UpdateBookingDto.builder()
+                .status(StatusBooking.STATUS_CANCELLED)
+                .reasonOfCancel("cancel")
+                .build());
+        service.deleteBookingById(requesterAdmin.getId(), booking.getId());
+
+        assertThat(events.stream(BookingChangedEvent.class).toList(), equalTo(List.of(
+                new BookingChangedEvent(booking.getId(), room.getId(), BookingChangeType.UPDATED, checkIn, checkOut),
+                new BookingChangedEvent(booking.getId(), room.getId(), BookingChangeType.CANCELLED, checkIn, checkOut),
+                new BookingChangedEvent(booking.getId(), null, BookingChangeType.DELETED, null, null))));
+    }
+
     @Test
     void deleteBookingById() {
         em.persist(requesterAdmin);
@@ -254,7 +374,7 @@ class BookingServiceIntegrationTest {
         em.persist(booking);
 
         List<BookingDto> result = service.findCrossingBookingsForRoomInDates(
-                requesterAdmin.getId(), room.getId(), checkIn, checkOut);
+                requesterAdmin.getId(), room.getId(), checkIn, checkOut, false);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getId(), notNullValue());
@@ -279,9 +399,11 @@ class BookingServiceIntegrationTest {
         em.persist(owner);
         em.persist(pet);
         em.persist(booking);
+        em.flush();
+        addToOccupancyIndex(booking);
 
         List<BookingDto> result = service.findBlockingBookingsForRoomInDates(
-                requesterAdmin.getId(), room.getId(), checkIn, checkOut);
+                requesterAdmin.getId(), room.getId(), checkIn, checkOut, false);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getId(), notNullValue());
@@ -306,6 +428,8 @@ class BookingServiceIntegrationTest {
         em.persist(owner);
         em.persist(pet);
         em.persist(booking);
+        em.flush();
+        addToOccupancyIndex(booking);
 
         String error = String.format("Room with id=%d is not available for current dates", room.getId());
         ConflictException exception = assertThrows(
@@ -350,6 +474,8 @@ class BookingServiceIntegrationTest {
         em.persist(pet);
         em.persist(booking);
         em.persist(blockingBooking);
+        em.flush();
+        addToOccupancyIndex(booking, blockingBooking);
 
         String error = String.format("Room with id=%d is not available for current dates", room.getId());
         ConflictException exception = assertThrows(
@@ -370,7 +496,7 @@ class BookingServiceIntegrationTest {
         em.persist(booking);
 
         List<BookingDto> result = service.findAllBookingsInDates(
-                requesterAdmin.getId(), checkIn, checkOut);
+                requesterAdmin.getId(), checkIn, checkOut, false);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getId(), notNullValue());
@@ -397,7 +523,7 @@ class BookingServiceIntegrationTest {
         em.persist(booking);
 
         List<BookingDto> result = service.findAllBookingsByPet(
-                requesterAdmin.getId(), pet.getId());
+                requesterAdmin.getId(), pet.getId(), false);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getId(), notNullValue());
@@ -424,7 +550,7 @@ class BookingServiceIntegrationTest {
         em.persist(booking);
 
         List<BookingDto> result = service.findAllBookingsByOwner(
-                requesterAdmin.getId(), owner.getId());
+                requesterAdmin.getId(), owner.getId(), false);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getId(), notNullValue());
@@ -440,4 +566,192 @@ class BookingServiceIntegrationTest {
         assertThat(result.get(0).getRoom().getNumber(), equalTo(bookingDto.getRoom().getNumber()));
         assertThat(result.get(0).getPets().size(), equalTo(1));
     }
+
+    @Test
+    void findAllBookingsInDates_whenManyBookings_thenStatementCountNotGrowing() {
+        LocalDate singleBookingDate = LocalDate.of(2030, 1, 10);
+        LocalDate manyBookingsDate = LocalDate.of(2031, 1, 10);
+        em.persist(requesterAdmin);
+        em.persist(category);
+        persistBookingWithOwnerAndPet(0, singleBookingDate);
+        for (int i = 1; i <= 10; i++) {
+            persistBookingWithOwnerAndPet(i, manyBookingsDate);
+        }
+        em.flush();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        statistics.clear();
+        List<BookingDto> singleResult = service.findAllBookingsInDates(
+                requesterAdmin.getId(), singleBookingDate, singleBookingDate.plusDays(1), false);
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        em.clear();
+        statistics.clear();
+        List<BookingDto> manyResult = service.findAllBookingsInDates(
+                requesterAdmin.getId(), manyBookingsDate, manyBookingsDate.plusDays(1), false);
+        long manyStatements = statistics.getPrepareStatementCount();
+
+        assertThat(singleResult, hasSize(1));
+        assertThat(manyResult, hasSize(10));
+        assertThat(manyResult.get(0).getPets().get(0).getOwnerShortDto(), notNullValue());
+        assertEquals(singleStatements, manyStatements);
+    }
+
+    @Test
+    void streamAllBookingsInDates_whenManyBookings_thenConsumedByChunks() {
+        LocalDate bookingsDate = LocalDate.of(2033, 1, 10);
+        em.persist(requesterAdmin);
+        em.persist(category);
+        for (int i = 1; i <= 10; i++) {
+            persistBookingWithOwnerAndPet(i, bookingsDate);
+        }
+        em.flush();
+        em.clear();
+
+        List<List<BookingDto>> chunks = new ArrayList<>();
+        service.streamAllBookingsInDates(requesterAdmin.getId(), bookingsDate, bookingsDate.plusDays(1), true, 4,
+                chunks::add);
+
+        assertThat(chunks.stream().map(List::size).toList(), equalTo(List.of(4, 4, 2)));
+        assertThat(chunks.stream().flatMap(List::stream).map(BookingDto::getId).distinct().count(), equalTo(10L));
+        assertThat(chunks.get(2).get(0).getPets().get(0).getOwnerShortDto(), notNullValue());
+        assertThat(chunks.get(2).get(0).getRoom().getCategoryDto(), notNullValue());
+    }
+
+    @Test
+    void addBookings_whenBatchImported_thenInsertsBatchedAndExportedByChunks() {
+        LocalDate startDate = LocalDate.of(2032, 1, 1);
+        int rows = 60;
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        em.flush();
+        List<NewBookingDto> newBookingDtos = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            newBookingDtos.add(NewBookingDto.builder()
+                    .type(TypesBooking.TYPE_BOOKING)
+                    .roomId(room.getId())
+                    .checkInDate(startDate.plusDays(i))
+                    .checkOutDate(startDate.plusDays(i + 1))
+                    .isPrepaid(false)
+                    .petIds(List.of(pet.getId()))
+                    .build());
+        }
+        newBookingDtos.add(NewBookingDto.builder()
+                .type(TypesBooking.TYPE_BOOKING)
+                .roomId(room.getId())
+                .checkInDate(startDate)
+                .checkOutDate(startDate.plusDays(3))
+                .petIds(List.of(pet.getId()))
+                .build());
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        statistics.clear();
+        List<BulkBookingResultDto> result = service.addBookings(requesterAdmin.getId(), newBookingDtos);
+        em.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(result, hasSize(rows + 1));
+        assertThat(result.stream().filter(row -> row.getStatus() == BulkBookingResultDto.Status.CREATED).count(),
+                equalTo((long) rows));
+        assertThat(result.get(rows).getStatus(), equalTo(BulkBookingResultDto.Status.REJECTED));
+        assertThat(statements, lessThan((long) rows));
+
+        List<Long> exportedIds = new ArrayList<>();
+        Long afterId = null;
+        List<BookingDto> chunk;
+        do {
+            chunk = service.findAllBookingsInDatesAfter(requesterAdmin.getId(), startDate,
+                    startDate.plusDays(rows), afterId, 25);
+            chunk.forEach(exportedBooking -> exportedIds.add(exportedBooking.getId()));
+            afterId = chunk.isEmpty() ? afterId : chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == 25);
+
+        assertThat(exportedIds, equalTo(result.stream()
+                .map(BulkBookingResultDto::getBookingId)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList()));
+    }
+
+    @Test
+    void getOccupancyCalendar() {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        em.persist(owner);
+        em.persist(pet);
+        em.persist(booking);
+
+        OccupancyCalendarDto result = service.getOccupancyCalendar(
+                requesterAdmin.getId(), checkIn.minusDays(1), checkOut.plusDays(1), category.getId());
+
+        assertThat(result.getRooms(), hasSize(1));
+        assertThat(result.getRooms().get(0).getRoomId(), equalTo(room.getId()));
+        assertThat(result.getRooms().get(0).getDays(), equalTo(List.of(
+                CalendarDayStatus.FREE,
+                CalendarDayStatus.INITIAL,
+                CalendarDayStatus.INITIAL,
+                CalendarDayStatus.FREE)));
+    }
+
+    private void persistBookingWithOwnerAndPet(int number, LocalDate checkInDate) {
+        Room newRoom = Room.builder()
+                .area(5.0)
+                .number("room " + number)
+                .category(category)
+                .isVisible(true)
+                .build();
+        Owner newOwner = Owner.builder()
+                .firstName("Owner " + number)
+                .lastName("Ivanov")
+                .mainPhone(String.format("8910%07d", number))
+                .registrationDate(registrationDate)
+                .build();
+        Pet newPet = Pet.builder()
+                .owner(newOwner)
+                .type(TypeOfPet.DOG)
+                .name("Pet " + number)
+                .breed("Spaniel")
+                .birthDate(LocalDate.of(2023, 1, 1))
+                .sex(Sex.FEMALE)
+                .build();
+        Booking newBooking = Booking.builder()
+                .type(TypesBooking.TYPE_BOOKING)
+                .checkInDate(checkInDate)
+                .checkOutDate(checkInDate.plusDays(1))
+                .status(StatusBooking.STATUS_INITIAL)
+                .price(0.0)
+                .amount(0.0)
+                .prepaymentAmount(0.0)
+                .isPrepaid(false)
+                .room(newRoom)
+                .pets(List.of(newPet))
+                .build();
+        em.persist(newRoom);
+        em.persist(newOwner);
+        em.persist(newPet);
+        em.persist(newBooking);
+    }
+
+    /*
+     * Индекс занятости обновляется только после фиксации транзакции, а тестовая транзакция откатывается,
+     * поэтому бронирования, сохраненные в тесте, добавляются в индекс вручную и удаляются из него после теста.
+     */
+    private void addToOccupancyIndex(Booking... bookings) {
+        for (Booking indexed : bookings) {
+            roomOccupancyIndex.put(new BookingInterval(indexed.getId(), indexed.getRoom().getId(),
+                    indexed.getCheckInDate(), indexed.getCheckOutDate()));
+            indexedBookingIds.add(indexed.getId());
+        }
+    }
+
+    @AfterEach
+    void removeFromOccupancyIndex() {
+        indexedBookingIds.forEach(roomOccupancyIndex::remove);
+    }
 }
@@ -0,0 +1,180 @@
+package ru.modgy.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.modgy.booking.model.BookingInterval;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class RoomOccupancyIndexTest {
+    private final Long roomId = 1L;
+    private final LocalDate checkIn = LocalDate.of(2024, 1, 10);
+    private final LocalDate checkOut = LocalDate.of(2024, 1, 15);
+    private final BookingInterval booking = new BookingInterval(1L, roomId, checkIn, checkOut);
+    private RoomOccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RoomOccupancyIndex();
+        index.load(List.of(booking));
+    }
+
+    @Test
+    void findBlockingBookingIds_whenDatesOverlap_thenReturnedBookingId() {
+        Assertions.assertEquals(List.of(1L),
+                index.findBlockingBookingIds(roomId, checkIn.minusDays(2), checkIn.plusDays(1)));
+        Assertions.assertEquals(List.of(1L),
+                index.findBlockingBookingIds(roomId, checkIn.plusDays(1), checkOut.plusDays(3)));
+        Assertions.assertEquals(List.of(1L),
+                index.findBlockingBookingIds(roomId, checkIn.plusDays(1), checkIn.plusDays(2)));
+    }
+
+    @Test
+    void findBlockingBookingIds_whenDatesOnlyTouch_thenReturnedEmptyList() {
+        Assertions.assertTrue(index.findBlockingBookingIds(roomId, checkOut, checkOut.plusDays(2)).isEmpty());
+        Assertions.assertTrue(index.findBlockingBookingIds(roomId, checkIn.minusDays(2), checkIn).isEmpty());
+    }
+
+    @Test
+    void findBlockingBookingIds_whenOtherRoom_thenReturnedEmptyList() {
+        Assertions.assertTrue(index.findBlockingBookingIds(2L, checkIn, checkOut).isEmpty());
+    }
+
+    @Test
+    void findBlockingBookingIds_whenLongBookingStartsLongBefore_thenReturnedBookingId() {
+        index.put(new BookingInterval(2L, roomId, checkIn.minusDays(60), checkIn.minusDays(1)));
+
+        Assertions.assertEquals(List.of(2L),
+                index.findBlockingBookingIds(roomId, checkIn.minusDays(5), checkIn.minusDays(3)));
+    }
+
+    @Test
+    void put_whenBookingMoved_thenOldDatesFree() {
+        BookingInterval previous = index.put(new BookingInterval(1L, roomId, checkOut, checkOut.plusDays(2)));
+
+        Assertions.assertEquals(booking, previous);
+        Assertions.assertTrue(index.findBlockingBookingIds(roomId, checkIn, checkOut).isEmpty());
+        Assertions.assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenRoomAvailable() {
+        BookingInterval previous = index.remove(1L);
+
+        Assertions.assertEquals(booking, previous);
+        Assertions.assertFalse(index.isRoomOccupied(roomId, checkIn, checkOut));
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    void isRoomOccupied_whenBookingInsideDates_thenTrue() {
+        Assertions.assertTrue(index.isRoomOccupied(roomId, checkIn.minusDays(1), checkOut.plusDays(1)));
+        Assertions.assertFalse(index.isRoomOccupied(roomId, checkOut.plusDays(1), checkOut.plusDays(5)));
+    }
+
+    @Test
+    void overlaps_whenComparedWithPreviousQueryPredicates_thenSameResult() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int bookingIn = 0; bookingIn < 6; bookingIn++) {
+            for (int bookingOut = bookingIn; bookingOut < 6; bookingOut++) {
+                BookingInterval interval = new BookingInterval(1L, roomId,
+                        start.plusDays(bookingIn), start.plusDays(bookingOut));
+                for (int in = 0; in < 6; in++) {
+                    for (int out = in; out < 6; out++) {
+                        LocalDate checkInDate = start.plusDays(in);
+                        LocalDate checkOutDate = start.plusDays(out);
+                        boolean overlaps = RoomOccupancyIndex.overlaps(interval, checkInDate, checkOutDate);
+
+                        Assertions.assertEquals(isBlocking(interval, checkInDate, checkOutDate), overlaps,
+                                interval + " " + checkInDate + " " + checkOutDate);
+                        Assertions.assertEquals(isOccupying(interval, checkInDate, checkOutDate), overlaps,
+                                interval + " " + checkInDate + " " + checkOutDate);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isBlocking(BookingInterval booking, LocalDate checkInDate, LocalDate checkOutDate) {
+        LocalDate bookingCheckIn = booking.checkInDate();
+        LocalDate bookingCheckOut = booking.checkOutDate();
+        return (bookingCheckIn.isBefore(checkInDate) && bookingCheckOut.isAfter(checkInDate)) ||
+               (!bookingCheckIn.isBefore(checkInDate) && bookingCheckIn.isBefore(checkOutDate)) ||
+               (bookingCheckIn.equals(checkInDate) && bookingCheckIn.equals(checkOutDate)) ||
+               (bookingCheckOut.equals(checkInDate) && bookingCheckOut.equals(checkOutDate)) ||
+               (bookingCheckIn.equals(checkOutDate) && bookingCheckOut.equals(checkOutDate)) ||
+               (bookingCheckIn.equals(checkInDate) && bookingCheckOut.equals(checkInDate));
+    }
+
+    private boolean isOccupying(BookingInterval booking, LocalDate checkInDate, LocalDate checkOutDate) {
+        LocalDate bookingCheckIn = booking.checkInDate();
+        LocalDate bookingCheckOut = booking.checkOutDate();
+        return (!bookingCheckIn.isAfter(checkInDate) && bookingCheckOut.isAfter(checkInDate)) ||
+               (bookingCheckIn.isBefore(checkOutDate) && !bookingCheckOut.isBefore(checkOutDate)) ||
+               (!bookingCheckIn.isBefore(checkInDate) && !bookingCheckOut.isAfter(checkOutDate));
+    }
+
+    @Test
+    void findOccupiedRoomIds_whenSeveralRooms_thenReturnedOnlyOccupied() {
+        index.put(new BookingInterval(2L, 2L, checkOut.plusDays(1), checkOut.plusDays(5)));
+
+        Assertions.assertEquals(Set.of(1L),
+                index.findOccupiedRoomIds(List.of(1L, 2L, 3L), checkIn.plusDays(1), checkOut));
+        Assertions.assertEquals(Set.of(1L, 2L),
+                index.findOccupiedRoomIds(List.of(1L, 2L, 3L), checkIn, checkIn.plusDays(365)));
+        Assertions.assertTrue(index.findOccupiedRoomIds(List.of(3L), checkIn, checkOut).isEmpty());
+    }
+
+    @Test
+    void hasBookingsFrom_whenBookingNotFinished_thenTrue() {
+        Assertions.assertTrue(index.hasBookingsFrom(roomId, checkIn.minusYears(3)));
+        Assertions.assertTrue(index.hasBookingsFrom(roomId, checkOut));
+        Assertions.assertFalse(index.hasBookingsFrom(roomId, checkOut.plusDays(1)));
+        Assertions.assertFalse(index.hasBookingsFrom(2L, checkIn));
+
+        index.put(new BookingInterval(2L, roomId, checkIn.plusYears(2), checkIn.plusYears(2).plusDays(3)));
+        Assertions.assertTrue(index.hasBookingsFrom(roomId, checkOut.plusDays(1)));
+    }
+
+    @Test
+    void isRoomOccupied_whenBookingsTouchAndOneRemoved_thenSharedDayStaysOccupied() {
+        index.put(new BookingInterval(2L, roomId, checkOut, checkOut.plusDays(3)));
+        index.remove(1L);
+
+        Assertions.assertTrue(index.isRoomOccupied(roomId, checkOut, checkOut));
+        Assertions.assertFalse(index.isRoomOccupied(roomId, checkIn, checkOut));
+        Assertions.assertFalse(index.isRoomOccupied(roomId, checkOut.minusDays(1), checkOut.minusDays(1)));
+    }
+
+    @Test
+    void isRoomOccupied_whenRandomBookings_thenSameAsIntervalOverlap() {
+        Random random = new Random(42);
+        List<BookingInterval> intervals = new ArrayList<>();
+        LocalDate start = LocalDate.of(2023, 12, 1);
+        for (long id = 1; id <= 200; id++) {
+            LocalDate bookingCheckIn = start.plusDays(random.nextInt(1200));
+            intervals.add(new BookingInterval(id, (long) random.nextInt(5),
+                    bookingCheckIn, bookingCheckIn.plusDays(random.nextInt(4) == 0 ? 0 : random.nextInt(40))));
+        }
+        index.load(intervals);
+        for (long id = 1; id <= 200; id += 3) {
+            index.remove(id);
+        }
+        List<BookingInterval> active = intervals.stream().filter(interval -> interval.bookingId() % 3 != 1).toList();
+
+        for (int i = 0; i < 5000; i++) {
+            long room = random.nextInt(5);
+            LocalDate from = start.plusDays(random.nextInt(1250));
+            LocalDate to = from.plusDays(random.nextInt(5) == 0 ? 0 : random.nextInt(400));
+            boolean expected = active.stream().anyMatch(interval -> interval.roomId() == room &&
+                    RoomOccupancyIndex.overlaps(interval, from, to));
+
+            Assertions.assertEquals(expected, index.isRoomOccupied(room, from, to), from + " - " + to);
+        }
+    }
+}
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.owner.controller.SearchDirection;
 import ru.modgy.owner.controller.OwnerController;
@@ -17,6 +20,7 @@ import ru.modgy.pet.dto.PetDtoForOwner;
 import ru.modgy.pet.model.Pet;
 import ru.modgy.utility.UtilityService;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -24,11 +28,11 @@ import java.util.List;
 import static java.time.LocalDateTime.now;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(controllers = OwnerController.class)
@@ -317,6 +321,73 @@ class OwnerControllerIntegrationTest {
                         .value(ownerDto.getRegistrationDate().toString()));
     }
 
+    @Test
+    @SneakyThrows
+    void getOwnersPage() {
+        when(ownerService.getOwnersPage(requesterId, 0, 20))
+                .thenReturn(new PageImpl<>(List.of(ownerDto), PageRequest.of(0, 20), 1));
+
+        mockMvc.perform(get("/owners")
+                        .header(requesterHeader, requesterId)
+                        .param("page", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(ownerDto.getId()), Long.class))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        verify(ownerService).getOwnersPage(requesterId, 0, 20);
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnersAfter() {
+        OwnerKeysetPageDto keysetPageDto = new OwnerKeysetPageDto(List.of(ownerDto), registrationDate, ownerId);
+        when(ownerService.getOwnersAfter(requesterId, registrationDate, 5L, 1)).thenReturn(keysetPageDto);
+
+        mockMvc.perform(get("/owners")
+                        .header(requesterHeader, requesterId)
+                        .param("afterRegistrationDate", registrationDate.toString())
+                        .param("afterId", "5")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owners[0].id", is(ownerDto.getId()), Long.class))
+                .andExpect(jsonPath("$.nextRegistrationDate").value(registrationDate.toString()))
+                .andExpect(jsonPath("$.nextId", is(ownerId), Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnersAfter_whenAfterIdMissing_thenBadRequest() {
+        mockMvc.perform(get("/owners")
+                        .header(requesterHeader, requesterId)
+                        .param("afterRegistrationDate", registrationDate.toString())
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(ownerService, never()).getOwnersAfter(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    @SneakyThrows
+    void exportOwners() {
+        when(ownerService.getOwnersAfter(requesterId, null, null, 500))
+                .thenReturn(new OwnerKeysetPageDto(List.of(ownerDto), null, null));
+
+        MvcResult mvcResult = mockMvc.perform(get("/owners")
+                        .header(requesterHeader, requesterId)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().bytes((objectMapper.writeValueAsString(ownerDto) + "\n")
+                        .getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     @SneakyThrows
     void deleteOwnerById() {
@@ -427,7 +498,7 @@ class OwnerControllerIntegrationTest {
     void searchOwner_whenAllDataOk_thenOk() {
         SearchOwnerDto searchOwnerDto = new SearchOwnerDto("123");
         SearchDirection searchDirection = SearchDirection.PHONE;
-        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection)).thenReturn(List.of(ownerDto));
+        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, 50)).thenReturn(List.of(ownerDto));
 
         mockMvc.perform(post("/owners/search")
                         .header(requesterHeader, requesterId)
@@ -451,10 +522,10 @@ class OwnerControllerIntegrationTest {
                 .andExpect(jsonPath("$.[0].registrationDate")
                         .value(ownerDto.getRegistrationDate().toString()));
 
-        verify(ownerService).searchOwner(requesterId, searchOwnerDto, searchDirection);
+        verify(ownerService).searchOwner(requesterId, searchOwnerDto, searchDirection, 50);
 
         searchDirection = SearchDirection.NAME;
-        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection)).thenReturn(List.of(ownerDto));
+        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, 50)).thenReturn(List.of(ownerDto));
 
         mockMvc.perform(post("/owners/search")
                         .header(requesterHeader, requesterId)
@@ -478,7 +549,7 @@ class OwnerControllerIntegrationTest {
                 .andExpect(jsonPath("$.[0].registrationDate")
                         .value(ownerDto.getRegistrationDate().toString()));
 
-        verify(ownerService).searchOwner(requesterId, searchOwnerDto, searchDirection);
+        verify(ownerService).searchOwner(requesterId, searchOwnerDto, searchDirection, 50);
     }
 
     @Test
@@ -486,7 +557,7 @@ class OwnerControllerIntegrationTest {
     void searchOwner_whenWithoutBody_then4xx() {
         SearchOwnerDto searchOwnerDto = new SearchOwnerDto("123");
         SearchDirection searchDirection = SearchDirection.PHONE;
-        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection)).thenReturn(List.of(ownerDto));
+        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, 50)).thenReturn(List.of(ownerDto));
 
         mockMvc.perform(post("/owners/search")
                         .header(requesterHeader, requesterId)
@@ -494,7 +565,7 @@ class OwnerControllerIntegrationTest {
                         .param("direction", searchDirection.getTitle()))
                 .andExpect(status().is4xxClientError());
 
-        verify(ownerService, never()).searchOwner(requesterId, searchOwnerDto, searchDirection);
+        verify(ownerService, never()).searchOwner(requesterId, searchOwnerDto, searchDirection, 50);
     }
 
     @Test
@@ -502,7 +573,7 @@ class OwnerControllerIntegrationTest {
     void searchOwner_whenWithoutDirectionParam_then4xx() {
         SearchOwnerDto searchOwnerDto = new SearchOwnerDto("123");
         SearchDirection searchDirection = SearchDirection.PHONE;
-        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection)).thenReturn(List.of(ownerDto));
+        when(ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, 50)).thenReturn(List.of(ownerDto));
 
         mockMvc.perform(post("/owners/search")
                         .header(requesterHeader, requesterId)
@@ -511,7 +582,7 @@ class OwnerControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(searchOwnerDto)))
                 .andExpect(status().is4xxClientError());
 
-        verify(ownerService, never()).searchOwner(requesterId, searchOwnerDto, searchDirection);
+        verify(ownerService, never()).searchOwner(requesterId, searchOwnerDto, searchDirection, 50);
     }
 
 
@@ -519,7 +590,7 @@ class OwnerControllerIntegrationTest {
     @SneakyThrows
     void searchOwner_whenDirectionParamIsWrong_then4xx() {
         SearchOwnerDto searchOwnerDto = new SearchOwnerDto("123");
-        when(ownerService.searchOwner(eq(requesterId), eq(searchOwnerDto), any())).thenReturn(List.of(ownerDto));
+        when(ownerService.searchOwner(eq(requesterId), eq(searchOwnerDto), any(), anyInt())).thenReturn(List.of(ownerDto));
 
         mockMvc.perform(post("/owners/search")
                         .header(requesterHeader, requesterId)
@@ -529,6 +600,22 @@ class OwnerControllerIntegrationTest {
                         .param("direction", "bla-bla"))
                 .andExpect(status().is4xxClientError());
 
-        verify(ownerService, never()).searchOwner(eq(requesterId), eq(searchOwnerDto), any());
+        verify(ownerService, never()).searchOwner(eq(requesterId), eq(searchOwnerDto), any(), anyInt());
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnersByPrefix() {
+        when(ownerService.getOwnersByPrefix(requesterId, "Ива", 10)).thenReturn(List.of(ownerShortDto));
+
+        mockMvc.perform(get("/owners/typeahead")
+                        .header(requesterHeader, requesterId)
+                        .param("prefix", "Ива")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(ownerShortDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].mainPhone", is(ownerShortDto.getMainPhone())));
+
+        verify(ownerService).getOwnersByPrefix(requesterId, "Ива", 10);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package ru.modgy.owner.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.owner.model.Owner;
+import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.Sex;
+import ru.modgy.pet.model.TypeOfPet;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@ActiveProfiles("test")
+class OwnerPetsBatchInsertTest {
+    private static final int OWNERS = 3;
+    private static final int PETS_PER_OWNER = 10;
+
+    private final EntityManager em;
+    private final OwnerRepository ownerRepository;
+
+    @Test
+    void saveAll_whenOwnersRegisteredWithPets_thenInsertsSentInBatches() {
+        List<Owner> owners = new ArrayList<>();
+        for (int i = 0; i < OWNERS; i++) {
+            Owner owner = Owner.builder()
+                    .lastName("Batch" + i)
+                    .firstName("Owner")
+                    .mainPhone("8911000000" + i)
+                    .registrationDate(LocalDateTime.now())
+                    .pets(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < PETS_PER_OWNER; j++) {
+                owner.getPets().add(Pet.builder()
+                        .owner(owner)
+                        .type(TypeOfPet.CAT)
+                        .name("Кличка" + j)
+                        .breed("Порода")
+                        .birthDate(LocalDate.of(2020, 1, 1))
+                        .sex(Sex.FEMALE)
+                        .build());
+            }
+            owners.add(owner);
+        }
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ownerRepository.saveAll(owners);
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount(), equalTo((long) OWNERS * (PETS_PER_OWNER + 1)));
+        // по одному запросу к каждой последовательности и по одному пакетному INSERT на таблицу
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(4L));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.modgy.owner.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.owner.model.Owner;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchOwnerRepositoryTest {
+    private final EntityManager em;
+    private final OwnerRepository ownerRepository;
+
+    private Owner ivanov;
+    private Owner petrova;
+    private Owner ivanovskaya;
+
+    @BeforeEach
+    void setUp() {
+        ivanov = persistOwner("Иванов", "Петр", "+79123456789", null);
+        petrova = persistOwner("Петрова", "Ивана", "+79991234567", "+74951234567");
+        ivanovskaya = persistOwner("Ивановская", "Мария", "+79031112233", null);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void persist_whenPhonesSaved_thenDigitsColumnsFilled() {
+        Owner owner = em.find(Owner.class, petrova.getId());
+
+        assertThat(owner.getMainPhoneDigits(), equalTo("79991234567"));
+        assertThat(owner.getOptionalPhoneDigits(), equalTo("74951234567"));
+    }
+
+    @Test
+    void searchOwnersByName_whenWordMatchesSeveralColumns_thenExactLastNameFirst() {
+        List<Owner> owners = ownerRepository.searchOwnersByName(List.of("иванов"), 10);
+
+        assertThat(ids(owners), contains(ivanov.getId(), ivanovskaya.getId()));
+    }
+
+    @Test
+    void searchOwnersByName_whenSeveralWords_thenEveryWordMatched() {
+        List<Owner> owners = ownerRepository.searchOwnersByName(List.of("иван", "петр"), 10);
+
+        assertThat(ids(owners), contains(ivanov.getId(), petrova.getId()));
+    }
+
+    @Test
+    void searchOwnersByName_whenLimitReached_thenTopResultsOnly() {
+        List<Owner> owners = ownerRepository.searchOwnersByName(List.of("ив"), 1);
+
+        assertThat(ids(owners), contains(ivanov.getId()));
+    }
+
+    @Test
+    void searchOwnersByName_whenWildcardTyped_thenMatchedLiterally() {
+        assertThat(ownerRepository.searchOwnersByName(List.of("%"), 10), empty());
+    }
+
+    @Test
+    void searchOwnersByPhone_whenDigitsInsideOptionalPhone_thenFound() {
+        List<Owner> owners = ownerRepository.searchOwnersByPhone("4951234", 10);
+
+        assertThat(ids(owners), contains(petrova.getId()));
+    }
+
+    @Test
+    void searchOwnersByPhone_whenFullNumber_thenExactMatchFirst() {
+        List<Owner> owners = ownerRepository.searchOwnersByPhone("79123456789", 10);
+
+        assertThat(ids(owners), contains(ivanov.getId()));
+    }
+
+    @Test
+    void findOwnersByNamePrefix_whenLastNameOrFirstNameStartsWithPrefix_thenFound() {
+        List<Owner> owners = ownerRepository.findOwnersByNamePrefix("иван", 10);
+
+        assertThat(ids(owners), contains(ivanov.getId(), ivanovskaya.getId(), petrova.getId()));
+    }
+
+    @Test
+    void findOwnersByPhonePrefix_whenPhoneStartsWithPrefix_thenFound() {
+        List<Owner> owners = ownerRepository.findOwnersByPhonePrefix("7903", 10);
+
+        assertThat(ids(owners), contains(ivanovskaya.getId()));
+    }
+
+    private Owner persistOwner(String lastName, String firstName, String mainPhone, String optionalPhone) {
+        Owner owner = Owner.builder()
+                .lastName(lastName)
+                .firstName(firstName)
+                .mainPhone(mainPhone)
+                .optionalPhone(optionalPhone)
+                .registrationDate(LocalDateTime.now())
+                .build();
+        em.persist(owner);
+        return owner;
+    }
+
+    private List<Long> ids(List<Owner> owners) {
+        return owners.stream().map(Owner::getId).toList();
+    }
+}
@@ -26,7 +26,10 @@ import java.util.*;
 import static java.time.LocalDateTime.now;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -59,8 +62,8 @@ class OwnerServiceImplTest {
     final List<Pet> pets = List.of();
     final List<PetDtoForOwner> petsDto = List.of();
 
-    Owner owner = new Owner(ownerId, ownerLastName, ownerFirstName, ownerMiddleName, mainPhone, optionalPhone,
-            otherContacts, actualAddress, trustedMan, source, comment, rating, registrationDate, pets);
+    Owner owner = new Owner(ownerId, null, ownerLastName, ownerFirstName, ownerMiddleName, mainPhone, optionalPhone,
+            null, null, otherContacts, actualAddress, trustedMan, source, comment, rating, registrationDate, pets);
     NewOwnerDto newOwnerDto = new NewOwnerDto(ownerLastName, ownerFirstName, ownerMiddleName, mainPhone, optionalPhone,
             otherContacts, actualAddress, trustedMan, source, comment, rating);
     OwnerDto ownerDto = new OwnerDto(ownerId, ownerLastName, ownerFirstName, ownerMiddleName, mainPhone, optionalPhone,
@@ -93,16 +96,16 @@ class OwnerServiceImplTest {
 
     @Test
     void getSomeShortOwners() {
-        Owner owner1 = new Owner(ownerId + 1, "1" + ownerLastName, "1" + ownerFirstName,
-                "1" + ownerMiddleName, "1" + mainPhone, "1" + optionalPhone,
+        Owner owner1 = new Owner(ownerId + 1, null, "1" + ownerLastName, "1" + ownerFirstName,
+                "1" + ownerMiddleName, "1" + mainPhone, "1" + optionalPhone, null, null,
                 "1" + otherContacts, "1" + actualAddress, "1" + trustedMan,
                 "1" + source, "1" + comment, 1 + rating, registrationDate.plusHours(1), pets);
-        Owner owner2 = new Owner(ownerId + 2, "2" + ownerLastName, "2" + ownerFirstName,
-                "2" + ownerMiddleName, "2" + mainPhone, "2" + optionalPhone,
+        Owner owner2 = new Owner(ownerId + 2, null, "2" + ownerLastName, "2" + ownerFirstName,
+                "2" + ownerMiddleName, "2" + mainPhone, "2" + optionalPhone, null, null,
                 "2" + otherContacts, "2" + actualAddress, "2" + trustedMan,
                 "2" + source, "2" + comment, 2 + rating, registrationDate.plusHours(2), pets);
-        Owner owner3 = new Owner(ownerId + 3, "3" + ownerLastName, "3" + ownerFirstName,
-                "3" + ownerMiddleName, "3" + mainPhone, "3" + optionalPhone,
+        Owner owner3 = new Owner(ownerId + 3, null, "3" + ownerLastName, "3" + ownerFirstName,
+                "3" + ownerMiddleName, "3" + mainPhone, "3" + optionalPhone, null, null,
                 "3" + otherContacts, "3" + actualAddress, "3" + trustedMan,
                 "3" + source, "3" + comment, 3 + rating, registrationDate.plusHours(3), pets);
 
@@ -169,13 +172,13 @@ class OwnerServiceImplTest {
 
         Owner oldOwner = owner;
 
-        Owner newOwner = new Owner(null, null, newOwnerDto.getFirstName(), newOwnerDto.getMiddleName(),
-                newOwnerDto.getMainPhone(), newOwnerDto.getOptionalPhone(), newOwnerDto.getOtherContacts(),
+        Owner newOwner = new Owner(null, null, null, newOwnerDto.getFirstName(), newOwnerDto.getMiddleName(),
+                newOwnerDto.getMainPhone(), newOwnerDto.getOptionalPhone(), null, null, newOwnerDto.getOtherContacts(),
                 newOwnerDto.getActualAddress(), newOwnerDto.getTrustedMan(), newOwnerDto.getSource(),
                 newOwnerDto.getComment(), newOwnerDto.getRating(), null, pets);
 
-        Owner ownerAfter = new Owner(oldOwner.getId(), oldOwner.getFirstName(),
-                newOwner.getLastName(), newOwner.getMiddleName(), newOwner.getMainPhone(), newOwner.getOptionalPhone(),
+        Owner ownerAfter = new Owner(oldOwner.getId(), null, oldOwner.getFirstName(),
+                newOwner.getLastName(), newOwner.getMiddleName(), newOwner.getMainPhone(), newOwner.getOptionalPhone(), null, null,
                 newOwner.getOtherContacts(), newOwner.getActualAddress(), newOwner.getTrustedMan(),
                 newOwner.getSource(), newOwner.getComment(), newOwner.getRating(),
                 oldOwner.getRegistrationDate(), pets);
@@ -187,48 +190,16 @@ class OwnerServiceImplTest {
                 ownerAfter.getRegistrationDate(), petsDto);
 
         when(entityService.getOwnerIfExists(ownerId)).thenReturn(oldOwner);
-        when(ownerMapper.toOwner(newOwnerDto)).thenReturn(newOwner);
-        when(ownerRepository.save(newOwner)).thenReturn(ownerAfter);
-        when(ownerMapper.toOwnerDto(ownerAfter)).thenReturn(ownerDtoAfter);
+        when(ownerMapper.toOwnerDto(oldOwner)).thenReturn(ownerDtoAfter);
 
         OwnerDto resultOwnerDto = ownerService.updateOwner(requesterId, ownerId, newOwnerDto);
 
-        verify(ownerRepository).save(ownerArgumentCaptor.capture());
-        Owner ownerForSave = ownerArgumentCaptor.getValue();
-
         assertAll(
                 () -> assertEquals(ownerDtoAfter, resultOwnerDto, "entity test failed"),
-                () -> assertEquals(oldOwner.getId(), ownerForSave.getId(),
-                        "id field test failed"),
-                () -> assertEquals(oldOwner.getLastName(), ownerForSave.getLastName(),
-                        "LastName field test failed"),
-                () -> assertEquals(newOwnerDto.getFirstName(), ownerForSave.getFirstName(),
-                        "FirstName field test failed"),
-                () -> assertEquals(newOwnerDto.getMiddleName(), ownerForSave.getMiddleName(),
-                        "MiddleName field test failed"),
-                () -> assertEquals(newOwnerDto.getMainPhone(), ownerForSave.getMainPhone(),
-                        "MainPhone field test failed"),
-                () -> assertEquals(newOwnerDto.getOptionalPhone(), ownerForSave.getOptionalPhone(),
-                        "OptionalPhone field test failed"),
-                () -> assertEquals(newOwnerDto.getOtherContacts(), ownerForSave.getOtherContacts(),
-                        "OtherContacts field test failed"),
-                () -> assertEquals(newOwnerDto.getActualAddress(), ownerForSave.getActualAddress(),
-                        "ActualAddress field test failed"),
-                () -> assertEquals(newOwnerDto.getTrustedMan(), ownerForSave.getTrustedMan(),
-                        "TrustedMan field test failed"),
-                () -> assertEquals(newOwnerDto.getSource(), ownerForSave.getSource(),
-                        "Source field test failed"),
-                () -> assertEquals(newOwnerDto.getComment(), ownerForSave.getComment(),
-                        "Comment field test failed"),
-                () -> assertEquals(newOwnerDto.getRating(), ownerForSave.getRating(),
-                        "Rating field test failed"),
-                () -> assertEquals(oldOwner.getRegistrationDate(), ownerForSave.getRegistrationDate(),
-                        "RegistrationDate field test failed"),
-
                 () -> verify(entityService).getOwnerIfExists(ownerId),
-                () -> verify(ownerMapper).toOwner(newOwnerDto),
-                () -> verify(ownerRepository).save(newOwner),
-                () -> verify(ownerMapper).toOwnerDto(ownerAfter)
+                () -> verify(ownerMapper).updateOwner(newOwnerDto, oldOwner),
+                () -> verify(ownerRepository, never()).save(any()),
+                () -> verify(ownerMapper).toOwnerDto(oldOwner)
         );
     }
 
@@ -239,13 +210,13 @@ class OwnerServiceImplTest {
                 .build();
         Owner oldOwner = owner;
 
-        Owner newOwner = new Owner(null, newOwnerDto.getLastName(), newOwnerDto.getFirstName(),
-                newOwnerDto.getMiddleName(), newOwnerDto.getMainPhone(), newOwnerDto.getOptionalPhone(),
+        Owner newOwner = new Owner(null, null, newOwnerDto.getLastName(), newOwnerDto.getFirstName(),
+                newOwnerDto.getMiddleName(), newOwnerDto.getMainPhone(), newOwnerDto.getOptionalPhone(), null, null,
                 newOwnerDto.getOtherContacts(), newOwnerDto.getActualAddress(), newOwnerDto.getTrustedMan(),
                 newOwnerDto.getSource(), newOwnerDto.getComment(), newOwnerDto.getRating(), null, pets);
 
-        Owner ownerAfter = new Owner(oldOwner.getId(), oldOwner.getFirstName(),
-                newOwner.getLastName(), newOwner.getMiddleName(), newOwner.getMainPhone(), newOwner.getOptionalPhone(),
+        Owner ownerAfter = new Owner(oldOwner.getId(), null, oldOwner.getFirstName(),
+                newOwner.getLastName(), newOwner.getMiddleName(), newOwner.getMainPhone(), newOwner.getOptionalPhone(), null, null,
                 newOwner.getOtherContacts(), newOwner.getActualAddress(), newOwner.getTrustedMan(),
                 newOwner.getSource(), newOwner.getComment(), newOwner.getRating(),
                 oldOwner.getRegistrationDate(), pets);
@@ -257,63 +228,31 @@ class OwnerServiceImplTest {
                 ownerAfter.getRegistrationDate(), petsDto);
 
         when(entityService.getOwnerIfExists(ownerId)).thenReturn(oldOwner);
-        when(ownerMapper.toOwner(newOwnerDto)).thenReturn(newOwner);
-        when(ownerRepository.save(newOwner)).thenReturn(ownerAfter);
-        when(ownerMapper.toOwnerDto(ownerAfter)).thenReturn(ownerDtoAfter);
+        when(ownerMapper.toOwnerDto(oldOwner)).thenReturn(ownerDtoAfter);
 
         OwnerDto resultOwnerDto = ownerService.updateOwner(requesterId, ownerId, newOwnerDto);
 
-        verify(ownerRepository).save(ownerArgumentCaptor.capture());
-        Owner ownerForSave = ownerArgumentCaptor.getValue();
-
         assertAll(
                 () -> assertEquals(ownerDtoAfter, resultOwnerDto, "entity test failed"),
-                () -> assertEquals(oldOwner.getId(), ownerForSave.getId(),
-                        "id field test failed"),
-                () -> assertEquals(newOwner.getLastName(), ownerForSave.getLastName(),
-                        "LastName field test failed"),
-                () -> assertEquals(oldOwner.getFirstName(), ownerForSave.getFirstName(),
-                        "FirstName field test failed"),
-                () -> assertEquals(oldOwner.getMiddleName(), ownerForSave.getMiddleName(),
-                        "MiddleName field test failed"),
-                () -> assertEquals(oldOwner.getMainPhone(), ownerForSave.getMainPhone(),
-                        "MainPhone field test failed"),
-                () -> assertEquals(oldOwner.getOptionalPhone(), ownerForSave.getOptionalPhone(),
-                        "OptionalPhone field test failed"),
-                () -> assertEquals(oldOwner.getOtherContacts(), ownerForSave.getOtherContacts(),
-                        "OtherContacts field test failed"),
-                () -> assertEquals(oldOwner.getActualAddress(), ownerForSave.getActualAddress(),
-                        "ActualAddress field test failed"),
-                () -> assertEquals(oldOwner.getTrustedMan(), ownerForSave.getTrustedMan(),
-                        "TrustedMan field test failed"),
-                () -> assertEquals(oldOwner.getSource(), ownerForSave.getSource(),
-                        "Source field test failed"),
-                () -> assertEquals(oldOwner.getComment(), ownerForSave.getComment(),
-                        "Comment field test failed"),
-                () -> assertEquals(oldOwner.getRating(), ownerForSave.getRating(),
-                        "ёRating field test failed"),
-                () -> assertEquals(oldOwner.getRegistrationDate(), ownerForSave.getRegistrationDate(),
-                        "RegistrationDate field test failed"),
-
                 () -> verify(entityService).getOwnerIfExists(ownerId),
-                () -> verify(ownerMapper).toOwner(newOwnerDto),
-                () -> verify(ownerRepository).save(newOwner),
-                () -> verify(ownerMapper).toOwnerDto(ownerAfter)
+                () -> verify(ownerMapper).updateOwner(newOwnerDto, oldOwner),
+                () -> verify(ownerRepository, never()).save(any()),
+                () -> verify(ownerMapper).toOwnerDto(oldOwner)
         );
     }
 
     @Test
     void getAllOwners() {
-        Owner owner1 = new Owner(ownerId + 1, "1" + ownerLastName, "1" + ownerFirstName,
-                "1" + ownerMiddleName, "1" + mainPhone, "1" + optionalPhone,
+        Owner owner1 = new Owner(ownerId + 1, null, "1" + ownerLastName, "1" + ownerFirstName,
+                "1" + ownerMiddleName, "1" + mainPhone, "1" + optionalPhone, null, null,
                 "1" + otherContacts, "1" + actualAddress, "1" + trustedMan,
                 "1" + source, "1" + comment, 1 + rating, registrationDate.plusHours(1), pets);
-        Owner owner2 = new Owner(ownerId + 2, "2" + ownerLastName, "2" + ownerFirstName,
-                "2" + ownerMiddleName, "2" + mainPhone, "2" + optionalPhone,
+        Owner owner2 = new Owner(ownerId + 2, null, "2" + ownerLastName, "2" + ownerFirstName,
+                "2" + ownerMiddleName, "2" + mainPhone, "2" + optionalPhone, null, null,
                 "2" + otherContacts, "2" + actualAddress, "2" + trustedMan,
                 "2" + source, "2" + comment, 2 + rating, registrationDate.plusHours(2), pets);
-        Owner owner3 = new Owner(ownerId + 3, "3" + ownerLastName, "3" + ownerFirstName,
-                "3" + ownerMiddleName, "3" + mainPhone, "3" + optionalPhone,
+        Owner owner3 = new Owner(ownerId + 3, null, "3" + ownerLastName, "3" + ownerFirstName,
+                "3" + ownerMiddleName, "3" + mainPhone, "3" + optionalPhone, null, null,
                 "3" + otherContacts, "3" + actualAddress, "3" + trustedMan,
                 "3" + source, "3" + comment, 3 + rating, registrationDate.plusHours(3), pets);
 
@@ -346,6 +285,53 @@ class OwnerServiceImplTest {
         );
     }
 
+    @Test
+    void getOwnersPage() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(ownerRepository.findOwnerIds(pageable)).thenReturn(new PageImpl<>(List.of(ownerId), pageable, 1));
+        when(ownerRepository.findAllWithPetsByIdIn(List.of(ownerId))).thenReturn(List.of(owner));
+        when(ownerMapper.toOwnerDto(owner)).thenReturn(ownerDto);
+
+        Page<OwnerDto> result = ownerService.getOwnersPage(requesterId, 0, 20);
+
+        assertAll(
+                () -> assertEquals(List.of(ownerDto), result.getContent()),
+                () -> assertEquals(1, result.getTotalElements()),
+                () -> verify(ownerRepository).findAllWithPetsByIdIn(List.of(ownerId))
+        );
+    }
+
+    @Test
+    void getOwnersAfter_whenPageIsFull_thenNextCursorIsLastOwner() {
+        when(ownerRepository.findOwnerIdsAfter(registrationDate, 10L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(ownerId));
+        when(ownerRepository.findAllWithPetsByIdIn(List.of(ownerId))).thenReturn(List.of(owner));
+        when(ownerMapper.toOwnerDto(owner)).thenReturn(ownerDto);
+
+        OwnerKeysetPageDto result = ownerService.getOwnersAfter(requesterId, registrationDate, 10L, 1);
+
+        assertAll(
+                () -> assertEquals(List.of(ownerDto), result.getOwners()),
+                () -> assertEquals(registrationDate, result.getNextRegistrationDate()),
+                () -> assertEquals(ownerId, result.getNextId())
+        );
+    }
+
+    @Test
+    void getOwnersAfter_whenPageIsNotFull_thenNoNextCursor() {
+        when(ownerRepository.findFirstOwnerIds(PageRequest.of(0, 20))).thenReturn(List.of(ownerId));
+        when(ownerRepository.findAllWithPetsByIdIn(List.of(ownerId))).thenReturn(List.of(owner));
+        when(ownerMapper.toOwnerDto(owner)).thenReturn(ownerDto);
+
+        OwnerKeysetPageDto result = ownerService.getOwnersAfter(requesterId, null, null, 20);
+
+        assertAll(
+                () -> assertEquals(List.of(ownerDto), result.getOwners()),
+                () -> assertNull(result.getNextRegistrationDate()),
+                () -> assertNull(result.getNextId())
+        );
+    }
+
     @Test
     void deleteOwnerById() {
         when(ownerRepository.deleteOwnerById(ownerId)).thenReturn(1);
@@ -393,14 +379,14 @@ class OwnerServiceImplTest {
         SearchOwnerDto searchOwnerDto = new SearchOwnerDto("123");
         SearchDirection searchDirection = SearchDirection.PHONE;
         List<Owner> foundOwners = List.of(owner);
-        when(ownerRepository.searchOwner(searchOwnerDto.getWanted(), searchDirection.getTitle())).thenReturn(foundOwners);
+        when(ownerRepository.searchOwnersByPhone("123", 50)).thenReturn(foundOwners);
         when(ownerMapper.map(foundOwners)).thenReturn(List.of(ownerDto));
 
-        Collection<OwnerDto> resultOwnersDto = ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection);
+        Collection<OwnerDto> resultOwnersDto = ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, 50);
 
         assertAll(
                 () -> assertEquals(List.of(ownerDto), resultOwnersDto),
-                () -> verify(ownerRepository).searchOwner(searchOwnerDto.getWanted(), searchDirection.getTitle()),
+                () -> verify(ownerRepository).searchOwnersByPhone("123", 50),
                 () -> verify(ownerMapper).map(foundOwners)
         );
     }
@@ -410,15 +396,85 @@ class OwnerServiceImplTest {
         SearchOwnerDto searchOwnerDto = new SearchOwnerDto("123");
         SearchDirection searchDirection = SearchDirection.PHONE;
         List<Owner> foundOwners = Collections.emptyList();
-        when(ownerRepository.searchOwner(searchOwnerDto.getWanted(), searchDirection.getTitle())).thenReturn(foundOwners);
+        when(ownerRepository.searchOwnersByPhone("123", 50)).thenReturn(foundOwners);
         when(ownerMapper.map(foundOwners)).thenReturn(Collections.emptyList());
 
-        Collection<OwnerDto> resultOwnersDto = ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection);
+        Collection<OwnerDto> resultOwnersDto = ownerService.searchOwner(requesterId, searchOwnerDto, searchDirection, 50);
 
         assertAll(
                 () -> assertEquals(Collections.emptyList(), resultOwnersDto),
-                () -> verify(ownerRepository).searchOwner(searchOwnerDto.getWanted(), searchDirection.getTitle()),
+                () -> verify(ownerRepository).searchOwnersByPhone("123", 50),
                 () -> verify(ownerMapper).map(foundOwners)
         );
     }
+
+    @Test
+    void searchOwner_whenFullPhoneWithEight_thenSearchedByNormalizedDigits() {
+        SearchOwnerDto searchOwnerDto = new SearchOwnerDto("8 (912) 345-67-89");
+        when(ownerRepository.searchOwnersByPhone("79123456789", 50)).thenReturn(List.of(owner));
+        when(ownerMapper.map(List.of(owner))).thenReturn(List.of(ownerDto));
+
+        Collection<OwnerDto> resultOwnersDto =
+                ownerService.searchOwner(requesterId, searchOwnerDto, SearchDirection.PHONE, 50);
+
+        assertEquals(List.of(ownerDto), resultOwnersDto);
+    }
+
+    @Test
+    void searchOwner_whenSeveralWords_thenSearchedByLowerCaseWords() {
+        SearchOwnerDto searchOwnerDto = new SearchOwnerDto("  Иванов  ИВАН ");
+        when(ownerRepository.searchOwnersByName(List.of("иванов", "иван"), 50)).thenReturn(List.of(owner));
+        when(ownerMapper.map(List.of(owner))).thenReturn(List.of(ownerDto));
+
+        Collection<OwnerDto> resultOwnersDto =
+                ownerService.searchOwner(requesterId, searchOwnerDto, SearchDirection.NAME, 50);
+
+        assertEquals(List.of(ownerDto), resultOwnersDto);
+    }
+
+    @Test
+    void searchOwner_whenBlankSearchLine_thenReturnEmptyListWithoutQuery() {
+        when(ownerMapper.map(List.of())).thenReturn(List.of());
+
+        Collection<OwnerDto> resultOwnersDto =
+                ownerService.searchOwner(requesterId, new SearchOwnerDto(" "), SearchDirection.NAME, 50);
+
+        assertAll(
+                () -> assertEquals(List.of(), resultOwnersDto),
+                () -> verify(ownerRepository, never()).searchOwnersByName(any(), anyInt())
+        );
+    }
+
+    @Test
+    void getOwnersByPrefix_whenPhoneTypedWithoutCountryCode_thenSearchedByPhonePrefix() {
+        when(ownerRepository.findOwnersByPhonePrefix("7912", 10)).thenReturn(List.of(owner));
+        when(ownerMapper.shortMap(List.of(owner))).thenReturn(List.of(ownerShortDto));
+
+        Collection<OwnerShortDto> result = ownerService.getOwnersByPrefix(requesterId, "912", 10);
+
+        assertEquals(List.of(ownerShortDto), result);
+    }
+
+    @Test
+    void getOwnersByPrefix_whenPhoneTypedWithEight_thenSearchedByPhonePrefix() {
+        when(ownerRepository.findOwnersByPhonePrefix("7912", 10)).thenReturn(List.of(owner));
+        when(ownerMapper.shortMap(List.of(owner))).thenReturn(List.of(ownerShortDto));
+
+        Collection<OwnerShortDto> result = ownerService.getOwnersByPrefix(requesterId, "8(912", 10);
+
+        assertEquals(List.of(ownerShortDto), result);
+    }
+
+    @Test
+    void getOwnersByPrefix_whenNameTyped_thenSearchedByNamePrefix() {
+        when(ownerRepository.findOwnersByNamePrefix("ива", 10)).thenReturn(List.of(owner));
+        when(ownerMapper.shortMap(List.of(owner))).thenReturn(List.of(ownerShortDto));
+
+        Collection<OwnerShortDto> result = ownerService.getOwnersByPrefix(requesterId, "Ива", 10);
+
+        assertAll(
+                () -> assertEquals(List.of(ownerShortDto), result),
+                () -> verify(ownerRepository, never()).findOwnersByPhonePrefix(any(), anyInt())
+        );
+    }
 }
@@ -3,14 +3,22 @@ package ru.modgy.owner.service;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.owner.dto.UpdateOwnerDto;
+import ru.modgy.owner.model.Owner;
 import ru.modgy.user.model.Roles;
 import ru.modgy.user.model.User;
 
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest
@@ -248,5 +256,44 @@ class OwnerServiceIntegrationTest {
 //                () -> assertThat(allOwnersAfterDelete, hasItem(addedOwnerDto3))
 //        );
 //    }
-}
 
+    @Test
+    void updateOwner_whenFieldsNull_thenStoredValuesKept() {
+        LocalDateTime registrationDate = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Owner owner = Owner.builder()
+                .lastName("Ivanov")
+                .firstName("Ivan")
+                .middleName("Ivanovich")
+                .mainPhone(mainPhone)
+                .optionalPhone("+74951234567")
+                .actualAddress("actual address")
+                .comment("comment")
+                .rating(5)
+                .registrationDate(registrationDate)
+                .build();
+        em.persist(requester);
+        em.persist(owner);
+        UpdateOwnerDto updateOwnerDto = UpdateOwnerDto.builder()
+                .optionalPhone("8(495)7654321")
+                .comment("new comment")
+                .build();
+
+        ownerService.updateOwner(requester.getId(), owner.getId(), updateOwnerDto);
+        em.flush();
+        em.clear();
+        Owner actualOwner = em.find(Owner.class, owner.getId());
+
+        assertAll(
+                () -> assertEquals("+74957654321", actualOwner.getOptionalPhone()),
+                () -> assertEquals("74957654321", actualOwner.getOptionalPhoneDigits()),
+                () -> assertEquals(updateOwnerDto.getComment(), actualOwner.getComment()),
+                () -> assertEquals("Ivanov", actualOwner.getLastName()),
+                () -> assertEquals("Ivan", actualOwner.getFirstName()),
+                () -> assertEquals("Ivanovich", actualOwner.getMiddleName()),
+                () -> assertEquals(mainPhone, actualOwner.getMainPhone()),
+                () -> assertEquals("actual address", actualOwner.getActualAddress()),
+                () -> assertEquals(5, actualOwner.getRating()),
+                () -> assertEquals(registrationDate, actualOwner.getRegistrationDate())
+        );
+    }
+}
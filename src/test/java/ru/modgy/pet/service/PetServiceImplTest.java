@@ -7,24 +7,32 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.owner.dto.OwnerShortDto;
 import ru.modgy.owner.dto.mapper.OwnerMapper;
 import ru.modgy.owner.model.Owner;
 import ru.modgy.pet.dto.NewPetDto;
 import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.pet.dto.UpdatePetDto;
 import ru.modgy.pet.mapper.PetMapper;
 import ru.modgy.pet.model.Pet;
+import ru.modgy.pet.model.PetSummary;
 import ru.modgy.pet.model.Sex;
 import ru.modgy.pet.model.TypeOfPet;
 import ru.modgy.pet.repository.PetRepository;
 import ru.modgy.user.model.Roles;
 import ru.modgy.user.model.User;
 import ru.modgy.utility.EntityService;
+import ru.modgy.utility.UtilityService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -53,6 +61,9 @@ public class PetServiceImplTest {
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private UtilityService utilityService;
+
     @Mock
     private OwnerMapper ownerMapper;
 
@@ -457,7 +468,7 @@ public class PetServiceImplTest {
 
     @Test
     void addPet_whenAddPetByAdmin_thenPetAdded() {
-        when(entityService.getUserIfExists(requesterAdmin.getId())).thenReturn(requesterAdmin);
+        when(utilityService.getUserIfExists(requesterAdmin.getId())).thenReturn(requesterAdmin);
         when(mockPetMapper.toPet(newPetDto)).thenReturn(pet);
         when(mockPetRepository.save(any())).thenReturn(pet);
         when(mockPetMapper.toPetDto(pet)).thenReturn(petDto);
@@ -527,7 +538,7 @@ public class PetServiceImplTest {
 
     @Test
     void addPet_whenAddPetByBoss_thenPetAdded() {
-        when(entityService.getUserIfExists(requesterBoss.getId())).thenReturn(requesterBoss);
+        when(utilityService.getUserIfExists(requesterBoss.getId())).thenReturn(requesterBoss);
         when(mockPetMapper.toPet(newPetDto)).thenReturn(pet);
         when(mockPetRepository.save(any())).thenReturn(pet);
         when(mockPetMapper.toPetDto(pet)).thenReturn(petDto);
@@ -596,7 +607,7 @@ public class PetServiceImplTest {
 
     @Test
     void getPetById_whenGetPetByUser_thenReturnPetDto() {
-        when(entityService.getUserIfExists(requesterUser.getId())).thenReturn(requesterUser);
+        when(utilityService.getUserIfExists(requesterUser.getId())).thenReturn(requesterUser);
         when(entityService.getPetIfExists(anyLong())).thenReturn(pet);
         when(mockPetMapper.toPetDto(pet)).thenReturn(petDto);
 
@@ -664,7 +675,7 @@ public class PetServiceImplTest {
     @Test
     void getPetById_whenGetPetByBossAndPetNotFound_thenNotFoundExceptionThrown() {
         String error = String.format("Pet with id = %d not found", pet.getId());
-        when(entityService.getUserIfExists(requesterBoss.getId())).thenReturn(requesterBoss);
+        when(utilityService.getUserIfExists(requesterBoss.getId())).thenReturn(requesterBoss);
         when(entityService.getPetIfExists(any())).thenThrow(new NotFoundException(error));
 
         NotFoundException exception = assertThrows(
@@ -678,7 +689,7 @@ public class PetServiceImplTest {
     @Test
     void getPetById_whenGetPetByAdminAndPetNotFound_thenNotFoundExceptionThrown() {
         String error = String.format("Pet with id = %d not found", pet.getId());
-        when(entityService.getUserIfExists(requesterAdmin.getId())).thenReturn(requesterAdmin);
+        when(utilityService.getUserIfExists(requesterAdmin.getId())).thenReturn(requesterAdmin);
         when(entityService.getPetIfExists(any())).thenThrow(new NotFoundException(error));
 
         NotFoundException exception = assertThrows(
@@ -692,7 +703,7 @@ public class PetServiceImplTest {
     @Test
     void getPetById_whenGetPetByUserAndPetNotFound_thenNotFoundExceptionThrown() {
         String error = String.format("Pet with id = %d not found", pet.getId());
-        when(entityService.getUserIfExists(requesterUser.getId())).thenReturn(requesterUser);
+        when(utilityService.getUserIfExists(requesterUser.getId())).thenReturn(requesterUser);
         when(entityService.getPetIfExists(any())).thenThrow(new NotFoundException(error));
 
         NotFoundException exception = assertThrows(
@@ -707,7 +718,7 @@ public class PetServiceImplTest {
     void getPetById_whenUserNotFound_thenNotFoundExceptionThrown() {
         long userNotFoundId = 0L;
         String error = String.format("User with id = %d not found", userNotFoundId);
-        when(entityService.getUserIfExists(userNotFoundId)).thenThrow(new NotFoundException(error));
+        when(utilityService.getUserIfExists(userNotFoundId)).thenThrow(new NotFoundException(error));
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -720,14 +731,14 @@ public class PetServiceImplTest {
 
     @Test
     void updatePet_whenUpdatePetByBoss_thenReturnUpdatePetDto() {
-        when(entityService.getUserIfExists(requesterBoss.getId())).thenReturn(requesterBoss);
+        when(utilityService.getUserIfExists(requesterBoss.getId())).thenReturn(requesterBoss);
         when(entityService.getPetIfExists(any())).thenReturn(pet);
-        when(mockPetRepository.save(any())).thenReturn(updatePet);
-        when(mockPetMapper.toPetDto(updatePet)).thenReturn(updatedPetDto);
-        when(mockPetMapper.toPet(updatePetDto)).thenReturn(updatePet);
+        when(mockPetMapper.toPetDto(pet)).thenReturn(updatedPetDto);
 
         PetDto actualPetDto = petService.updatePet(requesterBoss.getId(), pet.getId(), updatePetDto);
 
+        verify(mockPetMapper).updatePet(updatePetDto, pet);
+        verify(mockPetRepository, never()).save(any());
         assertNotNull(actualPetDto);
         assertThat(actualPetDto.getId(), equalTo(pet.getId()));
         assertThat(actualPetDto.getType(), equalTo(updatePet.getType()));
@@ -789,14 +800,14 @@ public class PetServiceImplTest {
 
     @Test
     void updatePet_whenUpdatePetPetByAdmin_thenReturnUpdatePetDto() {
-        when(entityService.getUserIfExists(requesterAdmin.getId())).thenReturn(requesterAdmin);
+        when(utilityService.getUserIfExists(requesterAdmin.getId())).thenReturn(requesterAdmin);
         when(entityService.getPetIfExists(any())).thenReturn(pet);
-        when(mockPetRepository.save(any())).thenReturn(updatePet);
-        when(mockPetMapper.toPetDto(updatePet)).thenReturn(updatedPetDto);
-        when(mockPetMapper.toPet(updatePetDto)).thenReturn(updatePet);
+        when(mockPetMapper.toPetDto(pet)).thenReturn(updatedPetDto);
 
         PetDto actualPetDto = petService.updatePet(requesterAdmin.getId(), pet.getId(), updatePetDto);
 
+        verify(mockPetMapper).updatePet(updatePetDto, pet);
+        verify(mockPetRepository, never()).save(any());
         assertNotNull(actualPetDto);
         assertThat(actualPetDto.getId(), equalTo(pet.getId()));
         assertThat(actualPetDto.getType(), equalTo(updatePet.getType()));
@@ -927,4 +938,49 @@ public class PetServiceImplTest {
 
         assertEquals(error, exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPetsBySearch_whenPageFound_thenPetsLoadedByIdsInPageOrder() {
+        Pet secondPet = Pet.builder().id(2L).owner(owner).name("Альма").build();
+        Pet firstPet = Pet.builder().id(3L).owner(owner).name("Бобик").build();
+        PetDto secondPetDto = PetDto.builder().id(2L).name("Альма").build();
+        PetDto firstPetDto = PetDto.builder().id(3L).name("Бобик").build();
+        when(mockPetRepository.findPetIdsByParams(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(2L, 3L), PageRequest.of(0, 2), 5));
+        when(entityService.getListOfPetsWithOwnersByIds(List.of(2L, 3L))).thenReturn(List.of(firstPet, secondPet));
+        when(mockPetMapper.toPetDto(secondPet)).thenReturn(secondPetDto);
+        when(mockPetMapper.toPetDto(firstPet)).thenReturn(firstPetDto);
+        when(ownerMapper.toOwnerShortDto(owner)).thenReturn(ownerShortDto);
+
+        Page<PetSummaryDto> result = petService.getPetsBySearch(requesterAdmin.getId(), "а", 0, 2, true);
+
+        assertEquals(List.of(secondPetDto, firstPetDto), result.getContent());
+        assertEquals(5, result.getTotalElements());
+        assertEquals(ownerShortDto, result.getContent().get(0).getOwnerShortDto());
+        verify(mockPetRepository).findPetIdsByParams(
+                argThat(params -> "а".equals(params.getName())),
+                eq(PageRequest.of(0, 2, Sort.by("name", "type", "breed", "registrationDate", "id"))));
+    }
+
+    @Test
+    void getPetsBySearch_whenDetailsNotExpanded_thenSummariesLoadedByIdsInPageOrder() {
+        PetSummary secondPet = new PetSummary(2L, TypeOfPet.DOG, "Альма", "Такса", owner.getId(),
+                owner.getLastName(), owner.getFirstName(), owner.getMiddleName(),
+                owner.getMainPhone(), owner.getOptionalPhone(), owner.getRegistrationDate());
+        PetSummary firstPet = new PetSummary(3L, TypeOfPet.CAT, "Бобик", "Дворовая", owner.getId(),
+                owner.getLastName(), owner.getFirstName(), owner.getMiddleName(),
+                owner.getMainPhone(), owner.getOptionalPhone(), owner.getRegistrationDate());
+        PetSummaryDto secondPetDto = PetSummaryDto.builder().id(2L).name("Альма").ownerShortDto(ownerShortDto).build();
+        PetSummaryDto firstPetDto = PetSummaryDto.builder().id(3L).name("Бобик").ownerShortDto(ownerShortDto).build();
+        when(mockPetRepository.findPetIdsByParams(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(2L, 3L), PageRequest.of(0, 2), 2));
+        when(entityService.getListOfPetSummariesByIds(List.of(2L, 3L))).thenReturn(List.of(firstPet, secondPet));
+        when(mockPetMapper.toPetSummaryDto(secondPet)).thenReturn(secondPetDto);
+        when(mockPetMapper.toPetSummaryDto(firstPet)).thenReturn(firstPetDto);
+
+        Page<PetSummaryDto> result = petService.getPetsBySearch(requesterAdmin.getId(), "а", 0, 2, false);
+
+        assertEquals(List.of(secondPetDto, firstPetDto), result.getContent());
+        verify(entityService, never()).getListOfPetsWithOwnersByIds(any());
+    }
+}
@@ -2,15 +2,19 @@ package ru.modgy.pet.service;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.owner.model.Owner;
 import ru.modgy.pet.dto.NewPetDto;
 import ru.modgy.pet.dto.PetDto;
+import ru.modgy.pet.dto.PetSummaryDto;
 import ru.modgy.pet.dto.UpdatePetDto;
 import ru.modgy.pet.model.Pet;
 import ru.modgy.pet.model.Sex;
@@ -20,6 +24,7 @@ import ru.modgy.user.model.User;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -429,6 +434,35 @@ public class PetServiceIntegrationTest {
         assertThat(actualPet.getAdditionalData(), equalTo(updatedPet.getAdditionalData()));
     }
 
+    @Test
+    void updatePet_whenOnlyNameChanged_thenOneUpdateAndOtherFieldsKept() {
+        em.persist(requesterAdmin);
+        em.persist(owner);
+        em.persist(pet);
+        em.flush();
+        em.clear();
+        UpdatePetDto onlyName = UpdatePetDto.builder()
+                .name("Тузик")
+                .breed(" ")
+                .build();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        service.updatePet(requesterAdmin.getId(), pet.getId(), onlyName);
+        em.flush();
+
+        assertThat(statistics.getEntityUpdateCount(), equalTo(1L));
+        assertThat(statistics.getEntityInsertCount(), equalTo(0L));
+        em.clear();
+
+        Pet actualPet = em.find(Pet.class, pet.getId());
+        assertThat(actualPet.getName(), equalTo("Тузик"));
+        assertThat(actualPet.getBreed(), equalTo(pet.getBreed()));
+        assertThat(actualPet.getColor(), equalTo(pet.getColor()));
+        assertThat(actualPet.getRegistrationDate(), notNullValue());
+        assertThat(actualPet.getOwner().getId(), equalTo(owner.getId()));
+    }
+
     @Test
     void getPetById() {
         em.persist(requesterAdmin);
@@ -511,4 +545,32 @@ public class PetServiceIntegrationTest {
 
         assertEquals(error, exception.getMessage());
     }
+
+    @Test
+    void getPetsBySearch_whenPageRequested_thenPetsSortedAndPagedInQuery() {
+        em.persist(requesterAdmin);
+        em.persist(owner);
+        for (String name : List.of("Zz Gamma", "Zz Alpha", "Zz Beta")) {
+            em.persist(Pet.builder()
+                    .type(TypeOfPet.DOG)
+                    .owner(owner)
+                    .name(name)
+                    .breed("Spaniel")
+                    .birthDate(BIRTH_DATE)
+                    .sex(Sex.FEMALE)
+                    .build());
+        }
+        em.flush();
+        em.clear();
+
+        Page<PetSummaryDto> firstPage = service.getPetsBySearch(requesterAdmin.getId(), "zz", 0, 2, false);
+        Page<PetSummaryDto> secondPage = service.getPetsBySearch(requesterAdmin.getId(), "zz", 1, 2, false);
+
+        assertThat(firstPage.getContent().stream().map(PetSummaryDto::getName).toList(),
+                contains("Zz Alpha", "Zz Beta"));
+        assertThat(firstPage.getTotalElements(), equalTo(3L));
+        assertThat(firstPage.getContent().get(0).getOwnerShortDto().getId(), equalTo(owner.getId()));
+        assertThat(secondPage.getContent().stream().map(PetSummaryDto::getName).toList(),
+                contains("Zz Gamma"));
+    }
 }
@@ -7,11 +7,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.room.category.dto.CategoryDto;
+import ru.modgy.room.dto.AvailableRoomsDto;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.room.dto.UpdateRoomDto;
@@ -26,6 +28,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -177,6 +181,41 @@ class RoomControllerIntegrationTest {
                 .andExpect(jsonPath("$.[0].isVisible", is(roomDto.getIsVisible())));
     }
 
+    @Test
+    @SneakyThrows
+    void getAllRooms_whenETagMatches_thenNotModified() {
+        String eTag = "\"1-1-0\"";
+        when(roomService.getAllRoomsETag(anyLong(), anyBoolean())).thenReturn(eTag);
+
+        mockMvc.perform(get("/rooms")
+                        .header(requesterHeader, requesterId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("isVisible", "true"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(roomService, never()).getAllRooms(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllRooms_whenETagChanged_thenReturnedWithNewETag() {
+        String eTag = "\"1-1-1\"";
+        when(roomService.getAllRoomsETag(anyLong(), anyBoolean())).thenReturn(eTag);
+        when(roomService.getAllRooms(anyLong(), anyBoolean())).thenReturn(List.of(roomDto));
+
+        mockMvc.perform(get("/rooms")
+                        .header(requesterHeader, requesterId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-1-0\"")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("isVisible", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$.[0].id", is(roomDto.getId()), Long.class));
+    }
+
     @Test
     @SneakyThrows
     void hideRoomById() {
@@ -267,6 +306,25 @@ class RoomControllerIntegrationTest {
                 .getAvailableRoomsByCategoryInDates(requesterId, catId, checkIn, checkOut);
     }
 
+    @Test
+    @SneakyThrows
+    void searchAvailableRooms() {
+        when(roomService.searchAvailableRooms(anyLong(), any(LocalDate.class), any(LocalDate.class), anyList(), any()))
+                .thenReturn(List.of(new AvailableRoomsDto(roomDto.getCategoryDto(), List.of(roomDto))));
+
+        mockMvc.perform(get("/rooms/available")
+                        .header(requesterHeader, requesterId)
+                        .accept(MediaType.ALL_VALUE)
+                        .param("checkInDate", "01.01.2024")
+                        .param("checkOutDate", "02.01.2024")
+                        .param("categoryIds", "1", "2")
+                        .param("minArea", "5.5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rooms[0].id", is(roomDto.getId()), Long.class));
+
+        verify(roomService, times(1)).searchAvailableRooms(requesterId, checkIn, checkOut, List.of(1L, 2L), 5.5);
+    }
+
     @Test
     @SneakyThrows
     void checkUniqueRoomNumber() {
@@ -0,0 +1,116 @@
+package ru.modgy.room.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.modgy.room.category.model.Category;
+import ru.modgy.room.category.repository.CategoryRepository;
+import ru.modgy.room.dto.RoomDto;
+import ru.modgy.room.dto.UpdateRoomDto;
+import ru.modgy.room.model.Room;
+import ru.modgy.room.repository.RoomRepository;
+import ru.modgy.user.model.Roles;
+import ru.modgy.user.model.User;
+import ru.modgy.user.repository.UserRepository;
+
+import java.util.Collection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Нетранзакционный тест: запись в кэш второго уровня видна только сессиям, открытым после нее,
+ * поэтому каждый вызов сервиса выполняется в собственной транзакции, а созданные данные удаляются после теста.
+ */
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomSecondLevelCacheTest {
+    private final RoomService roomService;
+    private final RoomRepository roomRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+    private User requester;
+    private Category category;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        requester = userRepository.save(User.builder()
+                .firstName("cache")
+                .email("cache-test@mail.ru")
+                .password("cache_pwd")
+                .role(Roles.ROLE_ADMIN)
+                .isActive(true)
+                .build());
+        category = categoryRepository.save(Category.builder()
+                .name("Cache test rooms")
+                .description("Rooms for second-level cache test")
+                .build());
+        room = roomRepository.save(Room.builder()
+                .number("cache room")
+                .area(5.0)
+                .category(category)
+                .isVisible(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        roomRepository.deleteById(room.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(requester.getId());
+    }
+
+    @Test
+    void getRoomById_whenRoomAlreadyLoaded_thenServedFromSecondLevelCache() {
+        roomService.getRoomById(requester.getId(), room.getId());
+
+        statistics.clear();
+        RoomDto result = roomService.getRoomById(requester.getId(), room.getId());
+
+        assertThat(result.getNumber(), equalTo(room.getNumber()));
+        assertThat(result.getCategoryDto().getName(), equalTo(category.getName()));
+        assertThat(statistics.getDomainDataRegionStatistics("rooms").getHitCount(), equalTo(1L));
+        assertThat(statistics.getDomainDataRegionStatistics("categories").getHitCount(), equalTo(1L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+    }
+
+    @Test
+    void updateRoom_whenRoomCached_thenNextReadReturnsUpdatedRoom() {
+        roomService.getRoomById(requester.getId(), room.getId());
+        roomService.updateRoom(requester.getId(), room.getId(), UpdateRoomDto.builder()
+                .number("cache room updated")
+                .build());
+
+        RoomDto result = roomService.getRoomById(requester.getId(), room.getId());
+
+        assertThat(result.getNumber(), equalTo("cache room updated"));
+        assertThat(result.getArea(), equalTo(room.getArea()));
+    }
+
+    @Test
+    void getAllRooms_whenRoomHidden_thenCachedQueryResultInvalidated() {
+        roomService.getAllRooms(requester.getId(), true);
+
+        statistics.clear();
+        Collection<RoomDto> cached = roomService.getAllRooms(requester.getId(), true);
+        assertThat(statistics.getQueryCacheHitCount(), equalTo(1L));
+        assertThat(cached.stream().map(RoomDto::getId).toList(), hasItem(room.getId()));
+
+        roomService.hideRoomById(requester.getId(), room.getId());
+        Collection<RoomDto> afterHide = roomService.getAllRooms(requester.getId(), true);
+
+        assertThat(afterHide.stream().map(RoomDto::getId).toList(), not(hasItem(room.getId())));
+    }
+}
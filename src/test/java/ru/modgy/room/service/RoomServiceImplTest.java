@@ -12,12 +12,14 @@ import ru.modgy.booking.model.Booking;
 import ru.modgy.booking.model.StatusBooking;
 import ru.modgy.booking.model.TypesBooking;
 import ru.modgy.booking.repository.BookingRepository;
+import ru.modgy.booking.service.RoomOccupancyIndex;
 import ru.modgy.exception.ConflictException;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.pet.model.Pet;
 import ru.modgy.room.category.dto.CategoryDto;
 import ru.modgy.room.category.dto.mapper.CategoryMapper;
 import ru.modgy.room.category.model.Category;
+import ru.modgy.room.dto.AvailableRoomsDto;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.room.dto.UpdateRoomDto;
@@ -34,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -67,7 +70,7 @@ class RoomServiceImplTest {
             .id(1L)
             .area(5.0)
             .number("standard room")
-            .category(new Category(1L, "name", "description"))
+            .category(new Category(1L, null, "name", "description"))
             .isVisible(true)
             .build();
 
@@ -90,7 +93,7 @@ class RoomServiceImplTest {
             .id(1L)
             .area(5.0)
             .number("standard room")
-            .category(new Category(1L, "name", "description"))
+            .category(new Category(1L, null, "name", "description"))
             .isVisible(false)
             .build();
 
@@ -130,6 +133,8 @@ class RoomServiceImplTest {
     private CategoryMapper categoryMapper;
     @Mock
     private EntityService entityService;
+    @Mock
+    private RoomOccupancyIndex roomOccupancyIndex;
 
     @Test
     void addRoom_whenAddRoomByBoss_thenRoomAdded() {
@@ -188,14 +193,12 @@ class RoomServiceImplTest {
         Room newRoom = Room.builder()
                 .area(10.0)
                 .number("new standard room")
-                .category(new Category(1L, "name", "description"))
+                .category(new Category(1L, null, "name", "description"))
                 .isVisible(false)
                 .build();
 
         when(entityService.getCategoryIfExists(anyLong())).thenReturn(category);
         when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
-        when(roomRepository.save(any(Room.class))).thenReturn(newRoom);
-        when(roomMapper.toRoom(any(UpdateRoomDto.class))).thenReturn(room);
         when(roomMapper.toRoomDto(any(Room.class))).thenReturn(updatedRoomDto);
 
         RoomDto result = roomService.updateRoom(boss.getId(), room.getId(), newRoomDto);
@@ -207,7 +210,8 @@ class RoomServiceImplTest {
         Assertions.assertFalse(result.getIsVisible());
         Assertions.assertEquals(updatedRoomDto.getNumber(), result.getNumber());
 
-        verify(roomRepository, times(1)).save(any(Room.class));
+        verify(roomMapper).updateRoom(newRoomDto, room);
+        verify(roomRepository, never()).save(any(Room.class));
     }
 
     @Test
@@ -230,15 +234,13 @@ class RoomServiceImplTest {
         Room newRoom = Room.builder()
                 .area(10.0)
                 .number("standard room")
-                .category(new Category(1L, "name", "description"))
+                .category(new Category(1L, null, "name", "description"))
                 .isVisible(true)
                 .build();
 
         when(entityService.getCategoryIfExists(anyLong())).thenReturn(category);
         when(categoryMapper.toCategoryDto(any(Category.class))).thenReturn(categoryDto);
         when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
-        when(roomRepository.save(any(Room.class))).thenReturn(newRoom);
-        when(roomMapper.toRoom(any(UpdateRoomDto.class))).thenReturn(updatedRoom);
         when(roomMapper.toRoomDto(any(Room.class))).thenReturn(updatedRoomDto);
 
         RoomDto result = roomService.updateRoom(boss.getId(), room.getId(), newRoomDto);
@@ -250,7 +252,8 @@ class RoomServiceImplTest {
         Assertions.assertTrue(result.getIsVisible());
         Assertions.assertEquals(updatedRoomDto.getNumber(), result.getNumber());
 
-        verify(roomRepository, times(1)).save(any(Room.class));
+        verify(roomMapper).updateRoom(newRoomDto, room);
+        verify(roomRepository, never()).save(any(Room.class));
     }
 
     @Test
@@ -274,14 +277,12 @@ class RoomServiceImplTest {
         Room newRoom = Room.builder()
                 .area(5.0)
                 .number("standard room")
-                .category(new Category(1L, "name", "description"))
+                .category(new Category(1L, null, "name", "description"))
                 .isVisible(false)
                 .build();
 
         when(entityService.getCategoryIfExists(anyLong())).thenReturn(category);
         when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
-        when(roomRepository.save(any(Room.class))).thenReturn(newRoom);
-        when(roomMapper.toRoom(any(UpdateRoomDto.class))).thenReturn(updatedRoom);
         when(roomMapper.toRoomDto(any(Room.class))).thenReturn(updatedRoomDto);
 
         RoomDto result = roomService.updateRoom(boss.getId(), room.getId(), newRoomDto);
@@ -293,7 +294,8 @@ class RoomServiceImplTest {
         Assertions.assertFalse(result.getIsVisible());
         Assertions.assertEquals(updatedRoomDto.getNumber(), result.getNumber());
 
-        verify(roomRepository, times(1)).save(any(Room.class));
+        verify(roomMapper).updateRoom(newRoomDto, room);
+        verify(roomRepository, never()).save(any(Room.class));
     }
 
     @Test
@@ -337,6 +339,7 @@ class RoomServiceImplTest {
     @Test
     void hideRoomById_whenFutureBookingsExist_thenConflictException() {
         when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
+        when(roomOccupancyIndex.hasBookingsFrom(anyLong(), any())).thenReturn(true);
         when(bookingRepository.findFutureBookingsForRoom(anyLong(), any())).thenReturn(Optional.of(List.of(booking)));
 
         assertThrows(ConflictException.class, () -> roomService.hideRoomById(boss.getId(), room.getId()));
@@ -344,6 +347,32 @@ class RoomServiceImplTest {
         verify(roomRepository, times(0)).save(any(Room.class));
     }
 
+    @Test
+    void hideRoomById_whenNoBookingsInOccupancyIndex_thenRoomHiddenWithoutBookingsQuery() {
+        when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
+        when(roomOccupancyIndex.hasBookingsFrom(anyLong(), any())).thenReturn(false);
+        when(roomMapper.toRoomDto(any(Room.class))).thenReturn(hiddenRoomDto);
+
+        RoomDto result = roomService.hideRoomById(boss.getId(), room.getId());
+
+        Assertions.assertFalse(result.getIsVisible());
+        verify(bookingRepository, never()).findFutureBookingsForRoom(anyLong(), any());
+        verify(roomRepository, times(1)).save(any(Room.class));
+    }
+
+    @Test
+    void hideRoomById_whenOnlyClosingsInFuture_thenRoomHidden() {
+        when(entityService.getRoomIfExists(anyLong())).thenReturn(room);
+        when(roomOccupancyIndex.hasBookingsFrom(anyLong(), any())).thenReturn(true);
+        when(bookingRepository.findFutureBookingsForRoom(anyLong(), any())).thenReturn(Optional.of(List.of()));
+        when(roomMapper.toRoomDto(any(Room.class))).thenReturn(hiddenRoomDto);
+
+        RoomDto result = roomService.hideRoomById(boss.getId(), room.getId());
+
+        Assertions.assertFalse(result.getIsVisible());
+        verify(roomRepository, times(1)).save(any(Room.class));
+    }
+
     @Test
     void unhideRoomById_whenUnhideRoomByIdByBoss_thenRoomUnhidden() {
         when(entityService.getRoomIfExists(anyLong())).thenReturn(hiddenRoom);
@@ -391,8 +420,8 @@ class RoomServiceImplTest {
 
     @Test
     void getAvailableRoomsByCategoryInDates_whenOneAvailableRoom_thenReturnedListOfOneRoom() {
-        when(roomRepository.findAvailableRoomsByCategoryInDates(
-                anyLong(), any(), any())).thenReturn(Optional.of(List.of(room)));
+        when(roomRepository.findVisibleRoomsByCategory(anyLong())).thenReturn(Optional.of(List.of(room)));
+        when(roomOccupancyIndex.findOccupiedRoomIds(anyList(), any(), any())).thenReturn(Set.of());
         when(roomMapper.toListRoomDto(any())).thenReturn(List.of(roomDto));
 
         List<RoomDto> result = roomService.getAvailableRoomsByCategoryInDates(boss.getId(), category.getId(), checkIn, checkOut);
@@ -405,14 +434,14 @@ class RoomServiceImplTest {
         Assertions.assertTrue(result.get(0).getIsVisible());
         Assertions.assertEquals(roomDto.getNumber(), result.get(0).getNumber());
 
-        verify(roomRepository, times(1)).findAvailableRoomsByCategoryInDates(anyLong(), any(), any());
+        verify(roomRepository, times(1)).findVisibleRoomsByCategory(anyLong());
         verifyNoMoreInteractions(roomRepository);
     }
 
     @Test
     void getAvailableRoomsByCategoryInDates_whenNoAvailableRoom_thenReturnedEmptyList() {
-        when(roomRepository.findAvailableRoomsByCategoryInDates(
-                anyLong(), any(), any())).thenReturn(Optional.empty());
+        when(roomRepository.findVisibleRoomsByCategory(anyLong())).thenReturn(Optional.of(List.of(room)));
+        when(roomOccupancyIndex.findOccupiedRoomIds(anyList(), any(), any())).thenReturn(Set.of(1L));
         when(roomMapper.toListRoomDto(any())).thenReturn(new ArrayList<>());
 
         List<RoomDto> result = roomService.getAvailableRoomsByCategoryInDates(boss.getId(), category.getId(), checkIn, checkOut);
@@ -420,10 +449,57 @@ class RoomServiceImplTest {
         Assertions.assertNotNull(result);
         Assertions.assertEquals(0, result.size());
 
-        verify(roomRepository, times(1)).findAvailableRoomsByCategoryInDates(anyLong(), any(), any());
+        verify(roomRepository, times(1)).findVisibleRoomsByCategory(anyLong());
+        verifyNoMoreInteractions(roomRepository);
+    }
+
+    @Test
+    void searchAvailableRooms_whenOneRoomOccupied_thenRoomsGroupedByCategoryWithoutOccupied() {
+        Room otherRoom = Room.builder()
+                .id(2L)
+                .area(8.0)
+                .number("big room")
+                .category(new Category(2L, null, "other", "description"))
+                .isVisible(true)
+                .build();
+        RoomDto otherRoomDto = RoomDto.builder()
+                .id(2L)
+                .area(8.0)
+                .number("big room")
+                .categoryDto(new CategoryDto(2L, "other", "description"))
+                .isVisible(true)
+                .build();
+        when(roomRepository.findVisibleRoomsByCategories(anyList())).thenReturn(List.of(room, otherRoom));
+        when(roomOccupancyIndex.findOccupiedRoomIds(anyList(), any(), any())).thenReturn(Set.of(1L));
+        when(roomMapper.toListRoomDto(any())).thenReturn(List.of(roomDto, otherRoomDto));
+
+        List<AvailableRoomsDto> result = roomService.searchAvailableRooms(
+                boss.getId(), checkIn, checkOut, List.of(1L, 2L), null);
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(roomDto.getCategoryDto(), result.get(0).getCategoryDto());
+        Assertions.assertTrue(result.get(0).getRooms().isEmpty());
+        Assertions.assertEquals(otherRoomDto.getCategoryDto(), result.get(1).getCategoryDto());
+        Assertions.assertEquals(List.of(otherRoomDto), result.get(1).getRooms());
+
+        verify(roomRepository, times(1)).findVisibleRoomsByCategories(List.of(1L, 2L));
+        verify(roomOccupancyIndex, times(1)).findOccupiedRoomIds(List.of(1L, 2L), checkIn, checkOut);
         verifyNoMoreInteractions(roomRepository);
     }
 
+    @Test
+    void searchAvailableRooms_whenNoCategoriesAndMinArea_thenAllVisibleRoomsFilteredByArea() {
+        when(roomRepository.getAllRooms(true)).thenReturn(Optional.of(List.of(room)));
+        when(roomOccupancyIndex.findOccupiedRoomIds(anyList(), any(), any())).thenReturn(Set.of());
+        when(roomMapper.toListRoomDto(any())).thenReturn(new ArrayList<>());
+
+        List<AvailableRoomsDto> result = roomService.searchAvailableRooms(boss.getId(), checkIn, checkOut, null, 6.0);
+
+        Assertions.assertTrue(result.isEmpty());
+        verify(roomOccupancyIndex, times(1)).findOccupiedRoomIds(List.of(), checkIn, checkOut);
+        verify(roomMapper, times(1)).toListRoomDto(List.of());
+    }
+
     @Test
     void checkUniqueRoomNumber_whenNumberUnique_thenReturnedTrue() {
         when(roomRepository.countAllByNumber(anyString())).thenReturn(0);
@@ -2,14 +2,21 @@ package ru.modgy.room.service;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.booking.model.Booking;
+import ru.modgy.booking.model.BookingInterval;
+import ru.modgy.booking.model.StatusBooking;
+import ru.modgy.booking.model.TypesBooking;
+import ru.modgy.booking.service.RoomOccupancyIndex;
 import ru.modgy.exception.NotFoundException;
 import ru.modgy.room.category.dto.CategoryDto;
 import ru.modgy.room.category.model.Category;
+import ru.modgy.room.dto.AvailableRoomsDto;
 import ru.modgy.room.dto.NewRoomDto;
 import ru.modgy.room.dto.RoomDto;
 import ru.modgy.room.dto.UpdateRoomDto;
@@ -18,6 +25,7 @@ import ru.modgy.user.model.Roles;
 import ru.modgy.user.model.User;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -78,8 +86,10 @@ class RoomServiceIntegrationTest {
             .categoryId(1L)
             .description("update room description")
             .build();
+    private final List<Long> indexedBookingIds = new ArrayList<>();
     private final EntityManager em;
     private final RoomService roomService;
+    private final RoomOccupancyIndex roomOccupancyIndex;
     private final LocalDate checkIn = LocalDate.of(2024, 1, 1);
     private final LocalDate checkOut = LocalDate.of(2024, 1, 2);
 
@@ -128,6 +138,52 @@ class RoomServiceIntegrationTest {
         assertThat(result.getDescription(), equalTo(updateRoomDto.getDescription()));
     }
 
+    @Test
+    void updateRoom_whenFieldsNull_thenStoredValuesKept() {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        UpdateRoomDto areaOnly = UpdateRoomDto.builder()
+                .area(12.5)
+                .build();
+
+        roomService.updateRoom(requesterAdmin.getId(), room.getId(), areaOnly);
+        em.flush();
+        em.clear();
+        Room actualRoom = em.find(Room.class, room.getId());
+
+        assertThat(actualRoom.getArea(), equalTo(areaOnly.getArea()));
+        assertThat(actualRoom.getNumber(), equalTo(roomDto.getNumber()));
+        assertThat(actualRoom.getDescription(), equalTo(roomDto.getDescription()));
+        assertThat(actualRoom.getCategory().getId(), equalTo(category.getId()));
+        assertTrue(actualRoom.getIsVisible());
+    }
+
+    @Test
+    void getAllRoomsETag_whenRoomOrCategoryChanged_thenETagChanged() {
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(room);
+        em.flush();
+
+        String initialETag = roomService.getAllRoomsETag(requesterAdmin.getId(), true);
+        String sameETag = roomService.getAllRoomsETag(requesterAdmin.getId(), true);
+
+        updateRoomDto.setCategoryId(category.getId());
+        roomService.updateRoom(requesterAdmin.getId(), room.getId(), updateRoomDto);
+        em.flush();
+        String roomChangedETag = roomService.getAllRoomsETag(requesterAdmin.getId(), true);
+
+        category.setName("new name");
+        em.flush();
+        String categoryChangedETag = roomService.getAllRoomsETag(requesterAdmin.getId(), true);
+
+        assertThat(sameETag, equalTo(initialETag));
+        assertNotEquals(initialETag, roomChangedETag);
+        assertNotEquals(roomChangedETag, categoryChangedETag);
+        assertNotEquals(categoryChangedETag, roomService.getAllRoomsETag(requesterAdmin.getId(), false));
+    }
+
     @Test
     void getAllRooms() {
         em.persist(requesterAdmin);
@@ -211,6 +267,55 @@ class RoomServiceIntegrationTest {
         assertTrue(result.get(0).getIsVisible());
     }
 
+    @Test
+    void searchAvailableRooms_whenRoomBooked_thenOnlyFreeRoomsGroupedByCategory() {
+        Category otherCategory = Category.builder()
+                .name("other name")
+                .description("description")
+                .build();
+        Room otherRoom = Room.builder()
+                .number("other room number")
+                .area(20.0)
+                .category(otherCategory)
+                .isVisible(true)
+                .build();
+        em.persist(requesterAdmin);
+        em.persist(category);
+        em.persist(otherCategory);
+        em.persist(room);
+        em.persist(otherRoom);
+        Booking booking = Booking.builder()
+                .type(TypesBooking.TYPE_BOOKING)
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut.plusDays(3))
+                .status(StatusBooking.STATUS_CONFIRMED)
+                .price(0.0)
+                .amount(0.0)
+                .prepaymentAmount(0.0)
+                .isPrepaid(false)
+                .room(room)
+                .build();
+        em.persist(booking);
+        em.flush();
+        addToOccupancyIndex(booking);
+
+        List<AvailableRoomsDto> result = roomService.searchAvailableRooms(requesterAdmin.getId(),
+                checkIn.plusDays(1), checkOut.plusDays(10), List.of(category.getId(), otherCategory.getId()), null);
+
+        assertThat(result, hasSize(2));
+        assertThat(result.get(0).getCategoryDto().getName(), equalTo(category.getName()));
+        assertThat(result.get(0).getRooms(), hasSize(0));
+        assertThat(result.get(1).getCategoryDto().getName(), equalTo(otherCategory.getName()));
+        assertThat(result.get(1).getRooms(), hasSize(1));
+        assertThat(result.get(1).getRooms().get(0).getId(), equalTo(otherRoom.getId()));
+
+        List<AvailableRoomsDto> bigRooms = roomService.searchAvailableRooms(requesterAdmin.getId(),
+                checkOut.plusDays(5), checkOut.plusDays(10), List.of(category.getId(), otherCategory.getId()), 15.0);
+
+        assertThat(bigRooms, hasSize(1));
+        assertThat(bigRooms.get(0).getRooms().get(0).getId(), equalTo(otherRoom.getId()));
+    }
+
     @Test
     void checkUniqueRoomNumber_whenNumberUnique_thenReturnedTrue() {
         em.persist(requesterAdmin);
@@ -233,4 +338,21 @@ class RoomServiceIntegrationTest {
 
         assertFalse(result);
     }
+
+    /*
+     * Индекс занятости обновляется только после фиксации транзакции, а тестовая транзакция откатывается,
+     * поэтому бронирования, сохраненные в тесте, добавляются в индекс вручную и удаляются из него после теста.
+     */
+    private void addToOccupancyIndex(Booking... bookings) {
+        for (Booking indexed : bookings) {
+            roomOccupancyIndex.put(new BookingInterval(indexed.getId(), indexed.getRoom().getId(),
+                    indexed.getCheckInDate(), indexed.getCheckOutDate()));
+            indexedBookingIds.add(indexed.getId());
+        }
+    }
+
+    @AfterEach
+    void removeFromOccupancyIndex() {
+        indexedBookingIds.forEach(roomOccupancyIndex::remove);
+    }
 }
@@ -26,7 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @ActiveProfiles("test")
-@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:reset-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class UserIntegrationTest {
     @Autowired
     private final UserController userController;
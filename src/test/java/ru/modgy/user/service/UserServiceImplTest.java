@@ -295,17 +295,6 @@ class UserServiceImplTest {
                 .password(userPassword)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .lastName(newUserDto.getLastName())
-                .firstName(newUserDto.getFirstName())
-                .middleName(newUserDto.getMiddleName())
-                .email(newUserDto.getEmail())
-                .role(newUserDto.getRole())
-                .password(newUserDto.getPassword())
-                .isActive(oldUser.getIsActive())
-                .build();
-
         User userAfter = User.builder()
                 .id(oldUser.getId())
                 .lastName(newUserDto.getLastName())
@@ -330,39 +319,24 @@ class UserServiceImplTest {
 
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(newUserDto)).thenReturn(newUser);
-        when(userRepository.save(newUser)).thenReturn(userAfter);
-        when(userMapper.toUserDto(userAfter)).thenReturn(userDtoAfter);
+        when(userMapper.toUserDto(oldUser)).thenReturn(userDtoAfter);
 
         UserDto returnedUserDto = userService.updateUser(requesterId, userId, newUserDto);
 
-        verify(userRepository).save(userArgumentCaptor.capture());
-        User userForSave = userArgumentCaptor.getValue();
-
         assertAll(
                 () -> assertEquals(userDtoAfter, returnedUserDto,
                         "entity field test failed"),
-                () -> assertEquals(userId, userForSave.getId(),
+                () -> assertEquals(userId, oldUser.getId(),
                         "id field test1 failed"),
-                () -> assertEquals(oldUser.getId(), userForSave.getId(),
-                        "id field test2 failed"),
-                () -> assertEquals(newUserDto.getLastName(), userForSave.getLastName(),
-                        "lastName field test failed"),
-                () -> assertEquals(newUserDto.getFirstName(), userForSave.getFirstName(),
-                        "firstName field test failed"),
-                () -> assertEquals(newUserDto.getMiddleName(), userForSave.getMiddleName(),
-                        "middleName field test failed"),
-                () -> assertEquals(newUserDto.getEmail(), userForSave.getEmail(),
-                        "email field test failed"),
-                () -> assertEquals(newUserDto.getRole(), userForSave.getRole(),
+                () -> assertEquals(newUserDto.getRole(), oldUser.getRole(),
                         "role field test failed"),
 
 
                 () -> verify(entityService).getUserIfExists(requesterId),
                 () -> verify(entityService).getUserIfExists(userId),
-                () -> verify(userMapper).toUser(newUserDto),
-                () -> verify(userRepository).save(newUser),
-                () -> verify(userMapper).toUserDto(userAfter)
+                () -> verify(userMapper).updateUser(newUserDto, oldUser),
+                () -> verify(userRepository, never()).save(any()),
+                () -> verify(userMapper).toUserDto(oldUser)
         );
     }
 
@@ -386,17 +360,6 @@ class UserServiceImplTest {
                 .password(userPassword)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .lastName(newUserDto.getLastName())
-                .firstName(newUserDto.getFirstName())
-                .middleName(newUserDto.getMiddleName())
-                .email(newUserDto.getEmail())
-                .role(newUserDto.getRole())
-                .password(newUserDto.getPassword())
-                .isActive(oldUser.getIsActive())
-                .build();
-
         User userAfter = User.builder()
                 .id(oldUser.getId())
                 .lastName(oldUser.getLastName())
@@ -421,35 +384,21 @@ class UserServiceImplTest {
 
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(newUserDto)).thenReturn(newUser);
-        when(userRepository.save(newUser)).thenReturn(userAfter);
-        when(userMapper.toUserDto(userAfter)).thenReturn(userDtoAfter);
+        when(userMapper.toUserDto(oldUser)).thenReturn(userDtoAfter);
 
         UserDto returnedUserDto = userService.updateUser(requesterId, userId, newUserDto);
-        verify(userRepository).save(userArgumentCaptor.capture());
-        User userForSave = userArgumentCaptor.getValue();
 
         assertAll(
                 () -> assertEquals(userDtoAfter, returnedUserDto,
                         "entity field test failed"),
-                () -> assertEquals(oldUser.getId(), userForSave.getId(),
-                        "id field test2 failed"),
-                () -> assertEquals(oldUser.getLastName(), userForSave.getLastName(),
-                        "lastName field test failed"),
-                () -> assertEquals(oldUser.getFirstName(), userForSave.getFirstName(),
-                        "firstName field test failed"),
-                () -> assertEquals(oldUser.getMiddleName(), userForSave.getMiddleName(),
-                        "middleName field test failed"),
-                () -> assertEquals(newUserDto.getEmail(), userForSave.getEmail(),
-                        "email field test failed"),
-                () -> assertEquals(oldUser.getRole(), userForSave.getRole(),
+                () -> assertEquals(oldUserRole, oldUser.getRole(),
                         "role field test failed"),
 
                 () -> verify(entityService).getUserIfExists(requesterId),
                 () -> verify(entityService).getUserIfExists(userId),
-                () -> verify(userMapper).toUser(newUserDto),
-                () -> verify(userRepository).save(newUser),
-                () -> verify(userMapper).toUserDto(userAfter)
+                () -> verify(userMapper).updateUser(newUserDto, oldUser),
+                () -> verify(userRepository, never()).save(any()),
+                () -> verify(userMapper).toUserDto(oldUser)
         );
     }
 
@@ -479,17 +428,6 @@ class UserServiceImplTest {
                 .password(userPassword)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .lastName(newUserDto.getLastName())
-                .firstName(newUserDto.getFirstName())
-                .middleName(newUserDto.getMiddleName())
-                .email(newUserDto.getEmail())
-                .role(newUserDto.getRole())
-                .password(newUserDto.getPassword())
-                .isActive(oldUser.getIsActive())
-                .build();
-
         User userAfter = User.builder()
                 .id(oldUser.getId())
                 .lastName(newUserDto.getLastName())
@@ -514,39 +452,24 @@ class UserServiceImplTest {
 
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(newUserDto)).thenReturn(newUser);
-        when(userRepository.save(newUser)).thenReturn(userAfter);
-        when(userMapper.toUserDto(userAfter)).thenReturn(userDtoAfter);
+        when(userMapper.toUserDto(oldUser)).thenReturn(userDtoAfter);
 
         UserDto returnedUserDto = userService.updateUser(requesterId, userId, newUserDto);
 
-        verify(userRepository).save(userArgumentCaptor.capture());
-        User userForSave = userArgumentCaptor.getValue();
-
         assertAll(
                 () -> assertEquals(userDtoAfter, returnedUserDto,
                         "entity field test failed"),
-                () -> assertEquals(userId, userForSave.getId(),
+                () -> assertEquals(userId, oldUser.getId(),
                         "id field test1 failed"),
-                () -> assertEquals(oldUser.getId(), userForSave.getId(),
-                        "id field test2 failed"),
-                () -> assertEquals(newUserDto.getLastName(), userForSave.getLastName(),
-                        "lastName field test failed"),
-                () -> assertEquals(newUserDto.getFirstName(), userForSave.getFirstName(),
-                        "firstName field test failed"),
-                () -> assertEquals(newUserDto.getMiddleName(), userForSave.getMiddleName(),
-                        "middleName field test failed"),
-                () -> assertEquals(newUserDto.getEmail(), userForSave.getEmail(),
-                        "email field test failed"),
-                () -> assertEquals(newUserDto.getRole(), userForSave.getRole(),
+                () -> assertEquals(newUserDto.getRole(), oldUser.getRole(),
                         "role field test failed"),
 
 
                 () -> verify(entityService).getUserIfExists(requesterId),
                 () -> verify(entityService).getUserIfExists(userId),
-                () -> verify(userMapper).toUser(newUserDto),
-                () -> verify(userRepository).save(newUser),
-                () -> verify(userMapper).toUserDto(userAfter)
+                () -> verify(userMapper).updateUser(newUserDto, oldUser),
+                () -> verify(userRepository, never()).save(any()),
+                () -> verify(userMapper).toUserDto(oldUser)
         );
     }
 
@@ -570,17 +493,6 @@ class UserServiceImplTest {
                 .password(userPassword)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .lastName(newUserDto.getLastName())
-                .firstName(newUserDto.getFirstName())
-                .middleName(newUserDto.getMiddleName())
-                .email(newUserDto.getEmail())
-                .role(newUserDto.getRole())
-                .password(newUserDto.getPassword())
-                .isActive(oldUser.getIsActive())
-                .build();
-
         User userAfter = User.builder()
                 .id(oldUser.getId())
                 .lastName(oldUser.getLastName())
@@ -605,35 +517,21 @@ class UserServiceImplTest {
 
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(newUserDto)).thenReturn(newUser);
-        when(userRepository.save(newUser)).thenReturn(userAfter);
-        when(userMapper.toUserDto(userAfter)).thenReturn(userDtoAfter);
+        when(userMapper.toUserDto(oldUser)).thenReturn(userDtoAfter);
 
         UserDto returnedUserDto = userService.updateUser(requesterId, userId, newUserDto);
-        verify(userRepository).save(userArgumentCaptor.capture());
-        User userForSave = userArgumentCaptor.getValue();
 
         assertAll(
                 () -> assertEquals(userDtoAfter, returnedUserDto,
                         "entity field test failed"),
-                () -> assertEquals(oldUser.getId(), userForSave.getId(),
-                        "id field test2 failed"),
-                () -> assertEquals(oldUser.getLastName(), userForSave.getLastName(),
-                        "lastName field test failed"),
-                () -> assertEquals(oldUser.getFirstName(), userForSave.getFirstName(),
-                        "firstName field test failed"),
-                () -> assertEquals(oldUser.getMiddleName(), userForSave.getMiddleName(),
-                        "middleName field test failed"),
-                () -> assertEquals(newUserDto.getEmail(), userForSave.getEmail(),
-                        "email field test failed"),
-                () -> assertEquals(oldUser.getRole(), userForSave.getRole(),
+                () -> assertEquals(oldUserRole, oldUser.getRole(),
                         "role field test failed"),
 
                 () -> verify(entityService).getUserIfExists(requesterId),
                 () -> verify(entityService).getUserIfExists(userId),
-                () -> verify(userMapper).toUser(newUserDto),
-                () -> verify(userRepository).save(newUser),
-                () -> verify(userMapper).toUserDto(userAfter)
+                () -> verify(userMapper).updateUser(newUserDto, oldUser),
+                () -> verify(userRepository, never()).save(any()),
+                () -> verify(userMapper).toUserDto(oldUser)
         );
     }
 
@@ -655,15 +553,6 @@ class UserServiceImplTest {
 
         User oldUser = requester;
 
-        User newUser = User.builder()
-                .lastName(newUserDto.getLastName())
-                .firstName(newUserDto.getFirstName())
-                .middleName(newUserDto.getMiddleName())
-                .email(newUserDto.getEmail())
-                .role(newUserDto.getRole())
-                .password(newUserDto.getPassword())
-                .build();
-
         User userAfter = User.builder()
                 .id(oldUser.getId())
                 .lastName(newUserDto.getLastName())
@@ -688,35 +577,20 @@ class UserServiceImplTest {
 
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(newUserDto)).thenReturn(newUser);
-        when(userRepository.save(newUser)).thenReturn(userAfter);
-        when(userMapper.toUserDto(userAfter)).thenReturn(userDtoAfter);
+        when(userMapper.toUserDto(oldUser)).thenReturn(userDtoAfter);
 
         UserDto returnedUserDto = userService.updateUser(requesterId, userId, newUserDto);
 
-        verify(userRepository).save(userArgumentCaptor.capture());
-        User userForSave = userArgumentCaptor.getValue();
-
         assertAll(
                 () -> assertEquals(userDtoAfter, returnedUserDto,
                         "entity field test failed"),
-                () -> assertEquals(userId, userForSave.getId(),
+                () -> assertEquals(userId, oldUser.getId(),
                         "id field test1 failed"),
-                () -> assertEquals(oldUser.getId(), userForSave.getId(),
-                        "id field test2 failed"),
-                () -> assertEquals(newUserDto.getLastName(), userForSave.getLastName(),
-                        "lastName field test failed"),
-                () -> assertEquals(newUserDto.getFirstName(), userForSave.getFirstName(),
-                        "firstName field test failed"),
-                () -> assertEquals(newUserDto.getMiddleName(), userForSave.getMiddleName(),
-                        "middleName field test failed"),
-                () -> assertEquals(newUserDto.getEmail(), userForSave.getEmail(),
-                        "email field test failed"),
 
 
-                () -> verify(userMapper).toUser(newUserDto),
-                () -> verify(userRepository).save(newUser),
-                () -> verify(userMapper).toUserDto(userAfter)
+                () -> verify(userMapper).updateUser(newUserDto, oldUser),
+                () -> verify(userRepository, never()).save(any()),
+                () -> verify(userMapper).toUserDto(oldUser)
         );
     }
 
@@ -733,8 +607,7 @@ class UserServiceImplTest {
     void updateUser_whenUserNotFound_thenNotFoundException() {
         Roles requesterRole = Roles.ROLE_ADMIN;
         requester.setRole(requesterRole);
-        when(userMapper.toUser(any(UpdateUserDto.class))).thenReturn(new User());
-        doThrow(new NotFoundException(String.format("User with id=%d is not found", requesterId)))
+                doThrow(new NotFoundException(String.format("User with id=%d is not found", requesterId)))
                 .when(entityService).getUserIfExists(userId);
 
         assertThrows(NotFoundException.class,
@@ -760,18 +633,10 @@ class UserServiceImplTest {
                 .role(oldUserRole)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .firstName(newUserDto.getFirstName())
-                .email(newUserDto.getEmail())
-                .role(oldUser.getRole())
-                .build();
-
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(any(UpdateUserDto.class))).thenReturn(newUser);
         doThrow(new AccessDeniedException(String.format("User with role=%s, can't access for this action",
-                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), any(User.class));
+                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), nullable(Roles.class));
 
         assertThrows(AccessDeniedException.class,
                 () -> userService.updateUser(requesterId, userId, newUserDto));
@@ -798,18 +663,10 @@ class UserServiceImplTest {
                 .role(oldUserRole)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .firstName(newUserDto.getFirstName())
-                .email(newUserDto.getEmail())
-                .role(newUserDto.getRole())
-                .build();
-
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(any(UpdateUserDto.class))).thenReturn(newUser);
         doThrow(new AccessDeniedException(String.format("User with role=%s, can't access for this action",
-                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), any(User.class));
+                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), nullable(Roles.class));
 
         assertThrows(AccessDeniedException.class,
                 () -> userService.updateUser(requesterId, userId, newUserDto));
@@ -834,18 +691,10 @@ class UserServiceImplTest {
                 .role(oldUserRole)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .firstName(newUserDto.getFirstName())
-                .email(newUserDto.getEmail())
-                .role(oldUser.getRole())
-                .build();
-
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(any(UpdateUserDto.class))).thenReturn(newUser);
         doThrow(new AccessDeniedException(String.format("User with role=%s, can't access for this action",
-                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), any(User.class));
+                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), nullable(Roles.class));
 
         assertThrows(AccessDeniedException.class,
                 () -> userService.updateUser(requesterId, userId, newUserDto));
@@ -870,18 +719,10 @@ class UserServiceImplTest {
                 .role(oldUserRole)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .firstName(newUserDto.getFirstName())
-                .email(newUserDto.getEmail())
-                .role(oldUser.getRole())
-                .build();
-
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(any(UpdateUserDto.class))).thenReturn(newUser);
         doThrow(new AccessDeniedException(String.format("User with role=%s, can't access for this action",
-                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), any(User.class));
+                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), nullable(Roles.class));
 
         assertThrows(AccessDeniedException.class,
                 () -> userService.updateUser(requesterId, userId, newUserDto));
@@ -906,18 +747,10 @@ class UserServiceImplTest {
                 .role(oldUserRole)
                 .build();
 
-        User newUser = User.builder()
-                .id(oldUser.getId())
-                .firstName(newUserDto.getFirstName())
-                .email(newUserDto.getEmail())
-                .role(oldUser.getRole())
-                .build();
-
         when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(entityService.getUserIfExists(userId)).thenReturn(oldUser);
-        when(userMapper.toUser(any(UpdateUserDto.class))).thenReturn(newUser);
         doThrow(new AccessDeniedException(String.format("User with role=%s, can't access for this action",
-                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), any(User.class));
+                requesterRole))).when(utilityService).checkHigherOrdinalRoleAccessForUsers(any(User.class), nullable(Roles.class));
 
         assertThrows(AccessDeniedException.class,
                 () -> userService.updateUser(requesterId, userId, newUserDto));
@@ -963,7 +796,7 @@ class UserServiceImplTest {
 
         List<UserDto> userDtoList = List.of(userDto1, userDto2, userDto3);
 
-        when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
+        when(utilityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(userRepository.findAllByRoleIn(roles)).thenReturn(Optional.of(userList));
         when(userMapper.map(userList)).thenReturn(userDtoList);
 
@@ -1007,7 +840,7 @@ class UserServiceImplTest {
 
         List<UserDto> userDtoList = List.of(userDto1, userDto3);
 
-        when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
+        when(utilityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(userRepository.findAllByRoleInAndIsActive(roles, isActive)).thenReturn(Optional.of(userList));
         when(userMapper.map(userList)).thenReturn(userDtoList);
 
@@ -1042,7 +875,7 @@ class UserServiceImplTest {
 
         List<UserDto> userDtoList = List.of(userDto2);
 
-        when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
+        when(utilityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(userRepository.findAllByRoleInAndIsActive(roles, isActive)).thenReturn(Optional.of(userList));
         when(userMapper.map(userList)).thenReturn(userDtoList);
 
@@ -1085,7 +918,7 @@ class UserServiceImplTest {
 
         List<UserDto> userDtoList = List.of(userDto1, userDto3);
 
-        when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
+        when(utilityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(userRepository.findAllByRoleIn(roles)).thenReturn(Optional.of(userList));
         when(userMapper.map(userList)).thenReturn(userDtoList);
 
@@ -1119,7 +952,7 @@ class UserServiceImplTest {
 
         List<UserDto> userDtoList = List.of(userDto1);
 
-        when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
+        when(utilityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(userRepository.findAllByRoleInAndIsActive(roles, isActive)).thenReturn(Optional.of(userList));
         when(userMapper.map(userList)).thenReturn(userDtoList);
 
@@ -1153,7 +986,7 @@ class UserServiceImplTest {
 
         List<UserDto> userDtoList = List.of(userDto2);
 
-        when(entityService.getUserIfExists(requesterId)).thenReturn(requester);
+        when(utilityService.getUserIfExists(requesterId)).thenReturn(requester);
         when(userRepository.findAllByRoleInAndIsActive(roles, isActive)).thenReturn(Optional.of(userList));
         when(userMapper.map(userList)).thenReturn(userDtoList);
 
@@ -1169,7 +1002,7 @@ class UserServiceImplTest {
     @Test
     void getAllUsers_whenRequesterNotFound_thenNotFoundException() {
         doThrow(new NotFoundException(String.format("User with id=%d is not found", requesterId)))
-                .when(entityService).getUserIfExists(anyLong());
+                .when(utilityService).getUserIfExists(anyLong());
 
         assertThrows(NotFoundException.class,
                 () -> userService.getAllUsers(requesterId, isActive));
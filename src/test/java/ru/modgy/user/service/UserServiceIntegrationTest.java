@@ -24,7 +24,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest
 @ActiveProfiles("test")
-@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:reset-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class UserServiceIntegrationTest {
     private final EntityManager em;
     private final UserService service;
@@ -134,6 +134,50 @@ public class UserServiceIntegrationTest {
         );
     }
 
+    @Test
+    void updateUser_whenFieldsNull_thenStoredValuesKept() {
+        em.persist(requesterAdmin);
+        em.persist(user);
+        UpdateUserDto emailOnly = UpdateUserDto.builder()
+                .email("other" + userEmail)
+                .build();
+
+        service.updateUser(requesterAdmin.getId(), user.getId(), emailOnly);
+        em.flush();
+        em.clear();
+        User actualUser = em.find(User.class, user.getId());
+
+        assertAll(
+                () -> assertEquals(emailOnly.getEmail(), actualUser.getEmail()),
+                () -> assertEquals(userFirstName, actualUser.getFirstName()),
+                () -> assertEquals(userLastName, actualUser.getLastName()),
+                () -> assertEquals(userMiddleName, actualUser.getMiddleName()),
+                () -> assertEquals(userPassword, actualUser.getPassword()),
+                () -> assertEquals(userRole, actualUser.getRole()),
+                () -> assertEquals(isActive, actualUser.getIsActive())
+        );
+    }
+
+    @Test
+    void updateUser_whenUpdatedBySelf_thenRoleKept() {
+        em.persist(user);
+        UpdateUserDto withRole = UpdateUserDto.builder()
+                .firstName("otherName")
+                .role(Roles.ROLE_ADMIN)
+                .build();
+
+        service.updateUser(user.getId(), user.getId(), withRole);
+        em.flush();
+        em.clear();
+        User actualUser = em.find(User.class, user.getId());
+
+        assertAll(
+                () -> assertEquals(withRole.getFirstName(), actualUser.getFirstName()),
+                () -> assertEquals(userRole, actualUser.getRole()),
+                () -> assertEquals(isActive, actualUser.getIsActive())
+        );
+    }
+
     @Test
     void getAllUsers() {
         em.persist(user1);
@@ -7,13 +7,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.modgy.exception.AccessDeniedException;
 import ru.modgy.user.model.Roles;
 import ru.modgy.user.model.User;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -297,4 +302,45 @@ class UtilityServiceTest {
     void checkHigherOrEqualOrdinalRoleAccess_whenCheckFinancialAndFinancial_thenAccessDenied() {
         assertThrows(AccessDeniedException.class, () -> utilityService.checkHigherOrdinalRoleAccessForUsers(financial, Roles.ROLE_FINANCIAL));
     }
+
+    @Test
+    void checkBossAdminAccess_whenCheckedTwiceInOneRequest_thenUserLoadedOnce() {
+        when(entityService.getUserIfExists(anyLong())).thenReturn(admin);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            utilityService.checkBossAdminAccess(admin.getId());
+            utilityService.checkBossAdminAccess(admin.getId());
+            utilityService.checkBossAdminFinancialAccess(admin.getId());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(entityService, times(1)).getUserIfExists(admin.getId());
+    }
+
+    @Test
+    void getUserIfExists_whenUserEvicted_thenUserLoadedAgain() {
+        when(entityService.getUserIfExists(anyLong())).thenReturn(admin);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            utilityService.getUserIfExists(admin.getId());
+            utilityService.evictUser(admin.getId());
+            utilityService.getUserIfExists(admin.getId());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(entityService, times(2)).getUserIfExists(admin.getId());
+    }
+
+    @Test
+    void getUserIfExists_whenNoRequest_thenUserLoadedEveryTime() {
+        when(entityService.getUserIfExists(anyLong())).thenReturn(admin);
+        RequestContextHolder.resetRequestAttributes();
+
+        utilityService.getUserIfExists(admin.getId());
+        utilityService.getUserIfExists(admin.getId());
+
+        verify(entityService, times(2)).getUserIfExists(admin.getId());
+    }
 }
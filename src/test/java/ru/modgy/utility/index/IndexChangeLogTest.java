@@ -0,0 +1,120 @@
+package ru.modgy.utility.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class IndexChangeLogTest {
+    private final Map<Long, String> index = new HashMap<>();
+    private final IndexChangeLog<Long, String> undoLog = IndexChangeLog.undoOnRollback((key, value) -> {
+        if (value == null) {
+            index.remove(key);
+        } else {
+            index.put(key, value);
+        }
+    });
+
+    private final IndexChangeLog<Long, String> deferredLog = IndexChangeLog.applyAfterCommit((key, value) -> {
+        if (value == null) {
+            index.remove(key);
+        } else {
+            index.put(key, value);
+        }
+    });
+
+    @BeforeEach
+    void setUp() {
+        index.put(1L, "first");
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void undoOnRollback_whenRolledBack_thenValuesBeforeFirstChangeRestored() {
+        undoLog.record(1L, index.put(1L, "second"));
+        undoLog.record(1L, index.put(1L, "third"));
+        undoLog.record(2L, index.put(2L, "new"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(Map.of(1L, "first"), index);
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(undoLog));
+    }
+
+    @Test
+    void undoOnRollback_whenCommitted_thenChangesKept() {
+        undoLog.record(1L, index.remove(1L));
+        undoLog.record(2L, index.put(2L, "new"));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(Map.of(2L, "new"), index);
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(undoLog));
+    }
+
+    @Test
+    void undoOnRollback_whenNoTransaction_thenNothingRecorded() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        undoLog.record(1L, index.put(1L, "second"));
+
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(undoLog));
+        Assertions.assertEquals(Map.of(1L, "second"), index);
+    }
+
+    @Test
+    void applyAfterCommit_whenCommitted_thenLastValuesWrittenAfterCommit() {
+        deferredLog.record(1L, "second");
+        deferredLog.record(1L, null);
+        deferredLog.record(2L, "new");
+        deferredLog.record(2L, "newer");
+
+        Assertions.assertEquals(Map.of(1L, "first"), index);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(Map.of(2L, "newer"), index);
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(deferredLog));
+    }
+
+    @Test
+    void applyAfterCommit_whenRolledBack_thenIndexUnchanged() {
+        deferredLog.record(1L, null);
+        deferredLog.record(2L, "new");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(Map.of(1L, "first"), index);
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(deferredLog));
+    }
+
+    @Test
+    void applyAfterCommit_whenNoTransaction_thenWrittenImmediately() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        deferredLog.record(2L, "new");
+
+        Assertions.assertEquals(Map.of(1L, "first", 2L, "new"), index);
+    }
+
+    private void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
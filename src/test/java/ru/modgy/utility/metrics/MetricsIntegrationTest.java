@@ -0,0 +1,99 @@
+package ru.modgy.utility.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.modgy.user.model.Roles;
+import ru.modgy.user.model.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+    private final MockMvc mockMvc;
+    private final EntityManager em;
+    private final MeterRegistry meterRegistry;
+    private final User requesterAdmin = User.builder()
+            .email("admin@mail.ru")
+            .firstName("admin")
+            .role(Roles.ROLE_ADMIN)
+            .isActive(true)
+            .build();
+
+    @Test
+    @SneakyThrows
+    void prometheus_whenServiceCalled_thenServiceRepositoryHibernateAndCacheMetricsExposed() {
+        em.persist(requesterAdmin);
+
+        mockMvc.perform(get("/categories")
+                        .header("X-PetHotel-User-Id", requesterAdmin.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/categories/{id}", 0L)
+                        .header("X-PetHotel-User-Id", requesterAdmin.getId()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "service_method_seconds_count{class=\"CategoryServiceImpl\",exception=\"none\"," +
+                        "method=\"getAllCategories\",}")))
+                .andExpect(content().string(containsString(
+                        "service_method_seconds_count{class=\"CategoryServiceImpl\",exception=\"NotFoundException\"")))
+                .andExpect(content().string(containsString("service_method_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString(
+                        "hibernate_request_statements_count{method=\"GET\",uri=\"/categories\",}")))
+                .andExpect(content().string(containsString(
+                        "hibernate_request_entity_loads_count{method=\"GET\",uri=\"/categories\",}")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")))
+                .andExpect(content().string(containsString("region=\"categories\"")))
+                .andExpect(content().string(containsString("hibernate_cache_query_requests_total{")));
+    }
+
+    @Test
+    @SneakyThrows
+    void hibernateRequestMetrics_whenStreamingResponse_thenStatementsOfAsyncBodyCounted() {
+        em.persist(requesterAdmin);
+
+        MvcResult mvcResult = mockMvc.perform(get("/owners")
+                        .header("X-PetHotel-User-Id", requesterAdmin.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("hibernate.request.statements")
+                .tags("method", "GET", "uri", "/owners")
+                .summary();
+        assertThat(statements, notNullValue());
+        assertThat(statements.count(), equalTo(1L));
+        assertThat(statements.totalAmount(), greaterThan(0.0));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.modgy.utility.threads;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class VirtualThreadsConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    void virtualThreads_whenPropertyNotSet_thenConfigNotApplied() {
+        contextRunner.run(context -> {
+            assertThat(context.getStartupFailure(), nullValue());
+            assertThat(context.getBeansOfType(ExecutorService.class).isEmpty(), is(true));
+        });
+    }
+
+    @Test
+    void virtualThreads_whenPropertyFalse_thenConfigNotApplied() {
+        contextRunner.withPropertyValues("modgy.threads.virtual.enabled=false").run(context -> {
+            assertThat(context.getStartupFailure(), nullValue());
+            assertThat(context.getBeansOfType(ExecutorService.class).isEmpty(), is(true));
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualThreads_whenEnabledBeforeJava21_thenStartupFails() {
+        contextRunner.withPropertyValues("modgy.threads.virtual.enabled=true").run(context -> {
+            Throwable failure = context.getStartupFailure();
+            assertThat(failure, notNullValue());
+            while (failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            assertThat(failure, instanceOf(IllegalStateException.class));
+            assertThat(failure.getMessage(), containsString("requires Java 21+"));
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreads_whenEnabledOnJava21_thenTasksRunOnVirtualThreads() {
+        contextRunner.withPropertyValues("modgy.threads.virtual.enabled=true").run(context -> {
+            ExecutorService executor = context.getBean("virtualThreadExecutor", ExecutorService.class);
+            Thread thread = executor.submit(Thread::currentThread).get();
+            assertThat(thread.toString(), containsString("VirtualThread"));
+        });
+    }
+}
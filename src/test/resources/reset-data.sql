@@ -0,0 +1,14 @@
+SET REFERENTIAL_INTEGRITY FALSE;
+
+TRUNCATE TABLE pets_in_bookings;
+TRUNCATE TABLE bookings RESTART IDENTITY;
+TRUNCATE TABLE rooms RESTART IDENTITY;
+TRUNCATE TABLE categories RESTART IDENTITY;
+TRUNCATE TABLE pets RESTART IDENTITY;
+TRUNCATE TABLE owners RESTART IDENTITY;
+TRUNCATE TABLE users RESTART IDENTITY;
+
+SET REFERENTIAL_INTEGRITY TRUE;
+
+INSERT INTO users (first_name_users, email_users, password_users, role_users)
+VALUES ('boss', 'boss@mail.ru', 'boss_pwd', 'ROLE_BOSS');